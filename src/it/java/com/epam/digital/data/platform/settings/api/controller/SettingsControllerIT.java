@@ -19,18 +19,24 @@ package com.epam.digital.data.platform.settings.api.controller;
 import static com.epam.digital.data.platform.settings.api.TestUtils.readClassPathResource;
 import static com.epam.digital.data.platform.settings.api.utils.Header.X_ACCESS_TOKEN;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.epam.digital.data.platform.settings.api.UserSettingsServiceApiApplication;
+import com.epam.digital.data.platform.settings.api.model.Settings;
+import com.epam.digital.data.platform.settings.api.model.UserClaims;
 import com.epam.digital.data.platform.settings.api.repository.NotificationChannelRepository;
+import com.epam.digital.data.platform.settings.api.repository.SettingsRepository;
 import com.epam.digital.data.platform.settings.api.service.ChannelVerificationService;
 import com.epam.digital.data.platform.settings.model.dto.ActivateChannelInputDto;
 import com.epam.digital.data.platform.settings.model.dto.Channel;
@@ -39,6 +45,7 @@ import com.epam.digital.data.platform.settings.model.dto.SettingsEmailInputDto;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
 import java.io.IOException;
+import java.util.List;
 import java.util.UUID;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -47,6 +54,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.kafka.test.context.EmbeddedKafka;
 import org.springframework.test.context.ActiveProfiles;
@@ -83,6 +91,8 @@ class SettingsControllerIT {
   ObjectMapper objectMapper;
   @Autowired
   NotificationChannelRepository notificationChannelRepository;
+  @Autowired
+  SettingsRepository settingsRepository;
 
   @MockBean
   ChannelVerificationService channelVerificationService;
@@ -124,13 +134,132 @@ class SettingsControllerIT {
             jsonPath("$.channels[0].deactivationReason").doesNotExist());
   }
 
+  @Test
+  void shouldReturnNotModifiedWhenSettingsVersionMatches() throws Exception {
+    var eTag = mockMvc
+        .perform(
+            get(BASE_URL + "/" + SEARCHED_KEYCLOAK_ID)
+                .header(X_ACCESS_TOKEN.getHeaderName(), TOKEN_OFFICER))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+    assertThat(eTag).isNotBlank();
+    mockMvc
+        .perform(
+            get(BASE_URL + "/" + SEARCHED_KEYCLOAK_ID)
+                .header(X_ACCESS_TOKEN.getHeaderName(), TOKEN_OFFICER)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+        .andExpectAll(
+            status().isNotModified(),
+            content().string(""));
+  }
+
+  @Test
+  void shouldFindSettingsOfSeveralUsersWithoutCreatingUnknown() throws Exception {
+    var unknownKeycloakId = UUID.fromString("0a4f31b5-4ea8-4b4b-8b68-5e6a8c1ac4a1");
+
+    mockMvc
+        .perform(
+            post(BASE_URL + "/batch")
+                .header(X_ACCESS_TOKEN.getHeaderName(), TOKEN_OFFICER)
+                .content(objectMapper.writeValueAsString(
+                    List.of(SEARCHED_KEYCLOAK_ID, unknownKeycloakId)))
+                .contentType(MediaType.APPLICATION_JSON))
+        .andExpectAll(
+            status().isOk(),
+            content().contentType(MediaType.APPLICATION_JSON),
+            jsonPath("$['" + SEARCHED_KEYCLOAK_ID + "'].settingsId", is(SETTINGS_ID_1.toString())),
+            jsonPath("$['" + SEARCHED_KEYCLOAK_ID + "'].channels[0].address", is(EMAIL_1)),
+            jsonPath("$['" + unknownKeycloakId + "'].settingsId",
+                is(Settings.deriveId(unknownKeycloakId).toString())),
+            jsonPath("$['" + unknownKeycloakId + "'].channels", is(empty())));
+
+    assertThat(settingsRepository.findByKeycloakId(unknownKeycloakId)).isEmpty();
+  }
+
+  @Test
+  void shouldExportSettingsOfAllUsersAsNdjson() throws Exception {
+    var result = mockMvc
+        .perform(get(BASE_URL + "/export").header(X_ACCESS_TOKEN.getHeaderName(), TOKEN_OFFICER))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    var response = mockMvc.perform(asyncDispatch(result))
+        .andExpectAll(
+            status().isOk(),
+            content().contentType(MediaType.APPLICATION_NDJSON))
+        .andReturn().getResponse().getContentAsString();
+
+    var lines = response.split("\n");
+    assertThat(lines).anySatisfy(line -> {
+      var settings = objectMapper.readTree(line);
+      assertThat(settings.get("settingsId").asText()).isEqualTo(SETTINGS_ID_1.toString());
+      assertThat(settings.get("keycloakId").asText()).isEqualTo(SEARCHED_KEYCLOAK_ID.toString());
+      assertThat(settings.get("channels").findValuesAsText("address")).contains(EMAIL_1);
+    });
+    assertThat(lines).anySatisfy(
+        line -> assertThat(line).contains("\"settingsId\":\"" + SETTINGS_ID_2 + "\""));
+  }
+
+  @Test
+  void forbiddenExportSettingsForUserWithoutExportRole() throws Exception {
+    mockMvc
+        .perform(get(BASE_URL + "/export").header(X_ACCESS_TOKEN.getHeaderName(), TOKEN_CITIZEN))
+        .andExpect(status().isForbidden());
+  }
+
+  @Test
+  void shouldFindChannelOwnersByAddresses() throws Exception {
+    mockMvc
+        .perform(
+            post(BASE_URL + "/channels/by-address")
+                .header(X_ACCESS_TOKEN.getHeaderName(), TOKEN_OFFICER)
+                .content(objectMapper.writeValueAsString(List.of(EMAIL_1, "unknown@email.com")))
+                .contentType(MediaType.APPLICATION_JSON))
+        .andExpectAll(
+            status().isOk(),
+            content().contentType(MediaType.APPLICATION_JSON),
+            jsonPath("$.length()", is(1)),
+            jsonPath("$[0].address", is(EMAIL_1)),
+            jsonPath("$[0].keycloakId", is(SEARCHED_KEYCLOAK_ID.toString())),
+            jsonPath("$[0].channel", is(Channel.EMAIL.getValue())));
+  }
+
+  @Test
+  void forbiddenFindChannelOwnersForUserWithoutChannelOwnersRole() throws Exception {
+    mockMvc
+        .perform(
+            post(BASE_URL + "/channels/by-address")
+                .header(X_ACCESS_TOKEN.getHeaderName(), TOKEN_CITIZEN)
+                .content(objectMapper.writeValueAsString(List.of(EMAIL_1)))
+                .contentType(MediaType.APPLICATION_JSON))
+        .andExpect(status().isForbidden());
+  }
+
+  @Test
+  void shouldNotCreateSettingsWhenReadingSettingsOfUnknownUser() throws Exception {
+    var unknownKeycloakId = UUID.fromString("0a4f31b5-4ea8-4b4b-8b68-5e6a8c1ac4a1");
+
+    mockMvc
+        .perform(
+            get(BASE_URL + "/" + unknownKeycloakId)
+                .header(X_ACCESS_TOKEN.getHeaderName(), TOKEN_OFFICER))
+        .andExpectAll(
+            status().isOk(),
+            content().contentType(MediaType.APPLICATION_JSON),
+            jsonPath("$.settingsId", is(Settings.deriveId(unknownKeycloakId).toString())),
+            jsonPath("$.channels", is(empty())));
+
+    assertThat(settingsRepository.findByKeycloakId(unknownKeycloakId)).isEmpty();
+  }
+
   @Test
   void shouldActivateEmailChannelForOfficer() throws Exception {
     var input = new ActivateChannelInputDto();
     input.setAddress("new@email.com");
     input.setVerificationCode("123456");
 
-    when(channelVerificationService.verify(any(Channel.class), anyString(), anyString(),
+    when(channelVerificationService.verify(any(Channel.class), any(UserClaims.class), anyString(),
         anyString()))
         .thenReturn(true);
 
@@ -158,7 +287,7 @@ class SettingsControllerIT {
     var input = new ActivateChannelInputDto();
     input.setAddress("0101010101");
     input.setVerificationCode("123456");
-    when(channelVerificationService.verify(any(Channel.class), anyString(), anyString(),
+    when(channelVerificationService.verify(any(Channel.class), any(UserClaims.class), anyString(),
         anyString()))
         .thenReturn(true);
     mockMvc
@@ -184,7 +313,7 @@ class SettingsControllerIT {
     var input = new ActivateChannelInputDto();
     input.setAddress("1010101014");
     input.setVerificationCode("123456");
-    when(channelVerificationService.verify(any(Channel.class), anyString(), anyString(),
+    when(channelVerificationService.verify(any(Channel.class), any(UserClaims.class), anyString(),
             anyString()))
             .thenReturn(true);
     mockMvc
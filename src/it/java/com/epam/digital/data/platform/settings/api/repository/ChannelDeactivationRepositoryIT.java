@@ -0,0 +1,92 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.settings.api.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.epam.digital.data.platform.settings.api.UserSettingsServiceApiApplication;
+import com.epam.digital.data.platform.settings.api.model.VersionedSettings;
+import com.epam.digital.data.platform.settings.model.dto.Channel;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+@ActiveProfiles("test")
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+@Transactional
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, classes = UserSettingsServiceApiApplication.class)
+@EmbeddedKafka(partitions = 1, brokerProperties = {"listeners=PLAINTEXT://localhost:9092",
+    "port=9092"})
+class ChannelDeactivationRepositoryIT {
+
+  private static final UUID SETTINGS_ID = UUID.fromString("321e7654-e89b-12d3-a456-426655441111");
+  private static final UUID KEYCLOAK_ID = UUID.fromString("496fd2fd-3497-4391-9ead-41410522d06f");
+  private static final String EMAIL = "settings@gmail.com";
+
+  @Autowired
+  ChannelDeactivationRepository channelDeactivationRepository;
+  @Autowired
+  NotificationChannelRepository notificationChannelRepository;
+
+  @Test
+  void shouldDeactivateActiveEmailChannelsByAddress() {
+    var deactivated = channelDeactivationRepository.deactivateEmailChannels(
+        List.of(EMAIL, "unknown@email.com"), List.of("Unknown user", "Unknown user"));
+
+    assertThat(deactivated).hasSize(1);
+    assertThat(deactivated.get(0).getOwner().getAddress()).isEqualTo(EMAIL);
+    assertThat(deactivated.get(0).getOwner().getKeycloakId()).isEqualTo(KEYCLOAK_ID);
+    assertThat(deactivated.get(0).getVersion()).isPositive();
+
+    var channel =
+        notificationChannelRepository.findBySettingsIdAndChannel(SETTINGS_ID, Channel.EMAIL)
+            .get();
+    assertThat(channel.isActivated()).isFalse();
+    assertThat(channel.getAddress()).isEqualTo(EMAIL);
+    assertThat(channel.getDeactivationReason()).isEqualTo("Unknown user");
+  }
+
+  @Test
+  void shouldNotReturnAlreadyDeactivatedChannels() {
+    channelDeactivationRepository.deactivateEmailChannels(
+        List.of(EMAIL), List.of("Unknown user"));
+
+    var deactivated = channelDeactivationRepository.deactivateEmailChannels(
+        List.of(EMAIL), List.of("Mailbox full"));
+
+    assertThat(deactivated).isEmpty();
+  }
+
+  @Test
+  void shouldStoreLaterVersionThanPreviousChange() {
+    var activatedAt =
+        notificationChannelRepository.upsertActivatedChannel(SETTINGS_ID, Channel.EMAIL, EMAIL);
+
+    var deactivated = channelDeactivationRepository.deactivateEmailChannels(
+        List.of(EMAIL), List.of("Unknown user"));
+
+    assertThat(deactivated.get(0).getVersion())
+        .isGreaterThan(VersionedSettings.toVersion(activatedAt));
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.settings.api.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.epam.digital.data.platform.notification.dto.Recipient;
+import com.epam.digital.data.platform.settings.api.UserSettingsServiceApiApplication;
+import com.epam.digital.data.platform.settings.model.dto.Channel;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+@ActiveProfiles("test")
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+@Transactional
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, classes = UserSettingsServiceApiApplication.class)
+@EmbeddedKafka(partitions = 1, brokerProperties = {"listeners=PLAINTEXT://localhost:9092",
+    "port=9092"})
+class NotificationOutboxRepositoryIT {
+
+  private static final String OTP_ID = "496fd2fd-3497-4391-9ead-41410522d06f/email";
+
+  @Autowired
+  NotificationOutboxRepository outboxRepository;
+
+  private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+
+  @Test
+  void shouldClaimDueEntriesAndHideThemUntilLeaseExpires() {
+    outboxRepository.insert("EMAIL", "settings@gmail.com", "user", OTP_ID, "CITIZEN",
+        now.minusSeconds(1));
+
+    var claimed = outboxRepository.claim(10, now, now.plusSeconds(30));
+
+    assertThat(claimed).hasSize(1);
+    var entry = claimed.get(0);
+    assertThat(entry.getAttempts()).isEqualTo(1);
+    assertThat(entry.getChannel()).isEqualTo(Channel.EMAIL);
+    assertThat(entry.getOtpId()).isEqualTo(OTP_ID);
+    assertThat(entry.getRealm()).isEqualTo(Recipient.RecipientRealm.CITIZEN);
+    assertThat(outboxRepository.claim(10, now, now.plusSeconds(30))).isEmpty();
+    assertThat(outboxRepository.claim(10, now.plusSeconds(31), now.plusSeconds(60)))
+        .hasSize(1);
+  }
+
+  @Test
+  void shouldSkipRescheduledEntryUntilNextAttempt() {
+    outboxRepository.insert("EMAIL", "settings@gmail.com", "user", OTP_ID, null,
+        now.minusSeconds(1));
+    var entry = outboxRepository.claim(10, now, now.plusSeconds(30)).get(0);
+
+    outboxRepository.reschedule(entry.getId(), "broker unavailable", now.plusSeconds(5));
+
+    assertThat(outboxRepository.claim(10, now.plusSeconds(4), now.plusSeconds(30))).isEmpty();
+    var retried = outboxRepository.claim(10, now.plusSeconds(5), now.plusSeconds(30));
+    assertThat(retried).hasSize(1);
+    assertThat(retried.get(0).getAttempts()).isEqualTo(2);
+  }
+
+  @Test
+  void shouldExcludeDeadLetteredEntriesFromClaimAndOldestPending() {
+    outboxRepository.insert("EMAIL", "settings@gmail.com", "user", OTP_ID, null,
+        now.minusSeconds(10));
+    var entry = outboxRepository.claim(10, now, now.plusSeconds(30)).get(0);
+    assertThat(outboxRepository.findOldestPendingCreatedAt()).contains(now.minusSeconds(10));
+
+    outboxRepository.deadLetter(entry.getId(), "invalid recipient", now);
+
+    assertThat(outboxRepository.claim(10, now.plusHours(1), now.plusHours(2))).isEmpty();
+    assertThat(outboxRepository.findOldestPendingCreatedAt()).isEmpty();
+  }
+
+  @Test
+  void shouldDeleteSentEntries() {
+    outboxRepository.insert("EMAIL", "settings@gmail.com", "user", OTP_ID, null,
+        now.minusSeconds(1));
+    var entry = outboxRepository.claim(10, now, now.plusSeconds(30)).get(0);
+
+    outboxRepository.deleteByIds(List.of(entry.getId()));
+
+    assertThat(outboxRepository.claim(10, now.plusHours(1), now.plusHours(2))).isEmpty();
+    assertThat(outboxRepository.findOldestPendingCreatedAt()).isEmpty();
+  }
+}
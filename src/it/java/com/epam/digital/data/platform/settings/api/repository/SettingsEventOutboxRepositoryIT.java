@@ -0,0 +1,96 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.settings.api.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.epam.digital.data.platform.settings.api.UserSettingsServiceApiApplication;
+import com.epam.digital.data.platform.settings.api.model.OutboxEntry;
+import com.epam.digital.data.platform.settings.api.model.SettingsEventOutboxEntry;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+@ActiveProfiles("test")
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+@Transactional
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, classes = UserSettingsServiceApiApplication.class)
+@EmbeddedKafka(partitions = 1, brokerProperties = {"listeners=PLAINTEXT://localhost:9092",
+    "port=9092"})
+class SettingsEventOutboxRepositoryIT {
+
+  private static final UUID FIRST_USER = UUID.fromString("496fd2fd-3497-4391-9ead-41410522d06f");
+  private static final UUID SECOND_USER = UUID.fromString("4cb2fb36-df5a-474d-9e82-0a9848231bd6");
+
+  @Autowired
+  SettingsEventOutboxRepository outboxRepository;
+
+  private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+
+  @Test
+  void shouldClaimOnlyOldestEntryOfEachUser() {
+    outboxRepository.insert(FIRST_USER, "first-1", now.minusSeconds(3));
+    outboxRepository.insert(FIRST_USER, "first-2", now.minusSeconds(2));
+    outboxRepository.insert(SECOND_USER, "second-1", now.minusSeconds(1));
+
+    var claimed = outboxRepository.claim(10, now, now.plusSeconds(30));
+
+    assertThat(claimed).extracting(SettingsEventOutboxEntry::getPayload)
+        .containsExactly("first-1", "second-1");
+    assertThat(outboxRepository.claim(10, now, now.plusSeconds(30))).isEmpty();
+
+    outboxRepository.deleteByIds(List.of(claimed.get(0).getId()));
+
+    assertThat(outboxRepository.claim(10, now, now.plusSeconds(30)))
+        .extracting(SettingsEventOutboxEntry::getPayload)
+        .containsExactly("first-2");
+  }
+
+  @Test
+  void shouldHoldBackLaterEntriesWhileOldestWaitsForRetry() {
+    outboxRepository.insert(FIRST_USER, "first-1", now.minusSeconds(2));
+    outboxRepository.insert(FIRST_USER, "first-2", now.minusSeconds(1));
+    var head = outboxRepository.claim(10, now, now.plusSeconds(30)).get(0);
+
+    outboxRepository.reschedule(head.getId(), "broker unavailable", now.plusSeconds(5));
+
+    assertThat(outboxRepository.claim(10, now.plusSeconds(4), now.plusSeconds(30))).isEmpty();
+    assertThat(outboxRepository.claim(10, now.plusSeconds(5), now.plusSeconds(30)))
+        .extracting(OutboxEntry::getId)
+        .containsExactly(head.getId());
+  }
+
+  @Test
+  void shouldReleaseClaimedEntryWithoutCountingAttempt() {
+    outboxRepository.insert(FIRST_USER, "first-1", now.minusSeconds(1));
+    var entry = outboxRepository.claim(10, now, now.plusSeconds(30)).get(0);
+
+    outboxRepository.release(List.of(entry.getId()), now.plusSeconds(1));
+
+    var released = outboxRepository.claim(10, now.plusSeconds(1), now.plusSeconds(30));
+    assertThat(released).extracting(OutboxEntry::getAttempts).containsExactly(1);
+  }
+}
@@ -27,6 +27,45 @@ CREATE TABLE notification_channel
         REFERENCES settings (id)
 );
 
+CREATE TABLE notification_outbox
+(
+    id uuid NOT NULL default uuid_generate_v4(),
+    channel text NOT NULL,
+    address text NOT NULL,
+    username text,
+    otp_id text NOT NULL,
+    realm text,
+    attempts integer NOT NULL DEFAULT 0,
+    last_error text,
+    next_attempt_at timestamp with time zone NOT NULL DEFAULT now(),
+    dead_lettered_at timestamp with time zone,
+    created_at timestamp with time zone NOT NULL DEFAULT now(),
+    CONSTRAINT notification_outbox__id__pk PRIMARY KEY (id)
+);
+
+CREATE INDEX notification_outbox__next_attempt_at__i ON notification_outbox (next_attempt_at)
+    WHERE dead_lettered_at IS NULL;
+
+CREATE TABLE settings_event_outbox
+(
+    id uuid NOT NULL default uuid_generate_v4(),
+    seq bigserial NOT NULL,
+    keycloak_id uuid NOT NULL,
+    payload text NOT NULL,
+    attempts integer NOT NULL DEFAULT 0,
+    last_error text,
+    next_attempt_at timestamp with time zone NOT NULL DEFAULT now(),
+    dead_lettered_at timestamp with time zone,
+    created_at timestamp with time zone NOT NULL DEFAULT now(),
+    CONSTRAINT settings_event_outbox__id__pk PRIMARY KEY (id)
+);
+
+CREATE INDEX settings_event_outbox__next_attempt_at__i ON settings_event_outbox (next_attempt_at)
+    WHERE dead_lettered_at IS NULL;
+
+CREATE INDEX settings_event_outbox__keycloak_id__seq__i ON settings_event_outbox (keycloak_id, seq)
+    WHERE dead_lettered_at IS NULL;
+
 INSERT INTO settings (id, keycloak_id) VALUES
 (
     '321e7654-e89b-12d3-a456-426655441111',
@@ -0,0 +1,256 @@
+/*
+ *  Copyright 2021 EPAM Systems.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.epam.digital.data.platform.settings.api.audit;
+
+import com.epam.digital.data.platform.starter.audit.model.AuditEvent;
+import com.epam.digital.data.platform.starter.audit.service.AuditService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+@Component
+public class AuditEventPipeline implements SmartLifecycle {
+
+  private final Logger log = LoggerFactory.getLogger(AuditEventPipeline.class);
+
+  private final AuditService auditService;
+  private final AuditSpool auditSpool;
+  private final int capacity;
+  private final int batchSize;
+  private final AuditOverflowPolicy overflowPolicy;
+  private final long blockTimeoutNanos;
+  private final long flushIntervalNanos;
+  private final long replayRetryNanos;
+
+  private final Queue<AuditEvent> queue = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger size = new AtomicInteger();
+
+  private final DistributionSummary batchSizeSummary;
+  private final Timer flushTimer;
+  private final Counter droppedCounter;
+  private final Counter spilledCounter;
+  private final Counter failedCounter;
+
+  private volatile boolean running;
+  private volatile Thread flusher;
+  private long nextReplayAttempt;
+
+  public AuditEventPipeline(
+      AuditService auditService,
+      AuditSpool auditSpool,
+      MeterRegistry meterRegistry,
+      @Value("${audit.pipeline.capacity}") int capacity,
+      @Value("${audit.pipeline.batch-size}") int batchSize,
+      @Value("${audit.pipeline.overflow-policy}") AuditOverflowPolicy overflowPolicy,
+      @Value("${audit.pipeline.block-timeout}") long blockTimeout,
+      @Value("${audit.pipeline.flush-interval}") long flushInterval,
+      @Value("${audit.spool.replay-retry-interval}") long replayRetryInterval) {
+    this.auditService = auditService;
+    this.auditSpool = auditSpool;
+    this.capacity = capacity;
+    this.batchSize = batchSize;
+    this.overflowPolicy = overflowPolicy;
+    this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(blockTimeout);
+    this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushInterval);
+    this.replayRetryNanos = TimeUnit.MILLISECONDS.toNanos(replayRetryInterval);
+    this.nextReplayAttempt = System.nanoTime();
+
+    Gauge.builder("audit.pipeline.queue.size", size, AtomicInteger::get)
+        .description("Audit events waiting to be sent")
+        .register(meterRegistry);
+    this.batchSizeSummary = DistributionSummary.builder("audit.pipeline.batch.size")
+        .description("Audit events sent per flush")
+        .register(meterRegistry);
+    this.flushTimer = Timer.builder("audit.pipeline.flush")
+        .description("Time to send one batch of audit events")
+        .register(meterRegistry);
+    this.droppedCounter = Counter.builder("audit.pipeline.dropped")
+        .register(meterRegistry);
+    this.spilledCounter = Counter.builder("audit.pipeline.spilled")
+        .register(meterRegistry);
+    this.failedCounter = Counter.builder("audit.pipeline.failed")
+        .register(meterRegistry);
+  }
+
+  public void submit(AuditEvent event) {
+    if (tryEnqueue(event)) {
+      return;
+    }
+    switch (overflowPolicy) {
+      case BLOCK:
+        if (!enqueueBlocking(event)) {
+          drop(event);
+        }
+        break;
+      case SPILL:
+        spill(event);
+        break;
+      default:
+        drop(event);
+    }
+  }
+
+  @Override
+  public void start() {
+    running = true;
+    flusher = new Thread(this::flushLoop, "audit-pipeline-flusher");
+    flusher.setDaemon(true);
+    flusher.start();
+  }
+
+  @Override
+  public void stop() {
+    running = false;
+    var thread = flusher;
+    if (thread != null) {
+      LockSupport.unpark(thread);
+      try {
+        thread.join(TimeUnit.SECONDS.toMillis(30));
+      } catch (InterruptedException exception) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    flushAll();
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  int size() {
+    return size.get();
+  }
+
+  private boolean tryEnqueue(AuditEvent event) {
+    int current;
+    do {
+      current = size.get();
+      if (current >= capacity) {
+        return false;
+      }
+    } while (!size.compareAndSet(current, current + 1));
+    queue.offer(event);
+    if (current == 0) {
+      var thread = flusher;
+      if (thread != null) {
+        LockSupport.unpark(thread);
+      }
+    }
+    return true;
+  }
+
+  private boolean enqueueBlocking(AuditEvent event) {
+    var deadline = System.nanoTime() + blockTimeoutNanos;
+    while (System.nanoTime() < deadline) {
+      LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+      if (tryEnqueue(event)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void drop(AuditEvent event) {
+    droppedCounter.increment();
+    log.warn("Audit queue is full, dropping {} event", event.getName());
+  }
+
+  private void spill(AuditEvent event) {
+    if (auditSpool.append(event)) {
+      spilledCounter.increment();
+    } else {
+      drop(event);
+    }
+  }
+
+  private void flushLoop() {
+    while (running) {
+      if (flushBatch() == 0) {
+        LockSupport.parkNanos(this, flushIntervalNanos);
+      }
+    }
+  }
+
+  private void flushAll() {
+    while (flushBatch() > 0) {
+      // drain events enqueued before shutdown
+    }
+  }
+
+  private int flushBatch() {
+    List<AuditEvent> batch = new ArrayList<>(batchSize);
+    AuditEvent event;
+    while (batch.size() < batchSize && (event = queue.poll()) != null) {
+      size.decrementAndGet();
+      batch.add(event);
+    }
+    var replayed = 0;
+    if (auditSpool.hasPending()) {
+      if (System.nanoTime() - nextReplayAttempt >= 0) {
+        replayed = auditSpool.replay(batchSize, this::send);
+      }
+      if (auditSpool.hasPending()) {
+        if (replayed < batchSize) {
+          nextReplayAttempt = System.nanoTime() + replayRetryNanos;
+        }
+        batch.forEach(this::spill);
+        return replayed + batch.size();
+      }
+    }
+    if (!batch.isEmpty()) {
+      flushTimer.record(() -> sendBatch(batch));
+      batchSizeSummary.record(batch.size());
+    }
+    return replayed + batch.size();
+  }
+
+  private void sendBatch(List<AuditEvent> batch) {
+    for (var i = 0; i < batch.size(); i++) {
+      if (!send(batch.get(i))) {
+        nextReplayAttempt = System.nanoTime() + replayRetryNanos;
+        batch.subList(i, batch.size()).forEach(this::spill);
+        return;
+      }
+    }
+  }
+
+  private boolean send(AuditEvent event) {
+    try {
+      auditService.sendAudit(event);
+      return true;
+    } catch (RuntimeException exception) {
+      failedCounter.increment();
+      log.warn("Failed to send {} audit event, spooling it", event.getName(), exception);
+      return false;
+    }
+  }
+}
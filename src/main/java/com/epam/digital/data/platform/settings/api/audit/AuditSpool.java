@@ -0,0 +1,319 @@
+/*
+ *  Copyright 2021 EPAM Systems.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.epam.digital.data.platform.settings.api.audit;
+
+import com.epam.digital.data.platform.starter.audit.model.AuditEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class AuditSpool {
+
+  static final String SEGMENT_FILE = "audit-events.spool";
+  static final String OFFSET_FILE = "audit-events.offset";
+  static final String QUARANTINE_FILE = "audit-events.quarantine";
+
+  private static final int HEADER_SIZE = Long.BYTES + Integer.BYTES;
+
+  private final Logger log = LoggerFactory.getLogger(AuditSpool.class);
+
+  private final ObjectMapper objectMapper;
+  private final Clock clock;
+  private final long maxSize;
+  private final Path quarantine;
+  private final Counter quarantineCounter;
+
+  private final FileChannel segment;
+  private final FileChannel offset;
+  private final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+  private final ByteBuffer offsetBuffer = ByteBuffer.allocate(Long.BYTES);
+  private final Object replayLock = new Object();
+
+  private volatile long readPosition;
+  private volatile long writePosition;
+  private volatile long oldestTimestamp;
+  private long storedPosition;
+
+  public AuditSpool(
+      ObjectMapper objectMapper,
+      Clock clock,
+      MeterRegistry meterRegistry,
+      @Value("${audit.spool.directory}") Path directory,
+      @Value("${audit.spool.max-size}") long maxSize) {
+    this.objectMapper = objectMapper;
+    this.clock = clock;
+    this.maxSize = maxSize;
+    this.quarantine = directory.resolve(QUARANTINE_FILE);
+    try {
+      Files.createDirectories(directory);
+      this.segment = FileChannel.open(directory.resolve(SEGMENT_FILE),
+          StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+      this.offset = FileChannel.open(directory.resolve(OFFSET_FILE),
+          StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+      recover();
+    } catch (IOException exception) {
+      throw new IllegalStateException("Unable to open audit spool in " + directory, exception);
+    }
+
+    Gauge.builder("audit.spool.size", this, AuditSpool::pendingBytes)
+        .description("Bytes of audit events waiting in the spool")
+        .baseUnit("bytes")
+        .register(meterRegistry);
+    TimeGauge.builder("audit.spool.age", this, TimeUnit.MILLISECONDS, AuditSpool::ageMillis)
+        .description("Age of the oldest audit event waiting in the spool")
+        .register(meterRegistry);
+    this.quarantineCounter = Counter.builder("audit.spool.quarantined")
+        .description("Spooled audit events that could not be read and were moved aside")
+        .register(meterRegistry);
+  }
+
+  public boolean hasPending() {
+    return readPosition < writePosition;
+  }
+
+  public synchronized boolean append(AuditEvent event) {
+    try {
+      var payload = objectMapper.writeValueAsBytes(event);
+      if (writePosition + HEADER_SIZE + payload.length > maxSize) {
+        return false;
+      }
+      var timestamp = clock.millis();
+      var record = ByteBuffer.allocate(HEADER_SIZE + payload.length)
+          .putLong(timestamp)
+          .putInt(payload.length)
+          .put(payload)
+          .flip();
+      var position = writePosition;
+      while (record.hasRemaining()) {
+        position += segment.write(record, position);
+      }
+      if (!hasPending()) {
+        oldestTimestamp = timestamp;
+      }
+      writePosition = position;
+      return true;
+    } catch (IOException exception) {
+      log.error("Failed to spool {} audit event", event.getName(), exception);
+      return false;
+    }
+  }
+
+  /**
+   * Sends up to {@code maxEvents} spooled events in order and stops at the first one the sender
+   * rejects. The batch is read and the offset is committed under the spool lock, but the events
+   * are sent without it, so appends are not blocked by a slow sender.
+   */
+  public int replay(int maxEvents, Predicate<AuditEvent> sender) {
+    synchronized (replayLock) {
+      var batch = readBatch(maxEvents);
+      var replayed = 0;
+      var position = -1L;
+      try {
+        for (var record : batch) {
+          if (record.event == null) {
+            moveToQuarantine(record);
+          } else if (sender.test(record.event)) {
+            replayed++;
+          } else {
+            break;
+          }
+          position = record.endPosition;
+        }
+      } catch (IOException exception) {
+        log.error("Failed to quarantine unreadable audit event", exception);
+      } finally {
+        commit(position);
+      }
+      return replayed;
+    }
+  }
+
+  @PreDestroy
+  public synchronized void close() throws IOException {
+    segment.close();
+    offset.close();
+  }
+
+  long pendingBytes() {
+    return writePosition - readPosition;
+  }
+
+  long ageMillis() {
+    return hasPending() ? Math.max(0, clock.millis() - oldestTimestamp) : 0;
+  }
+
+  private synchronized List<SpooledRecord> readBatch(int maxEvents) {
+    var batch = new ArrayList<SpooledRecord>();
+    var position = readPosition;
+    var events = 0;
+    try {
+      while (events < maxEvents && position < writePosition) {
+        var length = readHeader(position);
+        var timestamp = header.getLong(0);
+        var payload = ByteBuffer.allocate(length);
+        readFully(payload, position + HEADER_SIZE);
+        var record = new SpooledRecord(position, position + HEADER_SIZE + length, timestamp,
+            payload.array());
+        try {
+          record.event = objectMapper.readValue(record.payload, AuditEvent.class);
+          events++;
+        } catch (JsonProcessingException exception) {
+          record.cause = exception;
+        }
+        batch.add(record);
+        position = record.endPosition;
+      }
+    } catch (IOException exception) {
+      log.error("Failed to replay audit spool at position {}", position, exception);
+    }
+    return batch;
+  }
+
+  private synchronized void commit(long position) {
+    try {
+      if (position > readPosition) {
+        readPosition = position;
+        if (hasPending()) {
+          readHeader(readPosition);
+          oldestTimestamp = header.getLong(0);
+        }
+      }
+      if (!hasPending()) {
+        reset();
+      } else if (readPosition != storedPosition) {
+        writeOffset(readPosition);
+      }
+    } catch (IOException exception) {
+      log.error("Failed to store audit spool position {}", readPosition, exception);
+    }
+  }
+
+  private void moveToQuarantine(SpooledRecord spooled) throws IOException {
+    var record = ByteBuffer.allocate(HEADER_SIZE + spooled.payload.length)
+        .putLong(spooled.timestamp)
+        .putInt(spooled.payload.length)
+        .put(spooled.payload)
+        .array();
+    Files.write(quarantine, record, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    quarantineCounter.increment();
+    log.error("Moved unreadable audit event at spool position {} to {}", spooled.position,
+        quarantine, spooled.cause);
+  }
+
+  private void recover() throws IOException {
+    var size = segment.size();
+    var position = 0L;
+    if (offset.size() >= Long.BYTES) {
+      offsetBuffer.clear();
+      offset.read(offsetBuffer, 0);
+      position = offsetBuffer.getLong(0);
+    }
+    storedPosition = position;
+    if (position < 0 || position > size) {
+      position = 0;
+    }
+    readPosition = position;
+    while (position + HEADER_SIZE <= size) {
+      var length = readHeader(position);
+      if (length < 0 || position + HEADER_SIZE + length > size) {
+        break;
+      }
+      if (position == readPosition) {
+        oldestTimestamp = header.getLong(0);
+      }
+      position += HEADER_SIZE + length;
+    }
+    if (position < size) {
+      log.warn("Truncating incomplete audit spool record at position {}", position);
+      segment.truncate(position);
+    }
+    writePosition = position;
+    if (hasPending()) {
+      log.info("Audit spool contains {} bytes of events to replay", pendingBytes());
+    } else {
+      reset();
+    }
+  }
+
+  private int readHeader(long position) throws IOException {
+    header.clear();
+    readFully(header, position);
+    return header.getInt(Long.BYTES);
+  }
+
+  private void readFully(ByteBuffer buffer, long position) throws IOException {
+    while (buffer.hasRemaining()) {
+      var read = segment.read(buffer, position + buffer.position());
+      if (read < 0) {
+        throw new IOException("Unexpected end of audit spool at position " + position);
+      }
+    }
+  }
+
+  private void reset() throws IOException {
+    segment.truncate(0);
+    readPosition = 0;
+    writePosition = 0;
+    writeOffset(0);
+  }
+
+  private void writeOffset(long position) throws IOException {
+    offsetBuffer.clear();
+    offsetBuffer.putLong(position).flip();
+    while (offsetBuffer.hasRemaining()) {
+      offset.write(offsetBuffer, offsetBuffer.position());
+    }
+    storedPosition = position;
+  }
+
+  private static final class SpooledRecord {
+
+    private final long position;
+    private final long endPosition;
+    private final long timestamp;
+    private final byte[] payload;
+    private AuditEvent event;
+    private Exception cause;
+
+    private SpooledRecord(long position, long endPosition, long timestamp, byte[] payload) {
+      this.position = position;
+      this.endPosition = endPosition;
+      this.timestamp = timestamp;
+      this.payload = payload;
+    }
+  }
+}
@@ -30,6 +30,7 @@ import com.epam.digital.data.platform.starter.audit.model.Step;
 import com.epam.digital.data.platform.starter.audit.service.AbstractAuditFacade;
 import com.epam.digital.data.platform.starter.audit.service.AuditService;
 import java.time.Clock;
+import java.util.Map;
 import java.util.Objects;
 import org.slf4j.MDC;
 
@@ -37,10 +38,13 @@ public class SettingsAuditFacade extends AbstractAuditFacade {
 
   private static final String MDC_TRACE_ID_HEADER = "X-B3-TraceId";
 
+  private final AuditEventPipeline auditEventPipeline;
+
   public SettingsAuditFacade(
       AuditService auditService,
-      String appName, Clock clock) {
+      String appName, Clock clock, AuditEventPipeline auditEventPipeline) {
     super(auditService, appName, clock);
+    this.auditEventPipeline = auditEventPipeline;
   }
 
   public void sendActivationAuditOnSuccess(Channel channel, ActivateChannelInputDto input) {
@@ -75,6 +79,23 @@ public class SettingsAuditFacade extends AbstractAuditFacade {
         input);
   }
 
+  /**
+   * Audits a deactivation made by the bounce consumer. There is no request and no acting user on
+   * that thread, so the event is a system event identified by the bounce record it came from.
+   */
+  public void sendBounceDeactivationAudit(Channel channel,
+      SettingsDeactivateChannelInputDto input, String source) {
+    var action = Operation.USER_NOTIFICATION_CHANNEL_DEACTIVATION.name();
+    var event = createBaseAuditEvent(EventType.SYSTEM_EVENT, action, source);
+
+    var context = createDeactivationContext(action,
+        AuditResultDto.builder().status(Status.SUCCESS.name()).build(), channel.getValue(), input);
+    context.put("source", source);
+    event.setContext(context);
+
+    auditEventPipeline.submit(event.build());
+  }
+
   private void sendChannelActivationAudit(String action, AuditResultDto result, String channel,
       ActivateChannelInputDto activateEmailDto) {
     var event = createBaseAuditEvent(
@@ -96,7 +117,7 @@ public class SettingsAuditFacade extends AbstractAuditFacade {
     context.put("delivery", delivery);
     event.setContext(context);
 
-    auditService.sendAudit(event.build());
+    auditEventPipeline.submit(event.build());
   }
 
   private void sendChannelDeactivationAudit(
@@ -105,7 +126,16 @@ public class SettingsAuditFacade extends AbstractAuditFacade {
       String channel,
       SettingsDeactivateChannelInputDto deactivateChannelDto) {
     var event = createBaseAuditEvent(EventType.USER_ACTION, action, MDC.get(MDC_TRACE_ID_HEADER));
+    event.setContext(createDeactivationContext(action, result, channel, deactivateChannelDto));
+
+    auditEventPipeline.submit(event.build());
+  }
 
+  private Map<String, Object> createDeactivationContext(
+      String action,
+      AuditResultDto result,
+      String channel,
+      SettingsDeactivateChannelInputDto deactivateChannelDto) {
     var deactivation =
         DeactivateChannelAuditDto.builder()
             .channel(channel)
@@ -123,8 +153,6 @@ public class SettingsAuditFacade extends AbstractAuditFacade {
         auditService.createContext(action, Step.AFTER.name(), null, null, null, result.getStatus());
     context.put("deactivation", deactivation);
     context.put("delivery", delivery);
-    event.setContext(context);
-
-    auditService.sendAudit(event.build());
+    return context;
   }
 }
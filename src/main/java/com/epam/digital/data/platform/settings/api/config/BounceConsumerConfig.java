@@ -0,0 +1,64 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.settings.api.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.MicrometerConsumerListener;
+import org.springframework.kafka.listener.ContainerProperties.AckMode;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.FixedBackOff;
+
+@EnableKafka
+@Configuration
+@ConditionalOnProperty(prefix = "bounce.consumer", name = "enabled", havingValue = "true")
+public class BounceConsumerConfig {
+
+  @Bean
+  public ConcurrentKafkaListenerContainerFactory<String, String> bounceListenerContainerFactory(
+      KafkaConnectionProperties kafkaConnectionProperties,
+      MeterRegistry meterRegistry,
+      @Value("${bounce.consumer.group-id}") String groupId,
+      @Value("${bounce.consumer.batch-size}") int batchSize,
+      @Value("${bounce.consumer.retry-interval}") long retryInterval) {
+    var props = kafkaConnectionProperties.buildClientProperties();
+    props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+    props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+    props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+    props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, batchSize);
+    // Not exposed as a bean, so that the auto-configured consumer factory is left in place
+    var consumerFactory = new DefaultKafkaConsumerFactory<>(
+        props, new StringDeserializer(), new StringDeserializer());
+    consumerFactory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+
+    var factory = new ConcurrentKafkaListenerContainerFactory<String, String>();
+    factory.setConsumerFactory(consumerFactory);
+    factory.setBatchListener(true);
+    factory.getContainerProperties().setAckMode(AckMode.MANUAL_IMMEDIATE);
+    factory.setCommonErrorHandler(
+        new DefaultErrorHandler(new FixedBackOff(retryInterval, FixedBackOff.UNLIMITED_ATTEMPTS)));
+    return factory;
+  }
+}
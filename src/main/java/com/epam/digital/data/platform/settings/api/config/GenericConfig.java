@@ -16,6 +16,7 @@
 
 package com.epam.digital.data.platform.settings.api.config;
 
+import com.epam.digital.data.platform.settings.api.audit.AuditEventPipeline;
 import com.epam.digital.data.platform.settings.api.audit.SettingsAuditFacade;
 import com.epam.digital.data.platform.starter.audit.service.AuditService;
 import org.springframework.beans.factory.annotation.Value;
@@ -34,7 +35,8 @@ public class GenericConfig {
 
   @Bean
   public SettingsAuditFacade settingsAuditFacade(AuditService auditService,
-      @Value("${spring.application.name}") String appName, Clock clock) {
-    return new SettingsAuditFacade(auditService, appName, clock);
+      @Value("${spring.application.name}") String appName, Clock clock,
+      AuditEventPipeline auditEventPipeline) {
+    return new SettingsAuditFacade(auditService, appName, clock, auditEventPipeline);
   }
 }
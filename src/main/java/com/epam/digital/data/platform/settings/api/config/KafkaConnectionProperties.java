@@ -0,0 +1,67 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.settings.api.config;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.kafka.clients.CommonClientConfigs;
+import org.apache.kafka.common.config.SslConfigs;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class KafkaConnectionProperties {
+
+  private final String bootstrap;
+  private final boolean sslEnabled;
+  private final String keystoreType;
+  private final String truststoreType;
+  private final String keystoreCertificate;
+  private final String keystoreKey;
+  private final String truststoreCertificate;
+
+  public KafkaConnectionProperties(
+      @Value("${data-platform.kafka.bootstrap}") String bootstrap,
+      @Value("${data-platform.kafka.ssl.enabled:false}") boolean sslEnabled,
+      @Value("${data-platform.kafka.ssl.keystore-type:PEM}") String keystoreType,
+      @Value("${data-platform.kafka.ssl.truststore-type:PEM}") String truststoreType,
+      @Value("${data-platform.kafka.ssl.keystore-certificate:}") String keystoreCertificate,
+      @Value("${data-platform.kafka.ssl.keystore-key:}") String keystoreKey,
+      @Value("${data-platform.kafka.ssl.truststore-certificate:}") String truststoreCertificate) {
+    this.bootstrap = bootstrap;
+    this.sslEnabled = sslEnabled;
+    this.keystoreType = keystoreType;
+    this.truststoreType = truststoreType;
+    this.keystoreCertificate = keystoreCertificate;
+    this.keystoreKey = keystoreKey;
+    this.truststoreCertificate = truststoreCertificate;
+  }
+
+  public Map<String, Object> buildClientProperties() {
+    var props = new HashMap<String, Object>();
+    props.put(CommonClientConfigs.BOOTSTRAP_SERVERS_CONFIG, bootstrap);
+    if (sslEnabled) {
+      props.put(CommonClientConfigs.SECURITY_PROTOCOL_CONFIG, "SSL");
+      props.put(SslConfigs.SSL_KEYSTORE_TYPE_CONFIG, keystoreType);
+      props.put(SslConfigs.SSL_TRUSTSTORE_TYPE_CONFIG, truststoreType);
+      props.put(SslConfigs.SSL_KEYSTORE_CERTIFICATE_CHAIN_CONFIG, keystoreCertificate);
+      props.put(SslConfigs.SSL_KEYSTORE_KEY_CONFIG, keystoreKey);
+      props.put(SslConfigs.SSL_TRUSTSTORE_CERTIFICATES_CONFIG, truststoreCertificate);
+    }
+    return props;
+  }
+}
@@ -25,15 +25,12 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisSentinelConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
-import org.springframework.data.redis.core.RedisKeyValueAdapter;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.repository.configuration.EnableRedisRepositories;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
-@EnableRedisRepositories(
-    enableKeyspaceEvents = RedisKeyValueAdapter.EnableKeyspaceEvents.ON_STARTUP,
-    keyspaceConfiguration = RedisKeyspaceConfig.class)
 @Configuration
 @ConditionalOnProperty(value="spring.redis.enabled", matchIfMissing = true)
 public class RedisConfig {
@@ -47,7 +44,12 @@ public class RedisConfig {
     redisSentinelConfig.setUsername(redisProperties.getUsername());
     redisSentinelConfig.setPassword(redisProperties.getPassword());
 
-    var connectionFactory = new LettuceConnectionFactory(redisSentinelConfig);
+    var clientConfig = LettuceClientConfiguration.builder();
+    if (redisProperties.getTimeout() != null) {
+      clientConfig.commandTimeout(redisProperties.getTimeout());
+    }
+
+    var connectionFactory = new LettuceConnectionFactory(redisSentinelConfig, clientConfig.build());
     connectionFactory.afterPropertiesSet();
     return connectionFactory;
   }
@@ -61,6 +63,11 @@ public class RedisConfig {
     return redisTemplate;
   }
 
+  @Bean
+  public StringRedisTemplate stringRedisTemplate(RedisConnectionFactory redisConnectionFactory) {
+    return new StringRedisTemplate(redisConnectionFactory);
+  }
+
   private void setSentinelNodes(RedisSentinelConfiguration sentinelConfiguration,
       RedisProperties storageConfiguration) {
 
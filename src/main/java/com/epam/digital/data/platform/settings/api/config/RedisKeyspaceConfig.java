@@ -1,43 +0,0 @@
-/*
- * Copyright 2022 EPAM Systems.
- *
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- *
- *     http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-
-package com.epam.digital.data.platform.settings.api.config;
-
-import com.epam.digital.data.platform.settings.api.entity.OtpEntity;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.redis.core.convert.KeyspaceConfiguration;
-
-public class RedisKeyspaceConfig extends KeyspaceConfiguration {
-
-  public static final String KEYSPACE = "channel-verification-codes";
-
-  @Value("${verification.otp.time-to-live}")
-  private Long ttl;
-
-  @Override
-  public boolean hasSettingsFor(Class<?> type) {
-    return true;
-  }
-
-  @Override
-  public KeyspaceSettings getKeyspaceSettings(Class<?> type) {
-
-    KeyspaceSettings keyspaceSettings = new KeyspaceSettings(OtpEntity.class, KEYSPACE);
-    keyspaceSettings.setTimeToLive(ttl);
-
-    return keyspaceSettings;
-  }
-}
@@ -18,10 +18,13 @@ package com.epam.digital.data.platform.settings.api.config;
 
 import static java.security.DrbgParameters.Capability.RESEED_ONLY;
 
+import com.epam.digital.data.platform.settings.api.utils.SecureRandomPool;
 import java.security.DrbgParameters;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.security.Security;
+import java.util.ArrayList;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -29,11 +32,17 @@ import org.springframework.context.annotation.Configuration;
 public class SecureRandomConfig {
 
   @Bean
-  public SecureRandom secureRandom() throws NoSuchAlgorithmException {
+  public SecureRandomPool secureRandomPool(
+      @Value("${verification.otp.random-pool-size}") int poolSize)
+      throws NoSuchAlgorithmException {
     Security.setProperty("securerandom.drbg.config", "Hash_DRBG, SHA-512");
-    return SecureRandom.getInstance(
-        "DRBG",
-        DrbgParameters.instantiation(256, RESEED_ONLY, null)
-    );
+    var instances = new ArrayList<SecureRandom>(poolSize);
+    for (int i = 0; i < poolSize; i++) {
+      instances.add(SecureRandom.getInstance(
+          "DRBG",
+          DrbgParameters.instantiation(256, RESEED_ONLY, null)
+      ));
+    }
+    return new SecureRandomPool(instances);
   }
 }
@@ -17,8 +17,11 @@
 package com.epam.digital.data.platform.settings.api.config;
 
 import com.epam.digital.data.platform.settings.api.converter.StringToChannelConverter;
+import com.epam.digital.data.platform.settings.api.resolver.UserClaimsArgumentResolver;
+import java.util.List;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.format.FormatterRegistry;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -27,9 +30,12 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 public class WebConfig implements WebMvcConfigurer {
 
   private final HandlerInterceptor livenessProbeStateInterceptor;
+  private final UserClaimsArgumentResolver userClaimsArgumentResolver;
 
-  public WebConfig(HandlerInterceptor livenessProbeStateInterceptor) {
+  public WebConfig(HandlerInterceptor livenessProbeStateInterceptor,
+      UserClaimsArgumentResolver userClaimsArgumentResolver) {
     this.livenessProbeStateInterceptor = livenessProbeStateInterceptor;
+    this.userClaimsArgumentResolver = userClaimsArgumentResolver;
   }
 
   @Override
@@ -41,4 +47,9 @@ public class WebConfig implements WebMvcConfigurer {
   public void addInterceptors(InterceptorRegistry registry) {
     registry.addInterceptor(livenessProbeStateInterceptor);
   }
+
+  @Override
+  public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+    resolvers.add(userClaimsArgumentResolver);
+  }
 }
@@ -16,10 +16,14 @@
 
 package com.epam.digital.data.platform.settings.api.controller;
 
+import com.epam.digital.data.platform.settings.api.exception.BatchInputNotReadableException;
+import com.epam.digital.data.platform.settings.api.model.ChannelOwner;
 import com.epam.digital.data.platform.settings.api.model.DetailedErrorResponse;
 import com.epam.digital.data.platform.settings.api.model.DetailedValidationErrorResponse;
+import com.epam.digital.data.platform.settings.api.model.UserClaims;
 import com.epam.digital.data.platform.settings.api.service.ChannelVerificationService;
 import com.epam.digital.data.platform.settings.api.service.SettingsActivationService;
+import com.epam.digital.data.platform.settings.api.service.SettingsExportService;
 import com.epam.digital.data.platform.settings.api.service.SettingsReadService;
 import com.epam.digital.data.platform.settings.api.service.SettingsValidationService;
 import com.epam.digital.data.platform.settings.model.dto.ActivateChannelInputDto;
@@ -29,18 +33,30 @@ import com.epam.digital.data.platform.settings.model.dto.SettingsEmailInputDto;
 import com.epam.digital.data.platform.settings.model.dto.SettingsReadDto;
 import com.epam.digital.data.platform.settings.model.dto.VerificationCodeExpirationDto;
 import com.epam.digital.data.platform.settings.model.dto.VerificationInputDto;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -48,9 +64,10 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/settings")
@@ -63,15 +80,24 @@ public class SettingsController {
   private final SettingsActivationService activationService;
   private final SettingsValidationService validationService;
   private final ChannelVerificationService channelVerificationService;
+  private final SettingsExportService settingsExportService;
+  private final ObjectMapper objectMapper;
+  private final long exportTimeout;
 
   public SettingsController(SettingsReadService settingsReadService,
       SettingsActivationService activationService,
       SettingsValidationService validationService,
-      ChannelVerificationService channelVerificationService) {
+      ChannelVerificationService channelVerificationService,
+      SettingsExportService settingsExportService,
+      ObjectMapper objectMapper,
+      @Value("${settings.export.timeout}") long exportTimeout) {
     this.settingsReadService = settingsReadService;
     this.activationService = activationService;
     this.validationService = validationService;
     this.channelVerificationService = channelVerificationService;
+    this.settingsExportService = settingsExportService;
+    this.objectMapper = objectMapper;
+    this.exportTimeout = exportTimeout;
   }
 
   @Operation(
@@ -100,6 +126,10 @@ public class SettingsController {
                       + "  ]\n"
                       + "}"))
           ),
+          @ApiResponse(
+              responseCode = "304",
+              description = "User settings not modified since the version in If-None-Match"
+          ),
           @ApiResponse(
               responseCode = "401",
               description = "Unauthorized",
@@ -114,10 +144,12 @@ public class SettingsController {
   )
   @GetMapping("/me")
   public ResponseEntity<SettingsReadDto> findUserSettingsFromToken(
-      @Parameter(hidden = true) @RequestHeader("X-Access-Token") String accessToken) {
+      @Parameter(hidden = true) UserClaims userClaims) {
     log.info("Get user personal settings");
-    var response = settingsReadService.findSettingsFromUserToken(accessToken);
-    return ResponseEntity.status(HttpStatus.OK).body(response);
+    var response = settingsReadService.findSettingsFromUserClaims(userClaims);
+    return ResponseEntity.status(HttpStatus.OK)
+        .eTag(response.getETag())
+        .body(response.getSettings());
   }
 
   @Operation(
@@ -146,6 +178,10 @@ public class SettingsController {
                       + "  ]\n"
                       + "}"))
           ),
+          @ApiResponse(
+              responseCode = "304",
+              description = "User settings not modified since the version in If-None-Match"
+          ),
           @ApiResponse(
               responseCode = "401",
               description = "Unauthorized",
@@ -162,6 +198,189 @@ public class SettingsController {
   public ResponseEntity<SettingsReadDto> findUserSettingsById(@PathVariable("userId") UUID userId) {
     log.info("Get settings by user id");
     var response = settingsReadService.findSettingsByUserId(userId);
+    return ResponseEntity.status(HttpStatus.OK)
+        .eTag(response.getETag())
+        .body(response.getSettings());
+  }
+
+  @Operation(
+      summary = "Export settings of all users",
+      description = "### Endpoint purpose:\n This endpoint allows to export the settings and communication channels of all users as newline delimited JSON, one user settings per line ordered by settings identifier. The response is streamed.\n"
+          + "### User verification:\n User must have one of the roles from _settings.export.roles_, otherwise _403 Forbidden_ status code returned.",
+      parameters = @Parameter(
+          in = ParameterIn.HEADER,
+          name = "X-Access-Token",
+          description = "Token used for endpoint security",
+          required = true,
+          schema = @Schema(type = "string")
+      ),
+      responses = {
+          @ApiResponse(
+              description = "Returns newline delimited JSON with settings of all users",
+              responseCode = "200",
+              content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                  examples = @ExampleObject(value = "{\"settingsId\":\"a6bf7765-1daf-4a51-8510-f1cbf2e943b0\","
+                      + "\"keycloakId\":\"496fd2fd-3497-4391-9ead-41410522d06f\",\"channels\":["
+                      + "{\"channel\":\"email\",\"activated\":true,\"address\":\"new@email.com\","
+                      + "\"deactivationReason\":null,\"createdAt\":\"2023-01-01T10:00:00Z\","
+                      + "\"updatedAt\":\"2023-01-01T10:00:00Z\"}]}"))
+          ),
+          @ApiResponse(
+              responseCode = "401",
+              description = "Unauthorized",
+              content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE)
+          ),
+          @ApiResponse(
+              responseCode = "403",
+              description = "User role verification failed",
+              content = @Content(schema = @Schema(implementation = DetailedErrorResponse.class))
+          ),
+          @ApiResponse(
+              responseCode = "500",
+              description = "Internal server error",
+              content = @Content(schema = @Schema(implementation = DetailedErrorResponse.class))
+          )
+      }
+  )
+  @GetMapping("/export")
+  public WebAsyncTask<Void> exportSettings(
+      @Parameter(hidden = true) UserClaims userClaims,
+      HttpServletResponse response) {
+    log.info("Export of all user settings is called");
+    settingsExportService.verifyExportAllowed(userClaims);
+    // The export is written by the task itself: a StreamingResponseBody would be written in a
+    // second async round that falls back to the default timeout
+    response.setStatus(HttpStatus.OK.value());
+    response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+    return new WebAsyncTask<>(exportTimeout, () -> {
+      settingsExportService.exportSettings(response.getOutputStream());
+      return null;
+    });
+  }
+
+  @Operation(
+      summary = "Retrieve settings of several users",
+      description = "### Endpoint purpose:\n This endpoint allows to retrieve the personal settings of several users in one request. Accepts an array of user identifiers and returns settings keyed by user identifier. The number of identifiers is limited by _settings.batch.max-size_.",
+      parameters = @Parameter(
+          in = ParameterIn.HEADER,
+          name = "X-Access-Token",
+          description = "Token used for endpoint security",
+          required = true,
+          schema = @Schema(type = "string")
+      ),
+      requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(required = true,
+          content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+              array = @ArraySchema(schema = @Schema(type = "string", format = "uuid")),
+              examples = {
+                  @ExampleObject(value = "[\"496fd2fd-3497-4391-9ead-41410522d06f\"]")
+              }
+          )
+      ),
+      responses = {
+          @ApiResponse(
+              description = "Returns JSON object with user settings keyed by user identifier",
+              responseCode = "200",
+              content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                  examples = @ExampleObject(value = "{\n"
+                      + "  \"496fd2fd-3497-4391-9ead-41410522d06f\":{\n"
+                      + "    \"settingsId\":\"a6bf7765-1daf-4a51-8510-f1cbf2e943b0\",\n"
+                      + "    \"channels\":[\n"
+                      + "      {\n"
+                      + "        \"channel\":\"email\",\n"
+                      + "        \"activated\":true,\n"
+                      + "        \"address\":\"new@email.com\"\n"
+                      + "      }\n"
+                      + "    ]\n"
+                      + "  }\n"
+                      + "}"))
+          ),
+          @ApiResponse(
+              responseCode = "400",
+              description = "Too many user identifiers",
+              content = @Content(schema = @Schema(implementation = DetailedErrorResponse.class))
+          ),
+          @ApiResponse(
+              responseCode = "401",
+              description = "Unauthorized",
+              content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE)
+          ),
+          @ApiResponse(
+              responseCode = "500",
+              description = "Internal server error",
+              content = @Content(schema = @Schema(implementation = DetailedErrorResponse.class))
+          )
+      }
+  )
+  @PostMapping("/batch")
+  public ResponseEntity<Map<UUID, SettingsReadDto>> findUserSettingsByIds(
+      @RequestBody List<UUID> userIds) {
+    log.info("Get settings of {} users", userIds.size());
+    var response = settingsReadService.findSettingsByUserIds(userIds);
+    return ResponseEntity.status(HttpStatus.OK).body(response);
+  }
+
+  @Operation(
+      summary = "Find owners of communication channel addresses",
+      description = "### Endpoint purpose:\n This endpoint is intended for internal services, e.g. bounce and complaint processing, and allows to find the users that own the given communication channel addresses in one request. Accepts an array of addresses and returns the owning user identifier, channel and activation state for every address that is registered. Unknown addresses are omitted. The number of addresses is limited by _settings.batch.max-size_.\n"
+          + "### User verification:\n User must have one of the roles from _settings.channel-owners.roles_, otherwise _403 Forbidden_ status code returned.",
+      parameters = @Parameter(
+          in = ParameterIn.HEADER,
+          name = "X-Access-Token",
+          description = "Token used for endpoint security",
+          required = true,
+          schema = @Schema(type = "string")
+      ),
+      requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(required = true,
+          content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+              array = @ArraySchema(schema = @Schema(type = "string")),
+              examples = {
+                  @ExampleObject(value = "[\"new@email.com\"]")
+              }
+          )
+      ),
+      responses = {
+          @ApiResponse(
+              description = "Returns JSON array with owners of the registered addresses",
+              responseCode = "200",
+              content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                  examples = @ExampleObject(value = "[\n"
+                      + "  {\n"
+                      + "    \"address\":\"new@email.com\",\n"
+                      + "    \"keycloakId\":\"496fd2fd-3497-4391-9ead-41410522d06f\",\n"
+                      + "    \"channel\":\"email\",\n"
+                      + "    \"activated\":true\n"
+                      + "  }\n"
+                      + "]"))
+          ),
+          @ApiResponse(
+              responseCode = "400",
+              description = "Too many addresses",
+              content = @Content(schema = @Schema(implementation = DetailedErrorResponse.class))
+          ),
+          @ApiResponse(
+              responseCode = "401",
+              description = "Unauthorized",
+              content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE)
+          ),
+          @ApiResponse(
+              responseCode = "403",
+              description = "User role verification failed",
+              content = @Content(schema = @Schema(implementation = DetailedErrorResponse.class))
+          ),
+          @ApiResponse(
+              responseCode = "500",
+              description = "Internal server error",
+              content = @Content(schema = @Schema(implementation = DetailedErrorResponse.class))
+          )
+      }
+  )
+  @PostMapping("/channels/by-address")
+  public ResponseEntity<List<ChannelOwner>> findChannelOwnersByAddresses(
+      @RequestBody List<String> addresses,
+      @Parameter(hidden = true) UserClaims userClaims) {
+    log.info("Find owners of {} channel addresses", addresses.size());
+    settingsReadService.verifyChannelOwnersLookupAllowed(userClaims);
+    var response = settingsReadService.findChannelOwnersByAddresses(addresses);
     return ResponseEntity.status(HttpStatus.OK).body(response);
   }
 
@@ -218,9 +437,9 @@ public class SettingsController {
   public ResponseEntity<Void> activateChannel(
       @PathVariable("channel") Channel channel,
       @RequestBody @Valid ActivateChannelInputDto input,
-      @Parameter(hidden = true) @RequestHeader("X-Access-Token") String accessToken) {
+      @Parameter(hidden = true) UserClaims userClaims) {
     log.info("Activate diia channel is called");
-    activationService.activateChannel(input, channel, accessToken);
+    activationService.activateChannel(input, channel, userClaims);
     return ResponseEntity.status(HttpStatus.OK).build();
   }
 
@@ -277,9 +496,9 @@ public class SettingsController {
   public ResponseEntity<Void> deactivateChannel(
       @PathVariable("channel") Channel channel,
       @RequestBody @Valid SettingsDeactivateChannelInputDto input,
-      @Parameter(hidden = true) @RequestHeader("X-Access-Token") String accessToken) {
+      @Parameter(hidden = true) UserClaims userClaims) {
     log.info("Deactivate {} channel called", channel);
-    activationService.deactivateChannel(channel, input, accessToken);
+    activationService.deactivateChannel(channel, input, userClaims);
     return ResponseEntity.status(HttpStatus.OK).build();
   }
 
@@ -334,9 +553,9 @@ public class SettingsController {
   public ResponseEntity<VerificationCodeExpirationDto> verifyChannelAddress(
           @PathVariable("channel") Channel channel,
           @RequestBody @Valid VerificationInputDto input,
-          @Parameter(hidden = true) @RequestHeader("X-Access-Token") String accessToken) {
+          @Parameter(hidden = true) UserClaims userClaims) {
     log.info("Channel verification is called");
-    var response = channelVerificationService.sendVerificationCode(channel, input, accessToken);
+    var response = channelVerificationService.sendVerificationCode(channel, input, userClaims);
     return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
   }
 
@@ -389,4 +608,81 @@ public class SettingsController {
     validationService.validateEmailAddress(input);
     return ResponseEntity.status(HttpStatus.OK).build();
   }
+
+  @Operation(
+      summary = "Validate email addresses in batch",
+      description = "### Endpoint purpose:\n This endpoint allows to validate an array of email addresses in one request. Request and response are streamed, results are returned in the order of the input array with the index of each address, its status (_VALID_, _EMPTY_ or _NOT_VALID_) and the localization key of the validation error",
+      parameters = @Parameter(
+          in = ParameterIn.HEADER,
+          name = "X-Access-Token",
+          description = "Token used for endpoint security",
+          required = true,
+          schema = @Schema(type = "string")
+      ),
+      requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(required = true,
+          content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+              array = @ArraySchema(schema = @Schema(type = "string")),
+              examples = {
+                  @ExampleObject(value = "[\"new@email.com\", \"\", \"not-an-email\"]")
+              }
+          )
+      ),
+      responses = {
+          @ApiResponse(
+              description = "Returns validation result for every address. If the body "
+                  + "becomes unreadable after streaming has started, the last record holds "
+                  + "the index of the unreadable element and an error code",
+              responseCode = "200",
+              content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                  examples = @ExampleObject(value = "[\n"
+                      + "  {\"index\":0,\"status\":\"VALID\"},\n"
+                      + "  {\"index\":1,\"status\":\"EMPTY\",\"messageKey\":\"ERROR_EMAIL_ADDRESS_EMPTY\"},\n"
+                      + "  {\"index\":2,\"status\":\"NOT_VALID\",\"messageKey\":\"ERROR_EMAIL_ADDRESS_NOT_VALID\"}\n"
+                      + "]"))
+          ),
+          @ApiResponse(
+              responseCode = "400",
+              description = "Request body is not a JSON array",
+              content = @Content(schema = @Schema(implementation = DetailedErrorResponse.class))
+          ),
+          @ApiResponse(
+              responseCode = "401",
+              description = "Unauthorized",
+              content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE)
+          ),
+          @ApiResponse(
+              responseCode = "500",
+              description = "Internal server error",
+              content = @Content(schema = @Schema(implementation = DetailedErrorResponse.class))
+          )
+      }
+  )
+  @PostMapping(value = "/me/channels/email/validate/batch",
+      consumes = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> validateEmailAddresses(InputStream body)
+      throws IOException {
+    log.info("Batch email validation is called");
+    var parser = openAddressArray(body);
+    StreamingResponseBody response = outputStream -> {
+      try (parser; var generator = objectMapper.getFactory().createGenerator(outputStream)) {
+        validationService.validateEmailAddresses(parser, generator);
+      }
+    };
+    return ResponseEntity.status(HttpStatus.OK)
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(response);
+  }
+
+  private JsonParser openAddressArray(InputStream body) throws IOException {
+    var parser = objectMapper.getFactory().createParser(body);
+    try {
+      if (parser.nextToken() != JsonToken.START_ARRAY) {
+        throw new JsonParseException(parser, "Expected array of email addresses");
+      }
+      return parser;
+    } catch (JsonProcessingException exception) {
+      parser.close();
+      throw new BatchInputNotReadableException("Request body is not a JSON array", exception);
+    }
+  }
 }
@@ -29,6 +29,7 @@ import com.epam.digital.data.platform.starter.security.exception.JwtParsingExcep
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.TypeMismatchException;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -54,11 +55,14 @@ public class ApplicationExceptionHandler extends ResponseEntityExceptionHandler
 
   private final TraceService traceService;
   private final MessageResolver messageResolver;
+  private final long readRetryAfter;
 
   public ApplicationExceptionHandler(TraceService traceService,
-      MessageResolver messageResolver) {
+      MessageResolver messageResolver,
+      @Value("${settings.read.retry-after}") long readRetryAfter) {
     this.traceService = traceService;
     this.messageResolver = messageResolver;
+    this.readRetryAfter = readRetryAfter;
   }
 
   @ExceptionHandler(AccessDeniedException.class)
@@ -104,6 +108,14 @@ public class ApplicationExceptionHandler extends ResponseEntityExceptionHandler
         .body(newDetailedResponse(ResponseCode.CLIENT_ERROR));
   }
 
+  @ExceptionHandler(BatchInputNotReadableException.class)
+  public ResponseEntity<DetailedErrorResponse<Void>> handleBatchInputNotReadableException(
+      BatchInputNotReadableException exception) {
+    log.error("Batch request body is not readable", exception);
+    return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+        .body(newDetailedResponse(ResponseCode.CLIENT_ERROR));
+  }
+
   @Override
   protected ResponseEntity<Object> handleHttpMediaTypeNotSupported(
       HttpMediaTypeNotSupportedException ex, HttpHeaders headers, HttpStatus status,
@@ -174,6 +186,23 @@ public class ApplicationExceptionHandler extends ResponseEntityExceptionHandler
     return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(response);
   }
 
+  @ExceptionHandler(BatchSizeExceededException.class)
+  public ResponseEntity<DetailedErrorResponse<Void>> handleBatchSizeExceededException(
+      BatchSizeExceededException exception) {
+    log.error("Batch size exceeded", exception);
+    return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+        .body(newDetailedResponse(ResponseCode.CLIENT_ERROR));
+  }
+
+  @ExceptionHandler(SettingsReadTimeoutException.class)
+  public ResponseEntity<DetailedErrorResponse<Void>> handleSettingsReadTimeoutException(
+      SettingsReadTimeoutException exception) {
+    log.error("Settings read timed out", exception);
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, String.valueOf(readRetryAfter))
+        .body(newDetailedResponse(ResponseCode.SERVICE_UNAVAILABLE));
+  }
+
   @ExceptionHandler(ChannelVerificationException.class)
   public ResponseEntity<DetailedErrorResponse<Void>> handleEmailAlreadyVerifyingException(
       ChannelVerificationException exception) {
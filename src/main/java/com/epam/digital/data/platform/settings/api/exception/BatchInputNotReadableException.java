@@ -1,34 +1,24 @@
 /*
- * Copyright 2022 EPAM Systems.
+ * Copyright 2023 EPAM Systems.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
  * You may obtain a copy of the License at
  *
- *     https://www.apache.org/licenses/LICENSE-2.0
+ *     http://www.apache.org/licenses/LICENSE-2.0
  *
  * Unless required by applicable law or agreed to in writing, software
  * distributed under the License is distributed on an "AS IS" BASIS,
  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
  * See the License for the specific language governing permissions and
  * limitations under the License.
- *
  */
 
-package com.epam.digital.data.platform.settings.api.entity;
-
-import com.epam.digital.data.platform.settings.api.model.OtpData;
-import javax.validation.constraints.NotNull;
-import lombok.Builder;
-import lombok.Data;
-import org.springframework.data.annotation.Id;
+package com.epam.digital.data.platform.settings.api.exception;
 
-@Data
-@Builder
-public class OtpEntity {
+public class BatchInputNotReadableException extends RuntimeException {
 
-  @Id
-  private String id;
-  @NotNull
-  private OtpData otpData;
+  public BatchInputNotReadableException(String message, Throwable cause) {
+    super(message, cause);
+  }
 }
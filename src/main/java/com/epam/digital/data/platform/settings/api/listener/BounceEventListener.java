@@ -0,0 +1,125 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.settings.api.listener;
+
+import com.epam.digital.data.platform.settings.api.model.BounceEvent;
+import com.epam.digital.data.platform.settings.api.service.BounceDeactivationService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(prefix = "bounce.consumer", name = "enabled", havingValue = "true")
+public class BounceEventListener {
+
+  private final Logger log = LoggerFactory.getLogger(BounceEventListener.class);
+
+  private final BounceDeactivationService bounceDeactivationService;
+  private final ObjectMapper objectMapper;
+  private final Clock clock;
+  private final String defaultReason;
+  private final DistributionSummary batchSize;
+  private final Timer lagTimer;
+  private final Counter deactivatedCounter;
+  private final Counter malformedCounter;
+
+  public BounceEventListener(
+      BounceDeactivationService bounceDeactivationService,
+      ObjectMapper objectMapper,
+      Clock clock,
+      MeterRegistry meterRegistry,
+      @Value("${bounce.consumer.default-reason}") String defaultReason) {
+    this.bounceDeactivationService = bounceDeactivationService;
+    this.objectMapper = objectMapper;
+    this.clock = clock;
+    this.defaultReason = defaultReason;
+    this.batchSize = DistributionSummary.builder("bounce.consumer.batch.size")
+        .description("Bounce events received in one poll")
+        .register(meterRegistry);
+    this.lagTimer = Timer.builder("bounce.consumer.lag")
+        .description("Time between publishing a bounce event and committing its deactivation")
+        .register(meterRegistry);
+    this.deactivatedCounter = Counter.builder("bounce.consumer.deactivated")
+        .description("Email channels deactivated because of bounces")
+        .register(meterRegistry);
+    this.malformedCounter = Counter.builder("bounce.consumer.malformed")
+        .description("Bounce events skipped because they could not be parsed")
+        .register(meterRegistry);
+  }
+
+  @KafkaListener(
+      topics = "${bounce.consumer.topic}",
+      containerFactory = "bounceListenerContainerFactory")
+  public void onBounces(
+      List<ConsumerRecord<String, String>> records, Acknowledgment acknowledgment) {
+    batchSize.record(records.size());
+    var bounces = new ArrayList<BounceEvent>(records.size());
+    for (var consumerRecord : records) {
+      var bounce = parse(consumerRecord);
+      if (bounce != null) {
+        bounces.add(bounce);
+      }
+    }
+    var deactivated = bounceDeactivationService.deactivate(bounces);
+    acknowledgment.acknowledge();
+
+    deactivatedCounter.increment(deactivated.size());
+    var now = clock.millis();
+    for (var consumerRecord : records) {
+      lagTimer.record(Duration.ofMillis(Math.max(0L, now - consumerRecord.timestamp())));
+    }
+  }
+
+  private BounceEvent parse(ConsumerRecord<String, String> consumerRecord) {
+    try {
+      var bounce = objectMapper.readValue(consumerRecord.value(), BounceEvent.class);
+      if (isBlank(bounce.getAddress())) {
+        throw new IllegalArgumentException("Bounce event has no address");
+      }
+      if (isBlank(bounce.getReason())) {
+        bounce.setReason(defaultReason);
+      }
+      bounce.setSource(consumerRecord.topic() + "-" + consumerRecord.partition() + "@"
+          + consumerRecord.offset());
+      return bounce;
+    } catch (JsonProcessingException | IllegalArgumentException exception) {
+      malformedCounter.increment();
+      log.warn("Skipping malformed bounce event at {}-{}@{}", consumerRecord.topic(),
+          consumerRecord.partition(), consumerRecord.offset(), exception);
+      return null;
+    }
+  }
+
+  private static boolean isBlank(String value) {
+    return value == null || value.isBlank();
+  }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.settings.api.model;
+
+public class DeactivatedChannel {
+
+  private final ChannelOwner owner;
+  // Settings version the deactivation was stored with, see VersionedSettings
+  private final long version;
+
+  public DeactivatedChannel(ChannelOwner owner, long version) {
+    this.owner = owner;
+    this.version = version;
+  }
+
+  public ChannelOwner getOwner() {
+    return owner;
+  }
+
+  public long getVersion() {
+    return version;
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ *  Copyright 2021 EPAM Systems.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.epam.digital.data.platform.settings.api.model;
+
+import com.epam.digital.data.platform.notification.dto.Recipient;
+import com.epam.digital.data.platform.settings.model.dto.Channel;
+
+public class NotificationOutboxEntry extends OutboxEntry {
+
+  private Channel channel;
+  private String address;
+  private String username;
+  // Key of the verification code in Redis, the code itself is never written to the outbox
+  private String otpId;
+  private Recipient.RecipientRealm realm;
+
+  public Channel getChannel() {
+    return channel;
+  }
+
+  public void setChannel(Channel channel) {
+    this.channel = channel;
+  }
+
+  public String getAddress() {
+    return address;
+  }
+
+  public void setAddress(String address) {
+    this.address = address;
+  }
+
+  public String getUsername() {
+    return username;
+  }
+
+  public void setUsername(String username) {
+    this.username = username;
+  }
+
+  public String getOtpId() {
+    return otpId;
+  }
+
+  public void setOtpId(String otpId) {
+    this.otpId = otpId;
+  }
+
+  public Recipient.RecipientRealm getRealm() {
+    return realm;
+  }
+
+  public void setRealm(Recipient.RecipientRealm realm) {
+    this.realm = realm;
+  }
+}
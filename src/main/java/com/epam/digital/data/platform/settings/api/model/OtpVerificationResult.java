@@ -0,0 +1,30 @@
+/*
+ *  Copyright 2021 EPAM Systems.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.epam.digital.data.platform.settings.api.model;
+
+public enum OtpVerificationResult {
+  OK,
+  MISMATCH,
+  EXPIRED;
+
+  public static OtpVerificationResult fromCode(Long code) {
+    if (code == null || code < 0 || code >= values().length) {
+      throw new IllegalArgumentException("Unknown OTP verification result code: " + code);
+    }
+    return values()[code.intValue()];
+  }
+}
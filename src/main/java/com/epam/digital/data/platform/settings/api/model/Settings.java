@@ -19,6 +19,7 @@ package com.epam.digital.data.platform.settings.api.model;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.relational.core.mapping.Table;
 
+import java.nio.charset.StandardCharsets;
 import java.util.UUID;
 
 @Table
@@ -43,4 +44,10 @@ public class Settings {
   public void setKeycloakId(UUID keycloakId) {
     this.keycloakId = keycloakId;
   }
+
+  // Settings identifier is derived from keycloak id, so that the identifier returned for
+  // not yet persisted settings stays the same after the settings row is created
+  public static UUID deriveId(UUID keycloakId) {
+    return UUID.nameUUIDFromBytes(keycloakId.toString().getBytes(StandardCharsets.UTF_8));
+  }
 }
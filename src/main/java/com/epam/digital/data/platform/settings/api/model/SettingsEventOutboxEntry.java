@@ -0,0 +1,42 @@
+/*
+ *  Copyright 2021 EPAM Systems.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.epam.digital.data.platform.settings.api.model;
+
+import java.util.UUID;
+
+public class SettingsEventOutboxEntry extends OutboxEntry {
+
+  private UUID keycloakId;
+  // SettingsChangedEvent serialized as it is sent to Kafka
+  private String payload;
+
+  public UUID getKeycloakId() {
+    return keycloakId;
+  }
+
+  public void setKeycloakId(UUID keycloakId) {
+    this.keycloakId = keycloakId;
+  }
+
+  public String getPayload() {
+    return payload;
+  }
+
+  public void setPayload(String payload) {
+    this.payload = payload;
+  }
+}
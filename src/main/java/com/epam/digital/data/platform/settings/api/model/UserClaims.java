@@ -0,0 +1,50 @@
+/*
+ *  Copyright 2021 EPAM Systems.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.epam.digital.data.platform.settings.api.model;
+
+import java.util.List;
+
+public class UserClaims {
+
+  private final String userId;
+  private final String username;
+  private final String drfo;
+  private final List<String> roles;
+
+  public UserClaims(String userId, String username, String drfo, List<String> roles) {
+    this.userId = userId;
+    this.username = username;
+    this.drfo = drfo;
+    this.roles = roles;
+  }
+
+  public String getUserId() {
+    return userId;
+  }
+
+  public String getUsername() {
+    return username;
+  }
+
+  public String getDrfo() {
+    return drfo;
+  }
+
+  public List<String> getRoles() {
+    return roles;
+  }
+}
@@ -0,0 +1,51 @@
+/*
+ *  Copyright 2021 EPAM Systems.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.epam.digital.data.platform.settings.api.model;
+
+import com.epam.digital.data.platform.settings.model.dto.SettingsReadDto;
+import java.sql.Timestamp;
+
+public class VersionedSettings {
+
+  private final SettingsReadDto settings;
+  // Latest notification_channel.updated_at of the settings in epoch microseconds, 0 if none
+  private final long version;
+
+  public VersionedSettings(SettingsReadDto settings, long version) {
+    this.settings = settings;
+    this.version = version;
+  }
+
+  public SettingsReadDto getSettings() {
+    return settings;
+  }
+
+  public long getVersion() {
+    return version;
+  }
+
+  public String getETag() {
+    return "\"" + settings.getSettingsId() + "-" + Long.toHexString(version) + "\"";
+  }
+
+  public static long toVersion(Timestamp updatedAt) {
+    if (updatedAt == null) {
+      return 0L;
+    }
+    return Math.floorDiv(updatedAt.getTime(), 1000L) * 1_000_000L + updatedAt.getNanos() / 1000;
+  }
+}
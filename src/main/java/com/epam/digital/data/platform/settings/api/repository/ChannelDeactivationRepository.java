@@ -0,0 +1,61 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.settings.api.repository;
+
+import com.epam.digital.data.platform.settings.api.model.ChannelOwner;
+import com.epam.digital.data.platform.settings.api.model.DeactivatedChannel;
+import com.epam.digital.data.platform.settings.api.model.VersionedSettings;
+import com.epam.digital.data.platform.settings.model.dto.Channel;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class ChannelDeactivationRepository {
+
+  private static final String DEACTIVATE_EMAIL_CHANNELS =
+      "UPDATE notification_channel c SET is_activated = false, "
+          + "deactivation_reason = b.reason, "
+          + "updated_at = GREATEST(clock_timestamp(), c.updated_at + interval '1 microsecond') "
+          + "FROM unnest(CAST(:addresses AS text[]), CAST(:reasons AS text[])) "
+          + "AS b(address, reason), settings s "
+          + "WHERE c.address = b.address AND c.channel = 'EMAIL' AND c.is_activated "
+          + "AND s.id = c.settings_id "
+          + "RETURNING c.address, s.keycloak_id, c.updated_at";
+
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+
+  public ChannelDeactivationRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  public List<DeactivatedChannel> deactivateEmailChannels(
+      List<String> addresses, List<String> reasons) {
+    return jdbcTemplate.query(DEACTIVATE_EMAIL_CHANNELS,
+        Map.of("addresses", addresses.toArray(new String[0]),
+            "reasons", reasons.toArray(new String[0])),
+        (rs, rowNum) -> new DeactivatedChannel(
+            new ChannelOwner(
+                rs.getString("address"),
+                rs.getObject("keycloak_id", UUID.class),
+                Channel.EMAIL,
+                false),
+            VersionedSettings.toVersion(rs.getTimestamp("updated_at"))));
+  }
+}
@@ -18,11 +18,10 @@ package com.epam.digital.data.platform.settings.api.repository;
 
 import com.epam.digital.data.platform.settings.api.model.NotificationChannel;
 import com.epam.digital.data.platform.settings.model.dto.Channel;
-import java.time.LocalDateTime;
+import java.sql.Timestamp;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import org.springframework.data.jdbc.repository.query.Modifying;
 import org.springframework.data.jdbc.repository.query.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
@@ -35,38 +34,39 @@ public interface NotificationChannelRepository extends CrudRepository<Notificati
   Optional<NotificationChannel> findBySettingsIdAndChannel(@Param("settingsId") UUID settingsId,
       @Param("channel") Channel channel);
 
-  @Modifying
+  // updated_at is the settings version, so it is taken from the database clock, shared by all
+  // instances, and never moves backwards for a channel
   @Query(
-      "UPDATE notification_channel SET address=:address, is_activated=true, "
-          + "deactivation_reason=NULL, updated_at=:updatedAt "
-          + "WHERE id=:id")
-  void activateChannel(
-      @Param("id") UUID id,
-      @Param("address") String address,
-      @Param("updatedAt") LocalDateTime updatedAt);
-
-  @Modifying
-  @Query(
-      "UPDATE notification_channel SET " +
-      "is_activated=false, " +
-      "address=:address, " +
-      "deactivation_reason=:deactivationReason, " +
-      "updated_at=:updatedAt " +
-      "WHERE id=:id")
-  void deactivateChannel(
-      @Param("id") UUID id,
-      @Param("address") String address,
-      @Param("deactivationReason") String deactivationReason,
-      @Param("updatedAt") LocalDateTime updatedAt);
+      "INSERT INTO notification_channel (settings_id, channel, address, is_activated, updated_at) "
+          + "VALUES (:settingsId, CAST(:channel as channel_enum), :address, true, "
+          + "clock_timestamp()) "
+          + "ON CONFLICT (settings_id, channel) DO UPDATE SET "
+          + "address=EXCLUDED.address, "
+          + "is_activated=true, "
+          + "deactivation_reason=NULL, "
+          + "updated_at=GREATEST(EXCLUDED.updated_at, "
+          + "notification_channel.updated_at + interval '1 microsecond') "
+          + "RETURNING updated_at")
+  Timestamp upsertActivatedChannel(
+      @Param("settingsId") UUID settingsId,
+      @Param("channel") Channel channel,
+      @Param("address") String address);
 
-  @Modifying
   @Query(
-      "INSERT INTO notification_channel (settings_id, channel, address, is_activated, deactivation_reason) "
-          + "VALUES (:settingsId, CAST(:channel as channel_enum), :address, :isActivated, :deactivationReason)")
-  void create(
+      "INSERT INTO notification_channel "
+          + "(settings_id, channel, address, is_activated, deactivation_reason, updated_at) "
+          + "VALUES (:settingsId, CAST(:channel as channel_enum), :address, false, "
+          + ":deactivationReason, clock_timestamp()) "
+          + "ON CONFLICT (settings_id, channel) DO UPDATE SET "
+          + "address=COALESCE(EXCLUDED.address, notification_channel.address), "
+          + "is_activated=false, "
+          + "deactivation_reason=EXCLUDED.deactivation_reason, "
+          + "updated_at=GREATEST(EXCLUDED.updated_at, "
+          + "notification_channel.updated_at + interval '1 microsecond') "
+          + "RETURNING updated_at")
+  Timestamp upsertDeactivatedChannel(
       @Param("settingsId") UUID settingsId,
       @Param("channel") Channel channel,
       @Param("address") String address,
-      @Param("isActivated") boolean isActivated,
       @Param("deactivationReason") String deactivationReason);
 }
@@ -0,0 +1,69 @@
+/*
+ *  Copyright 2021 EPAM Systems.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.epam.digital.data.platform.settings.api.repository;
+
+import com.epam.digital.data.platform.notification.dto.Recipient;
+import com.epam.digital.data.platform.settings.api.model.NotificationOutboxEntry;
+import com.epam.digital.data.platform.settings.model.dto.Channel;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class NotificationOutboxRepository extends OutboxRepository<NotificationOutboxEntry> {
+
+  private static final String INSERT =
+      "INSERT INTO notification_outbox "
+          + "(channel, address, username, otp_id, realm, next_attempt_at, created_at) "
+          + "VALUES (:channel, :address, :username, :otpId, :realm, :createdAt, :createdAt)";
+
+  public NotificationOutboxRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+    super(jdbcTemplate, "notification_outbox");
+  }
+
+  public void insert(
+      String channel,
+      String address,
+      String username,
+      String otpId,
+      String realm,
+      LocalDateTime createdAt) {
+    var params = new HashMap<String, Object>();
+    params.put("channel", channel);
+    params.put("address", address);
+    params.put("username", username);
+    params.put("otpId", otpId);
+    params.put("realm", realm);
+    params.put("createdAt", createdAt);
+    jdbcTemplate.update(INSERT, params);
+  }
+
+  @Override
+  protected NotificationOutboxEntry mapRow(ResultSet rs) throws SQLException {
+    var entry = new NotificationOutboxEntry();
+    entry.setChannel(Channel.valueOf(rs.getString("channel")));
+    entry.setAddress(rs.getString("address"));
+    entry.setUsername(rs.getString("username"));
+    entry.setOtpId(rs.getString("otp_id"));
+    var realm = rs.getString("realm");
+    entry.setRealm(realm == null ? null : Recipient.RecipientRealm.valueOf(realm));
+    return entry;
+  }
+}
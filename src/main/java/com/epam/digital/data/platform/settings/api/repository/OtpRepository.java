@@ -17,11 +17,65 @@
 
 package com.epam.digital.data.platform.settings.api.repository;
 
-import com.epam.digital.data.platform.settings.api.entity.OtpEntity;
-import org.springframework.data.keyvalue.repository.KeyValueRepository;
+import com.epam.digital.data.platform.settings.api.model.OtpData;
+import com.epam.digital.data.platform.settings.api.model.OtpVerificationResult;
+import java.time.Duration;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface OtpRepository extends KeyValueRepository<OtpEntity, String> {
+@ConditionalOnProperty(value = "spring.redis.enabled", matchIfMissing = true)
+public class OtpRepository {
 
+  public static final String KEYSPACE = "channel-verification-codes";
+
+  private static final String KEY_PATTERN = KEYSPACE + ":%s";
+  private static final char VALUE_SEPARATOR = ':';
+  private static final String VERIFY_SCRIPT = "redis/verify-otp.lua";
+
+  private final StringRedisTemplate redisTemplate;
+  private final Duration ttl;
+  private final RedisScript<Long> verifyScript;
+
+  public OtpRepository(
+      StringRedisTemplate redisTemplate,
+      @Value("${verification.otp.time-to-live}") long ttl) {
+    this.redisTemplate = redisTemplate;
+    this.ttl = Duration.ofSeconds(ttl);
+    this.verifyScript = RedisScript.of(new ClassPathResource(VERIFY_SCRIPT), Long.class);
+  }
+
+  public void save(String id, OtpData otpData) {
+    redisTemplate.opsForValue().set(key(id), encode(otpData), ttl);
+  }
+
+  public OtpData find(String id) {
+    var value = redisTemplate.opsForValue().get(key(id));
+    return value == null ? null : decode(value);
+  }
+
+  public OtpVerificationResult verifyAndConsume(
+      String id, String verificationCode, String address) {
+    var expected = encode(new OtpData(address, verificationCode));
+    var resultCode = redisTemplate.execute(verifyScript, List.of(key(id)), expected);
+    return OtpVerificationResult.fromCode(resultCode);
+  }
+
+  static String key(String id) {
+    return String.format(KEY_PATTERN, id);
+  }
+
+  static String encode(OtpData otpData) {
+    return otpData.getVerificationCode() + VALUE_SEPARATOR + otpData.getAddress();
+  }
+
+  static OtpData decode(String value) {
+    var separator = value.indexOf(VALUE_SEPARATOR);
+    return new OtpData(value.substring(separator + 1), value.substring(0, separator));
+  }
 }
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.settings.api.repository;
+
+import com.epam.digital.data.platform.settings.api.model.OutboxEntry;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+/**
+ * Claiming, rescheduling and dead-lettering of rows of an outbox table. The table must have
+ * {@code id}, {@code attempts}, {@code last_error}, {@code next_attempt_at},
+ * {@code dead_lettered_at} and {@code created_at} columns. An ordered outbox additionally needs a
+ * {@code seq} column that increases in insertion order.
+ */
+public abstract class OutboxRepository<E extends OutboxEntry> {
+
+  protected final NamedParameterJdbcTemplate jdbcTemplate;
+
+  private final String claimQuery;
+  private final String rescheduleQuery;
+  private final String releaseQuery;
+  private final String deadLetterQuery;
+  private final String deleteQuery;
+  private final String oldestPendingQuery;
+
+  protected OutboxRepository(NamedParameterJdbcTemplate jdbcTemplate, String table) {
+    this(jdbcTemplate, table, null);
+  }
+
+  /**
+   * Creates a repository of an outbox whose rows are delivered in order per {@code orderKey}
+   * column: only the oldest pending row of each key can be claimed, so a row that is leased or
+   * waiting for a retry holds back the rows behind it.
+   */
+  protected OutboxRepository(NamedParameterJdbcTemplate jdbcTemplate, String table,
+      String orderKey) {
+    this.jdbcTemplate = jdbcTemplate;
+    var due = orderKey == null
+        ? "SELECT id FROM " + table + " WHERE dead_lettered_at IS NULL "
+        : "SELECT id FROM " + table + " WHERE id IN (SELECT DISTINCT ON (" + orderKey + ") id "
+            + "FROM " + table + " WHERE dead_lettered_at IS NULL "
+            + "ORDER BY " + orderKey + ", seq) ";
+    // Claiming moves next_attempt_at past the lease, so the rows are not held locked while
+    // delivering and come back on their own if the instance dies before finishing them
+    this.claimQuery = "UPDATE " + table + " o SET attempts = o.attempts + 1, "
+        + "next_attempt_at = :leaseUntil "
+        + "FROM (" + due + "AND next_attempt_at <= :now "
+        + "ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED) due "
+        + "WHERE o.id = due.id RETURNING o.*";
+    this.rescheduleQuery = "UPDATE " + table + " SET next_attempt_at = :nextAttemptAt, "
+        + "last_error = :lastError WHERE id = :id";
+    this.releaseQuery = "UPDATE " + table + " SET attempts = attempts - 1, "
+        + "next_attempt_at = :nextAttemptAt WHERE id IN (:ids)";
+    this.deadLetterQuery = "UPDATE " + table + " SET dead_lettered_at = :deadLetteredAt, "
+        + "last_error = :lastError WHERE id = :id";
+    this.deleteQuery = "DELETE FROM " + table + " WHERE id IN (:ids)";
+    this.oldestPendingQuery =
+        "SELECT min(created_at) FROM " + table + " WHERE dead_lettered_at IS NULL";
+  }
+
+  public List<E> claim(int limit, LocalDateTime now, LocalDateTime leaseUntil) {
+    var claimed = jdbcTemplate.query(claimQuery,
+        Map.of("limit", limit, "now", now, "leaseUntil", leaseUntil),
+        (rs, rowNum) -> mapEntry(rs));
+    claimed.sort(Comparator.comparing(OutboxEntry::getCreatedAt));
+    return claimed;
+  }
+
+  public void reschedule(UUID id, String lastError, LocalDateTime nextAttemptAt) {
+    var params = new HashMap<String, Object>();
+    params.put("id", id);
+    params.put("lastError", lastError);
+    params.put("nextAttemptAt", nextAttemptAt);
+    jdbcTemplate.update(rescheduleQuery, params);
+  }
+
+  /**
+   * Gives claimed rows back without counting an attempt, for rows the relay did not try.
+   */
+  public void release(Collection<UUID> ids, LocalDateTime nextAttemptAt) {
+    jdbcTemplate.update(releaseQuery, Map.of("ids", ids, "nextAttemptAt", nextAttemptAt));
+  }
+
+  public void deadLetter(UUID id, String lastError, LocalDateTime deadLetteredAt) {
+    var params = new HashMap<String, Object>();
+    params.put("id", id);
+    params.put("lastError", lastError);
+    params.put("deadLetteredAt", deadLetteredAt);
+    jdbcTemplate.update(deadLetterQuery, params);
+  }
+
+  public void deleteByIds(Collection<UUID> ids) {
+    jdbcTemplate.update(deleteQuery, Map.of("ids", ids));
+  }
+
+  public Optional<LocalDateTime> findOldestPendingCreatedAt() {
+    var oldest = jdbcTemplate.queryForObject(oldestPendingQuery, Map.of(),
+        (rs, rowNum) -> rs.getTimestamp(1));
+    return Optional.ofNullable(oldest).map(Timestamp::toLocalDateTime);
+  }
+
+  protected abstract E mapRow(ResultSet rs) throws SQLException;
+
+  private E mapEntry(ResultSet rs) throws SQLException {
+    var entry = mapRow(rs);
+    entry.setId(rs.getObject("id", UUID.class));
+    entry.setAttempts(rs.getInt("attempts"));
+    entry.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+    return entry;
+  }
+}
@@ -0,0 +1,51 @@
+/*
+ *  Copyright 2021 EPAM Systems.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.epam.digital.data.platform.settings.api.repository;
+
+import com.epam.digital.data.platform.settings.api.model.SettingsEventOutboxEntry;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class SettingsEventOutboxRepository extends OutboxRepository<SettingsEventOutboxEntry> {
+
+  private static final String INSERT =
+      "INSERT INTO settings_event_outbox (keycloak_id, payload, next_attempt_at, created_at) "
+          + "VALUES (:keycloakId, :payload, :createdAt, :createdAt)";
+
+  public SettingsEventOutboxRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+    super(jdbcTemplate, "settings_event_outbox", "keycloak_id");
+  }
+
+  public void insert(UUID keycloakId, String payload, LocalDateTime createdAt) {
+    jdbcTemplate.update(INSERT,
+        Map.of("keycloakId", keycloakId, "payload", payload, "createdAt", createdAt));
+  }
+
+  @Override
+  protected SettingsEventOutboxEntry mapRow(ResultSet rs) throws SQLException {
+    var entry = new SettingsEventOutboxEntry();
+    entry.setKeycloakId(rs.getObject("keycloak_id", UUID.class));
+    entry.setPayload(rs.getString("payload"));
+    return entry;
+  }
+}
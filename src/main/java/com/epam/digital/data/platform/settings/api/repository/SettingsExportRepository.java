@@ -0,0 +1,58 @@
+/*
+ *  Copyright 2021 EPAM Systems.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.epam.digital.data.platform.settings.api.repository;
+
+import java.util.Map;
+import java.util.UUID;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class SettingsExportRepository {
+
+  private static final String SELECT_PAGE =
+      "SELECT s.id AS settings_id, s.keycloak_id, c.channel, c.address, c.is_activated, "
+          + "c.deactivation_reason, c.created_at, c.updated_at "
+          + "FROM (SELECT id, keycloak_id FROM settings %s ORDER BY id LIMIT :limit) s "
+          + "LEFT JOIN notification_channel c ON c.settings_id = s.id "
+          + "ORDER BY s.id, c.channel";
+  private static final String FIND_FIRST_PAGE = String.format(SELECT_PAGE, "");
+  private static final String FIND_NEXT_PAGE = String.format(SELECT_PAGE, "WHERE id > :after");
+
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+
+  public SettingsExportRepository(
+      DataSource dataSource,
+      @Value("${settings.export.fetch-size}") int fetchSize) {
+    var template = new JdbcTemplate(dataSource);
+    template.setFetchSize(fetchSize);
+    this.jdbcTemplate = new NamedParameterJdbcTemplate(template);
+  }
+
+  public void findPage(UUID after, int limit, RowCallbackHandler rowCallbackHandler) {
+    if (after == null) {
+      jdbcTemplate.query(FIND_FIRST_PAGE, Map.of("limit", limit), rowCallbackHandler);
+    } else {
+      jdbcTemplate.query(
+          FIND_NEXT_PAGE, Map.of("after", after, "limit", limit), rowCallbackHandler);
+    }
+  }
+}
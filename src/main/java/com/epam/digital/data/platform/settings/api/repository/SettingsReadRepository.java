@@ -0,0 +1,133 @@
+/*
+ *  Copyright 2021 EPAM Systems.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.epam.digital.data.platform.settings.api.repository;
+
+import com.epam.digital.data.platform.settings.api.model.ChannelOwner;
+import com.epam.digital.data.platform.settings.api.model.VersionedSettings;
+import com.epam.digital.data.platform.settings.model.dto.Channel;
+import com.epam.digital.data.platform.settings.model.dto.ChannelReadDto;
+import com.epam.digital.data.platform.settings.model.dto.SettingsReadDto;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class SettingsReadRepository {
+
+  private static final String FIND_BY_KEYCLOAK_ID =
+      "SELECT s.id AS settings_id, c.channel, c.address, c.is_activated, c.deactivation_reason, "
+          + "c.updated_at "
+          + "FROM settings s LEFT JOIN notification_channel c ON c.settings_id = s.id "
+          + "WHERE s.keycloak_id = :keycloakId "
+          + "ORDER BY c.channel";
+
+  private static final String FIND_BY_KEYCLOAK_IDS =
+      "SELECT s.keycloak_id, s.id AS settings_id, c.channel, c.address, c.is_activated, "
+          + "c.deactivation_reason, c.updated_at "
+          + "FROM settings s LEFT JOIN notification_channel c ON c.settings_id = s.id "
+          + "WHERE s.keycloak_id = ANY(:keycloakIds) "
+          + "ORDER BY s.keycloak_id, c.channel";
+
+  private static final String FIND_CHANNEL_OWNERS_BY_ADDRESSES =
+      "SELECT c.address, c.channel, c.is_activated, s.keycloak_id "
+          + "FROM notification_channel c JOIN settings s ON s.id = c.settings_id "
+          + "WHERE c.address = ANY(:addresses)";
+
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+
+  public SettingsReadRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  public Optional<VersionedSettings> findByKeycloakId(UUID keycloakId) {
+    return Optional.ofNullable(
+        jdbcTemplate.query(
+            FIND_BY_KEYCLOAK_ID, Map.of("keycloakId", keycloakId), this::extractSettings));
+  }
+
+  public Map<UUID, VersionedSettings> findByKeycloakIds(Collection<UUID> keycloakIds) {
+    return jdbcTemplate.query(FIND_BY_KEYCLOAK_IDS,
+        Map.of("keycloakIds", keycloakIds.toArray(new UUID[0])),
+        this::extractSettingsByKeycloakId);
+  }
+
+  public List<ChannelOwner> findChannelOwnersByAddresses(Collection<String> addresses) {
+    return jdbcTemplate.query(FIND_CHANNEL_OWNERS_BY_ADDRESSES,
+        Map.of("addresses", addresses.toArray(new String[0])),
+        (rs, rowNum) -> new ChannelOwner(
+            rs.getString("address"),
+            rs.getObject("keycloak_id", UUID.class),
+            Channel.valueOf(rs.getString("channel")),
+            rs.getBoolean("is_activated")));
+  }
+
+  private Map<UUID, VersionedSettings> extractSettingsByKeycloakId(ResultSet rs)
+      throws SQLException {
+    var settingsIds = new HashMap<UUID, UUID>();
+    var channels = new HashMap<UUID, List<ChannelReadDto>>();
+    var versions = new HashMap<UUID, Long>();
+    while (rs.next()) {
+      var keycloakId = rs.getObject("keycloak_id", UUID.class);
+      settingsIds.put(keycloakId, rs.getObject("settings_id", UUID.class));
+      var userChannels = channels.computeIfAbsent(keycloakId, id -> new ArrayList<>());
+      var channel = rs.getString("channel");
+      if (channel != null) {
+        userChannels.add(mapChannel(rs, channel));
+      }
+      versions.merge(keycloakId,
+          VersionedSettings.toVersion(rs.getTimestamp("updated_at")), Math::max);
+    }
+    var settings = new HashMap<UUID, VersionedSettings>();
+    settingsIds.forEach((keycloakId, settingsId) -> settings.put(keycloakId,
+        new VersionedSettings(new SettingsReadDto(settingsId, channels.get(keycloakId)),
+            versions.get(keycloakId))));
+    return settings;
+  }
+
+  private VersionedSettings extractSettings(ResultSet rs) throws SQLException {
+    UUID settingsId = null;
+    var channels = new ArrayList<ChannelReadDto>();
+    var version = 0L;
+    while (rs.next()) {
+      settingsId = rs.getObject("settings_id", UUID.class);
+      var channel = rs.getString("channel");
+      if (channel != null) {
+        channels.add(mapChannel(rs, channel));
+      }
+      version = Math.max(version, VersionedSettings.toVersion(rs.getTimestamp("updated_at")));
+    }
+    return settingsId == null
+        ? null : new VersionedSettings(new SettingsReadDto(settingsId, channels), version);
+  }
+
+  private ChannelReadDto mapChannel(ResultSet rs, String channel) throws SQLException {
+    var readDtoChannel = new ChannelReadDto();
+    readDtoChannel.setChannel(Channel.valueOf(channel));
+    readDtoChannel.setActivated(rs.getBoolean("is_activated"));
+    readDtoChannel.setAddress(rs.getString("address"));
+    readDtoChannel.setDeactivationReason(rs.getString("deactivation_reason"));
+    return readDtoChannel;
+  }
+}
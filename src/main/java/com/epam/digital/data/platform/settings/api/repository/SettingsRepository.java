@@ -19,16 +19,24 @@ package com.epam.digital.data.platform.settings.api.repository;
 import com.epam.digital.data.platform.settings.api.model.Settings;
 import java.util.Optional;
 import java.util.UUID;
+import org.springframework.data.jdbc.repository.query.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
 public interface SettingsRepository extends CrudRepository<Settings, UUID> {
   Optional<Settings> findByKeycloakId(UUID keycloakId);
 
+  @Query(
+      "WITH inserted AS ("
+          + "INSERT INTO settings (id, keycloak_id) VALUES (:id, :keycloakId) "
+          + "ON CONFLICT (keycloak_id) DO NOTHING RETURNING *) "
+          + "SELECT * FROM inserted "
+          + "UNION ALL SELECT * FROM settings WHERE keycloak_id=:keycloakId")
+  Optional<Settings> upsert(@Param("id") UUID id, @Param("keycloakId") UUID keycloakId);
+
   default Settings getByKeycloakId(UUID keycloakId) {
-    return findByKeycloakId(keycloakId).orElseGet(() -> {
-      var settings = new Settings();
-      settings.setKeycloakId(keycloakId);
-      return save(settings);
-    });
+    return upsert(Settings.deriveId(keycloakId), keycloakId)
+        .or(() -> findByKeycloakId(keycloakId))
+        .orElseThrow();
   }
 }
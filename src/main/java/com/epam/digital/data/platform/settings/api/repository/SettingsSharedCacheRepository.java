@@ -0,0 +1,234 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.settings.api.repository;
+
+import com.epam.digital.data.platform.settings.api.model.SettingsChangedEvent;
+import com.epam.digital.data.platform.settings.api.model.VersionedSettings;
+import com.epam.digital.data.platform.settings.model.dto.SettingsReadDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Second-level settings cache shared by all instances. Redis failures never fail a read, they
+ * are counted and treated as a cache miss.
+ *
+ * <p>Every write is guarded by the settings version: a value older than the stored one is never
+ * written. A change replaces the entry with a tombstone that only carries the new version, so a
+ * reader that loaded the settings before the change cannot put the old value back.
+ */
+@Repository
+@ConditionalOnProperty(value = "spring.redis.enabled", matchIfMissing = true)
+public class SettingsSharedCacheRepository {
+
+  public static final String KEYSPACE = "user-settings";
+
+  private static final String KEY_PATTERN = KEYSPACE + ":%s";
+  private static final char VALUE_SEPARATOR = ':';
+  // KEYS[1] cache key, ARGV[1] version, ARGV[2] value, ARGV[3] TTL in seconds. Versions are epoch
+  // microseconds, exact in Lua numbers
+  private static final String PUT_IF_NOT_OLDER =
+      "local current = redis.call('GET', KEYS[1]) "
+          + "if current then "
+          + "  local separator = string.find(current, ':', 1, true) "
+          + "  if separator and tonumber(string.sub(current, 1, separator - 1), 16) "
+          + "      > tonumber(ARGV[1]) then "
+          + "    return 0 "
+          + "  end "
+          + "end "
+          + "redis.call('SET', KEYS[1], ARGV[2], 'EX', ARGV[3]) "
+          + "return 1";
+
+  private final Logger log = LoggerFactory.getLogger(SettingsSharedCacheRepository.class);
+
+  private final StringRedisTemplate redisTemplate;
+  private final ObjectMapper objectMapper;
+  private final Duration ttl;
+
+  private final Counter hitCounter;
+  private final Counter missCounter;
+  private final Counter errorCounter;
+
+  public SettingsSharedCacheRepository(
+      StringRedisTemplate redisTemplate,
+      ObjectMapper objectMapper,
+      @Value("${settings.shared-cache.time-to-live}") long ttl,
+      MeterRegistry meterRegistry) {
+    this.redisTemplate = redisTemplate;
+    this.objectMapper = objectMapper;
+    this.ttl = Duration.ofSeconds(ttl);
+    this.hitCounter = Counter.builder("settings.shared-cache.gets").tag("result", "hit")
+        .description("Settings reads served by the shared cache")
+        .register(meterRegistry);
+    this.missCounter = Counter.builder("settings.shared-cache.gets").tag("result", "miss")
+        .description("Settings reads not found in the shared cache")
+        .register(meterRegistry);
+    this.errorCounter = Counter.builder("settings.shared-cache.errors")
+        .description("Shared cache operations that failed and were skipped")
+        .register(meterRegistry);
+  }
+
+  public VersionedSettings get(UUID keycloakId) {
+    try {
+      var value = redisTemplate.opsForValue().get(key(keycloakId));
+      var settings = value == null ? null : decode(value);
+      return settings == null ? miss() : hit(settings);
+    } catch (RuntimeException | JsonProcessingException exception) {
+      return failedMiss(exception);
+    }
+  }
+
+  public Map<UUID, VersionedSettings> getAll(Collection<UUID> keycloakIds) {
+    var ids = new ArrayList<>(keycloakIds);
+    var found = new HashMap<UUID, VersionedSettings>();
+    try {
+      var values = redisTemplate.opsForValue().multiGet(keys(ids));
+      for (var i = 0; i < ids.size(); i++) {
+        var value = values == null ? null : values.get(i);
+        var settings = value == null ? null : decode(value);
+        if (settings == null) {
+          missCounter.increment();
+        } else {
+          found.put(ids.get(i), hit(settings));
+        }
+      }
+      return found;
+    } catch (RuntimeException | JsonProcessingException exception) {
+      failedMiss(exception);
+      return found;
+    }
+  }
+
+  public void put(UUID keycloakId, VersionedSettings settings) {
+    putAll(Map.of(keycloakId, settings));
+  }
+
+  public void putAll(Map<UUID, VersionedSettings> settings) {
+    if (settings.isEmpty()) {
+      return;
+    }
+    try {
+      var values = new HashMap<String, String[]>();
+      for (var entry : settings.entrySet()) {
+        var versioned = entry.getValue();
+        values.put(key(entry.getKey()), putArgs(versioned.getVersion(), encode(versioned)));
+      }
+      redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+        var stringConnection = (StringRedisConnection) connection;
+        values.forEach((key, args) -> stringConnection.eval(
+            PUT_IF_NOT_OLDER, ReturnType.INTEGER, 1, key, args[0], args[1], args[2]));
+        return null;
+      });
+    } catch (RuntimeException | JsonProcessingException exception) {
+      failedMiss(exception);
+    }
+  }
+
+  public void invalidate(UUID keycloakId, long version) {
+    var args = putArgs(version, tombstone(version));
+    try {
+      redisTemplate.execute((RedisCallback<Object>) connection ->
+          ((StringRedisConnection) connection).eval(PUT_IF_NOT_OLDER, ReturnType.INTEGER, 1,
+              key(keycloakId), args[0], args[1], args[2]));
+    } catch (RuntimeException exception) {
+      errorCounter.increment();
+      log.warn("Failed to invalidate settings in shared cache, entry expires in {}", ttl,
+          exception);
+    }
+  }
+
+  // Runs first among the change listeners: other instances reload from this cache as soon as
+  // they get the invalidation notification
+  @Order(Ordered.HIGHEST_PRECEDENCE)
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onSettingsChanged(SettingsChangedEvent event) {
+    invalidate(event.getKeycloakId(), event.getVersion());
+  }
+
+  static String key(UUID keycloakId) {
+    return String.format(KEY_PATTERN, keycloakId);
+  }
+
+  String encode(VersionedSettings settings) throws JsonProcessingException {
+    return Long.toHexString(settings.getVersion()) + VALUE_SEPARATOR
+        + objectMapper.writeValueAsString(settings.getSettings());
+  }
+
+  // Null for a tombstone
+  VersionedSettings decode(String value) throws JsonProcessingException {
+    var separator = value.indexOf(VALUE_SEPARATOR);
+    if (separator < 0) {
+      throw new IllegalArgumentException("Malformed shared cache value");
+    }
+    var version = Long.parseUnsignedLong(value.substring(0, separator), 16);
+    if (separator == value.length() - 1) {
+      return null;
+    }
+    var settings = objectMapper.readValue(value.substring(separator + 1), SettingsReadDto.class);
+    return new VersionedSettings(settings, version);
+  }
+
+  static String tombstone(long version) {
+    return Long.toHexString(version) + VALUE_SEPARATOR;
+  }
+
+  private String[] putArgs(long version, String value) {
+    return new String[] {Long.toString(version), value, Long.toString(ttl.getSeconds())};
+  }
+
+  private List<String> keys(List<UUID> keycloakIds) {
+    var keys = new ArrayList<String>(keycloakIds.size());
+    keycloakIds.forEach(keycloakId -> keys.add(key(keycloakId)));
+    return keys;
+  }
+
+  private VersionedSettings hit(VersionedSettings settings) {
+    hitCounter.increment();
+    return settings;
+  }
+
+  private VersionedSettings miss() {
+    missCounter.increment();
+    return null;
+  }
+
+  private VersionedSettings failedMiss(Exception exception) {
+    errorCounter.increment();
+    log.warn("Shared settings cache unavailable, falling back to database", exception);
+    return null;
+  }
+}
@@ -0,0 +1,66 @@
+/*
+ *  Copyright 2021 EPAM Systems.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.epam.digital.data.platform.settings.api.resolver;
+
+import com.epam.digital.data.platform.settings.api.model.UserClaims;
+import com.epam.digital.data.platform.settings.api.service.JwtInfoProvider;
+import com.epam.digital.data.platform.settings.api.utils.Header;
+import org.springframework.core.MethodParameter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.MissingRequestHeaderException;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+@Component
+public class UserClaimsArgumentResolver implements HandlerMethodArgumentResolver {
+
+  private static final String USER_CLAIMS_ATTRIBUTE = UserClaims.class.getName();
+
+  private final JwtInfoProvider jwtInfoProvider;
+
+  public UserClaimsArgumentResolver(JwtInfoProvider jwtInfoProvider) {
+    this.jwtInfoProvider = jwtInfoProvider;
+  }
+
+  @Override
+  public boolean supportsParameter(MethodParameter parameter) {
+    return UserClaims.class.equals(parameter.getParameterType());
+  }
+
+  @Override
+  public UserClaims resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+      NativeWebRequest webRequest, WebDataBinderFactory binderFactory)
+      throws MissingRequestHeaderException {
+    var userClaims = (UserClaims) webRequest.getAttribute(
+        USER_CLAIMS_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    if (userClaims != null) {
+      return userClaims;
+    }
+
+    var headerName = Header.X_ACCESS_TOKEN.getHeaderName();
+    var accessToken = webRequest.getHeader(headerName);
+    if (accessToken == null) {
+      throw new MissingRequestHeaderException(headerName, parameter);
+    }
+    userClaims = jwtInfoProvider.getUserClaims(accessToken);
+    webRequest.setAttribute(USER_CLAIMS_ATTRIBUTE, userClaims, RequestAttributes.SCOPE_REQUEST);
+    return userClaims;
+  }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.settings.api.service;
+
+import com.epam.digital.data.platform.settings.api.audit.SettingsAuditFacade;
+import com.epam.digital.data.platform.settings.api.model.BounceEvent;
+import com.epam.digital.data.platform.settings.api.model.ChannelOwner;
+import com.epam.digital.data.platform.settings.api.model.SettingsChangedEvent;
+import com.epam.digital.data.platform.settings.api.repository.ChannelDeactivationRepository;
+import com.epam.digital.data.platform.settings.model.dto.Channel;
+import com.epam.digital.data.platform.settings.model.dto.SettingsDeactivateChannelInputDto;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Service
+public class BounceDeactivationService {
+
+  private final Logger log = LoggerFactory.getLogger(BounceDeactivationService.class);
+
+  private final ChannelDeactivationRepository channelDeactivationRepository;
+  private final SettingsCacheService settingsCacheService;
+  private final SettingsAuditFacade auditFacade;
+  private final TransactionTemplate transactionTemplate;
+  private final ApplicationEventPublisher eventPublisher;
+
+  public BounceDeactivationService(
+      ChannelDeactivationRepository channelDeactivationRepository,
+      SettingsCacheService settingsCacheService,
+      SettingsAuditFacade auditFacade,
+      PlatformTransactionManager transactionManager,
+      ApplicationEventPublisher eventPublisher) {
+    this.channelDeactivationRepository = channelDeactivationRepository;
+    this.settingsCacheService = settingsCacheService;
+    this.auditFacade = auditFacade;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.eventPublisher = eventPublisher;
+  }
+
+  public List<ChannelOwner> deactivate(Collection<BounceEvent> bounces) {
+    // The last bounce of an address wins, both for the stored reason and for the audit
+    var latest = new LinkedHashMap<String, BounceEvent>();
+    for (var bounce : bounces) {
+      latest.put(bounce.getAddress(), bounce);
+    }
+    if (latest.isEmpty()) {
+      return List.of();
+    }
+    var addresses = new ArrayList<String>(latest.size());
+    var reasons = new ArrayList<String>(latest.size());
+    latest.forEach((address, bounce) -> {
+      addresses.add(address);
+      reasons.add(bounce.getReason());
+    });
+    var deactivated = transactionTemplate.execute(status -> {
+      var channels = channelDeactivationRepository.deactivateEmailChannels(addresses, reasons);
+      var owners = new ArrayList<ChannelOwner>(channels.size());
+      // Published inside the transaction, so the event outbox rows commit with the change
+      for (var channel : channels) {
+        var owner = channel.getOwner();
+        eventPublisher.publishEvent(new SettingsChangedEvent(owner.getKeycloakId(),
+            Channel.EMAIL, false, owner.getAddress(), channel.getVersion()));
+        owners.add(owner);
+      }
+      return owners;
+    });
+    for (var owner : deactivated) {
+      settingsCacheService.invalidate(owner.getKeycloakId());
+      var bounce = latest.get(owner.getAddress());
+      var input = new SettingsDeactivateChannelInputDto();
+      input.setAddress(owner.getAddress());
+      input.setDeactivationReason(bounce.getReason());
+      auditFacade.sendBounceDeactivationAudit(Channel.EMAIL, input, bounce.getSource());
+    }
+    log.info("Deactivated {} of {} bounced email addresses", deactivated.size(), latest.size());
+    return deactivated;
+  }
+}
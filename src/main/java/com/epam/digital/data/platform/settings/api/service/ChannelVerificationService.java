@@ -16,6 +16,7 @@
 
 package com.epam.digital.data.platform.settings.api.service;
 
+import com.epam.digital.data.platform.settings.api.model.UserClaims;
 import com.epam.digital.data.platform.settings.model.dto.Channel;
 import com.epam.digital.data.platform.settings.model.dto.VerificationCodeExpirationDto;
 import com.epam.digital.data.platform.settings.model.dto.VerificationInputDto;
@@ -23,7 +24,7 @@ import com.epam.digital.data.platform.settings.model.dto.VerificationInputDto;
 public interface ChannelVerificationService {
 
   VerificationCodeExpirationDto sendVerificationCode(
-      Channel channel, VerificationInputDto input, String accessToken);
+      Channel channel, VerificationInputDto input, UserClaims userClaims);
 
-  boolean verify(Channel channel, String accessToken, String verificationCode, String address);
+  boolean verify(Channel channel, UserClaims userClaims, String verificationCode, String address);
 }
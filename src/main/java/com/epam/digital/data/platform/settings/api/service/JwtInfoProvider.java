@@ -16,37 +16,124 @@
 
 package com.epam.digital.data.platform.settings.api.service;
 
-import java.util.List;
-
+import com.epam.digital.data.platform.settings.api.model.UserClaims;
+import com.epam.digital.data.platform.starter.security.dto.JwtClaimsDto;
 import com.epam.digital.data.platform.starter.security.jwt.TokenParser;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 @Component
 public class JwtInfoProvider {
 
+  static final String CACHE_NAME = "jwt-claims";
+
+  private static final String DIGEST_ALGORITHM = "SHA-256";
+
   private final TokenParser tokenParser;
+  private final Clock clock;
+  private final Duration maxTimeToLive;
+  private final Cache<String, CachedClaims> cache;
 
-  public JwtInfoProvider(TokenParser tokenParser) {
+  public JwtInfoProvider(
+      TokenParser tokenParser,
+      Clock clock,
+      MeterRegistry meterRegistry,
+      @Value("${jwt.claims-cache.enabled}") boolean cacheEnabled,
+      @Value("${jwt.claims-cache.max-size}") long maxSize,
+      @Value("${jwt.claims-cache.max-time-to-live}") long maxTimeToLive) {
     this.tokenParser = tokenParser;
+    this.clock = clock;
+    this.maxTimeToLive = Duration.ofSeconds(maxTimeToLive);
+    if (cacheEnabled) {
+      this.cache = Caffeine.newBuilder()
+          .maximumSize(maxSize)
+          .expireAfter(new TokenExpiry())
+          .recordStats()
+          .build();
+      CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    } else {
+      this.cache = null;
+    }
+  }
+
+  public UserClaims getUserClaims(String accessToken) {
+    if (cache == null) {
+      return toUserClaims(tokenParser.parseClaims(accessToken));
+    }
+    return cache.get(digest(accessToken), key -> loadClaims(accessToken)).getUserClaims();
+  }
+
+  private CachedClaims loadClaims(String accessToken) {
+    var jwtClaims = tokenParser.parseClaims(accessToken);
+    var timeToLive = maxTimeToLive.toMillis();
+    var expiration = jwtClaims.getExp();
+    if (expiration != null) {
+      timeToLive = Math.min(timeToLive, expiration.getTime() - clock.millis());
+    }
+    return new CachedClaims(toUserClaims(jwtClaims), Math.max(timeToLive, 0));
   }
 
-  public String getUserId(String accessToken) {
-    var userClaims = tokenParser.parseClaims(accessToken);
-    return userClaims.getSubject();
+  private static UserClaims toUserClaims(JwtClaimsDto jwtClaims) {
+    return new UserClaims(
+        jwtClaims.getSubject(),
+        jwtClaims.getPreferredUsername(),
+        jwtClaims.getDrfo(),
+        jwtClaims.getRoles());
   }
-  
-  public String getUsername(String accessToken) {
-    var userClaims = tokenParser.parseClaims(accessToken);
-    return userClaims.getPreferredUsername();
+
+  private static String digest(String accessToken) {
+    try {
+      var hash = MessageDigest.getInstance(DIGEST_ALGORITHM)
+          .digest(accessToken.getBytes(StandardCharsets.UTF_8));
+      return Base64.getEncoder().encodeToString(hash);
+    } catch (NoSuchAlgorithmException exception) {
+      throw new IllegalStateException(exception);
+    }
   }
 
-  public String getDrfo(String accessToken) {
-    var userClaims = tokenParser.parseClaims(accessToken);
-    return userClaims.getDrfo();
+  private static class CachedClaims {
+
+    private final UserClaims userClaims;
+    private final long timeToLiveMillis;
+
+    CachedClaims(UserClaims userClaims, long timeToLiveMillis) {
+      this.userClaims = userClaims;
+      this.timeToLiveMillis = timeToLiveMillis;
+    }
+
+    UserClaims getUserClaims() {
+      return userClaims;
+    }
   }
 
-  public List<String> getUserRoles(String accessToken) {
-    var userClaims = tokenParser.parseClaims(accessToken);
-    return userClaims.getRoles();
+  private static class TokenExpiry implements Expiry<String, CachedClaims> {
+
+    @Override
+    public long expireAfterCreate(String key, CachedClaims value, long currentTime) {
+      return Duration.ofMillis(value.timeToLiveMillis).toNanos();
+    }
+
+    @Override
+    public long expireAfterUpdate(
+        String key, CachedClaims value, long currentTime, long currentDuration) {
+      return Duration.ofMillis(value.timeToLiveMillis).toNanos();
+    }
+
+    @Override
+    public long expireAfterRead(
+        String key, CachedClaims value, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
   }
 }
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.settings.api.service;
+
+import com.epam.digital.data.platform.settings.api.model.NotificationOutboxEntry;
+import com.epam.digital.data.platform.settings.api.repository.NotificationOutboxRepository;
+import com.epam.digital.data.platform.settings.api.repository.OtpRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(value = "spring.redis.enabled", matchIfMissing = true)
+public class NotificationOutboxRelay extends OutboxRelay<NotificationOutboxEntry> {
+
+  private final NotificationService notificationService;
+  private final OtpRepository otpRepository;
+  private final Counter expiredCounter;
+
+  public NotificationOutboxRelay(
+      NotificationOutboxRepository outboxRepository,
+      NotificationService notificationService,
+      OtpRepository otpRepository,
+      Clock clock,
+      MeterRegistry meterRegistry,
+      @Value("${notification.outbox.batch-size}") int batchSize,
+      @Value("${notification.outbox.max-attempts}") int maxAttempts,
+      @Value("${notification.outbox.retry-backoff}") long retryBackoff,
+      @Value("${notification.outbox.max-retry-backoff}") long maxRetryBackoff,
+      @Value("${notification.outbox.lease}") long lease) {
+    super("notification.outbox", outboxRepository, clock, meterRegistry, batchSize, maxAttempts,
+        Duration.ofMillis(retryBackoff), Duration.ofMillis(maxRetryBackoff),
+        Duration.ofMillis(lease));
+    this.notificationService = notificationService;
+    this.otpRepository = otpRepository;
+    this.expiredCounter = Counter.builder("notification.outbox.expired")
+        .description("Outbox notifications dropped because their code expired or was replaced")
+        .register(meterRegistry);
+  }
+
+  @Scheduled(fixedDelayString = "${notification.outbox.poll-interval}")
+  public void relay() {
+    relayDue();
+  }
+
+  @Override
+  protected boolean deliver(NotificationOutboxEntry entry) {
+    var otp = otpRepository.find(entry.getOtpId());
+    if (otp == null || !entry.getAddress().equals(otp.getAddress())) {
+      expiredCounter.increment();
+      return false;
+    }
+    notificationService.deliver(entry, otp.getVerificationCode());
+    return true;
+  }
+}
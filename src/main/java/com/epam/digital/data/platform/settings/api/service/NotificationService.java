@@ -21,8 +21,12 @@ import com.epam.digital.data.platform.notification.dto.NotificationContextDto;
 import com.epam.digital.data.platform.notification.dto.Recipient;
 import com.epam.digital.data.platform.notification.dto.UserNotificationDto;
 import com.epam.digital.data.platform.notification.dto.UserNotificationMessageDto;
+import com.epam.digital.data.platform.settings.api.model.NotificationOutboxEntry;
+import com.epam.digital.data.platform.settings.api.repository.NotificationOutboxRepository;
 import com.epam.digital.data.platform.settings.model.dto.Channel;
 import com.epam.digital.data.platform.starter.notifications.facade.UserNotificationFacade;
+import java.time.Clock;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import org.springframework.beans.factory.annotation.Value;
@@ -35,11 +39,17 @@ public class NotificationService {
       Map.of(Channel.EMAIL, "Підтвердження електронної пошти",
           Channel.DIIA, "Підтвердження каналу зв'язку реєстру");
   private final UserNotificationFacade notificationFacade;
+  private final NotificationOutboxRepository outboxRepository;
+  private final Clock clock;
   private final String applicationName;
 
   public NotificationService(UserNotificationFacade notificationFacade,
+      NotificationOutboxRepository outboxRepository,
+      Clock clock,
       @Value("${spring.application.name}") String applicationName) {
     this.notificationFacade = notificationFacade;
+    this.outboxRepository = outboxRepository;
+    this.clock = clock;
     this.applicationName = applicationName;
   }
 
@@ -47,14 +57,24 @@ public class NotificationService {
       Channel channel,
       String address,
       String username,
-      String otpCode,
+      String otpId,
       Recipient.RecipientRealm realm) {
+    outboxRepository.insert(
+        channel.name(),
+        address,
+        username,
+        otpId,
+        realm == null ? null : realm.name(),
+        LocalDateTime.now(clock));
+  }
 
+  public void deliver(NotificationOutboxEntry entry, String verificationCode) {
+    var channel = entry.getChannel();
     List<Recipient> recipients = List.of(Recipient.builder()
-        .id(username)
-        .channels(List.of(getChannelObject(channel, address)))
-        .parameters(Map.of("verificationCode", otpCode))
-        .realm(realm)
+        .id(entry.getUsername())
+        .channels(List.of(getChannelObject(channel, entry.getAddress())))
+        .parameters(Map.of("verificationCode", verificationCode))
+        .realm(entry.getRealm())
         .build());
 
     var notificationMessageDto = UserNotificationMessageDto
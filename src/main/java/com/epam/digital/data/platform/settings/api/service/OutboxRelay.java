@@ -0,0 +1,202 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.settings.api.service;
+
+import com.epam.digital.data.platform.settings.api.model.OutboxEntry;
+import com.epam.digital.data.platform.settings.api.repository.OutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Delivers outbox rows outside of any database transaction. A failed row is retried with
+ * exponential backoff. An unordered relay dead-letters a row after {@code maxAttempts}, so it
+ * never blocks the rows behind it. An ordered relay retries a row until it is delivered, and its
+ * repository only hands out the oldest pending row of each key, so the rows behind it wait.
+ * Its rows share one destination, so it also stops at the first failure and gives the rest of
+ * the batch back instead of waiting for the same failure on every row.
+ */
+public abstract class OutboxRelay<E extends OutboxEntry> {
+
+  private static final int MAX_ERROR_LENGTH = 1000;
+
+  private final Logger log = LoggerFactory.getLogger(getClass());
+
+  private final OutboxRepository<E> outboxRepository;
+  private final Clock clock;
+  private final int batchSize;
+  private final boolean ordered;
+  private final int maxAttempts;
+  private final Duration retryBackoff;
+  private final Duration maxRetryBackoff;
+  private final Duration lease;
+  private final Counter failureCounter;
+  private final Counter deadLetterCounter;
+
+  /**
+   * Creates an unordered relay that dead-letters a row after {@code maxAttempts}.
+   */
+  protected OutboxRelay(
+      String metricPrefix,
+      OutboxRepository<E> outboxRepository,
+      Clock clock,
+      MeterRegistry meterRegistry,
+      int batchSize,
+      int maxAttempts,
+      Duration retryBackoff,
+      Duration maxRetryBackoff,
+      Duration lease) {
+    this(metricPrefix, outboxRepository, clock, meterRegistry, batchSize, false, maxAttempts,
+        retryBackoff, maxRetryBackoff, lease);
+  }
+
+  /**
+   * Creates an ordered relay that never gives up on a row. The repository must be an ordered
+   * one, so that the rows of a key are claimed one at a time.
+   */
+  protected OutboxRelay(
+      String metricPrefix,
+      OutboxRepository<E> outboxRepository,
+      Clock clock,
+      MeterRegistry meterRegistry,
+      int batchSize,
+      Duration retryBackoff,
+      Duration maxRetryBackoff,
+      Duration lease) {
+    this(metricPrefix, outboxRepository, clock, meterRegistry, batchSize, true, 0,
+        retryBackoff, maxRetryBackoff, lease);
+  }
+
+  private OutboxRelay(
+      String metricPrefix,
+      OutboxRepository<E> outboxRepository,
+      Clock clock,
+      MeterRegistry meterRegistry,
+      int batchSize,
+      boolean ordered,
+      int maxAttempts,
+      Duration retryBackoff,
+      Duration maxRetryBackoff,
+      Duration lease) {
+    this.outboxRepository = outboxRepository;
+    this.clock = clock;
+    this.batchSize = batchSize;
+    this.ordered = ordered;
+    this.maxAttempts = maxAttempts;
+    this.retryBackoff = retryBackoff;
+    this.maxRetryBackoff = maxRetryBackoff;
+    this.lease = lease;
+    this.failureCounter = Counter.builder(metricPrefix + ".failures")
+        .description("Outbox deliveries that failed and were rescheduled or dead-lettered")
+        .register(meterRegistry);
+    this.deadLetterCounter = Counter.builder(metricPrefix + ".dead-lettered")
+        .description("Outbox rows given up on after reaching the attempt limit")
+        .register(meterRegistry);
+    Gauge.builder(metricPrefix + ".oldest.age", this, OutboxRelay::oldestPendingAgeSeconds)
+        .description("Age of the oldest outbox row that is still waiting for delivery")
+        .baseUnit("seconds")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Delivers the entry, throwing to have it retried. Returns false when the entry is obsolete
+   * and should be removed without delivery.
+   */
+  protected abstract boolean deliver(E entry);
+
+  protected void relayDue() {
+    int claimed;
+    var failed = false;
+    do {
+      var now = LocalDateTime.now(clock);
+      var batch = outboxRepository.claim(batchSize, now, now.plus(lease));
+      claimed = batch.size();
+      var doneIds = new ArrayList<UUID>(claimed);
+      for (var i = 0; i < claimed && !failed; i++) {
+        if (tryDeliver(batch.get(i))) {
+          doneIds.add(batch.get(i).getId());
+        } else if (ordered) {
+          failed = true;
+          release(batch.subList(i + 1, claimed));
+        }
+      }
+      if (!doneIds.isEmpty()) {
+        outboxRepository.deleteByIds(doneIds);
+      }
+    } while (!failed && claimed == batchSize);
+  }
+
+  private void release(List<E> entries) {
+    if (entries.isEmpty()) {
+      return;
+    }
+    var ids = entries.stream().map(OutboxEntry::getId).collect(Collectors.toList());
+    outboxRepository.release(ids, LocalDateTime.now(clock).plus(retryBackoff));
+    log.info("Stopped outbox batch after a failure, released {} entries", ids.size());
+  }
+
+  private boolean tryDeliver(E entry) {
+    try {
+      if (!deliver(entry)) {
+        log.info("Dropping obsolete outbox entry {}", entry.getId());
+      }
+      return true;
+    } catch (RuntimeException exception) {
+      failureCounter.increment();
+      var now = LocalDateTime.now(clock);
+      var lastError = truncate(String.valueOf(exception));
+      if (!ordered && entry.getAttempts() >= maxAttempts) {
+        deadLetterCounter.increment();
+        log.error("Outbox entry {} failed {} times, dead-lettering it", entry.getId(),
+            entry.getAttempts(), exception);
+        outboxRepository.deadLetter(entry.getId(), lastError, now);
+      } else {
+        var nextAttemptAt = now.plus(backoff(entry.getAttempts()));
+        log.warn("Outbox entry {} failed, retrying at {}", entry.getId(), nextAttemptAt,
+            exception);
+        outboxRepository.reschedule(entry.getId(), lastError, nextAttemptAt);
+      }
+      return false;
+    }
+  }
+
+  Duration backoff(int attempts) {
+    var shift = Math.min(attempts - 1, 30);
+    var backoff = retryBackoff.multipliedBy(1L << Math.max(shift, 0));
+    return backoff.compareTo(maxRetryBackoff) > 0 ? maxRetryBackoff : backoff;
+  }
+
+  private double oldestPendingAgeSeconds() {
+    return outboxRepository.findOldestPendingCreatedAt()
+        .map(oldest -> Math.max(0L, Duration.between(oldest, LocalDateTime.now(clock))
+            .toMillis()) / 1000.0)
+        .orElse(0.0);
+  }
+
+  private static String truncate(String error) {
+    return error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+  }
+}
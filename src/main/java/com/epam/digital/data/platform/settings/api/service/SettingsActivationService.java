@@ -19,17 +19,23 @@ package com.epam.digital.data.platform.settings.api.service;
 import com.epam.digital.data.platform.settings.api.audit.SettingsAuditFacade;
 import com.epam.digital.data.platform.settings.api.exception.ChannelVerificationException;
 import com.epam.digital.data.platform.settings.api.model.Settings;
+import com.epam.digital.data.platform.settings.api.model.SettingsChangedEvent;
+import com.epam.digital.data.platform.settings.api.model.UserClaims;
+import com.epam.digital.data.platform.settings.api.model.VersionedSettings;
 import com.epam.digital.data.platform.settings.api.repository.NotificationChannelRepository;
 import com.epam.digital.data.platform.settings.api.repository.SettingsRepository;
 import com.epam.digital.data.platform.settings.model.dto.ActivateChannelInputDto;
 import com.epam.digital.data.platform.settings.model.dto.Channel;
 import com.epam.digital.data.platform.settings.model.dto.SettingsDeactivateChannelInputDto;
-import java.time.LocalDateTime;
+import java.sql.Timestamp;
 import java.util.UUID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 public class SettingsActivationService {
@@ -38,53 +44,57 @@ public class SettingsActivationService {
 
   private final NotificationChannelRepository channelRepository;
   private final SettingsRepository settingsRepository;
-  private final JwtInfoProvider jwtInfoProvider;
   private final SettingsAuditFacade auditFacade;
   private final ChannelVerificationService channelVerificationService;
   private final UserRoleVerifierService userRoleVerifierService;
+  private final SettingsCacheService settingsCacheService;
+  private final ApplicationEventPublisher eventPublisher;
+  private final TransactionTemplate transactionTemplate;
 
   public SettingsActivationService(
       NotificationChannelRepository channelRepository,
       SettingsRepository settingsRepository,
-      JwtInfoProvider jwtInfoProvider,
       SettingsAuditFacade auditFacade,
       ChannelVerificationService channelVerificationService,
-      UserRoleVerifierService userRoleVerifierService) {
+      UserRoleVerifierService userRoleVerifierService,
+      SettingsCacheService settingsCacheService,
+      ApplicationEventPublisher eventPublisher,
+      PlatformTransactionManager transactionManager) {
     this.channelRepository = channelRepository;
     this.settingsRepository = settingsRepository;
-    this.jwtInfoProvider = jwtInfoProvider;
     this.auditFacade = auditFacade;
     this.channelVerificationService = channelVerificationService;
     this.userRoleVerifierService = userRoleVerifierService;
+    this.settingsCacheService = settingsCacheService;
+    this.eventPublisher = eventPublisher;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
   }
 
-  public void activateChannel(ActivateChannelInputDto input, Channel channel, String accessToken) {
-    if (!userRoleVerifierService.verify(channel, accessToken)) {
+  public void activateChannel(
+      ActivateChannelInputDto input, Channel channel, UserClaims userClaims) {
+    if (!userRoleVerifierService.verify(channel, userClaims)) {
       auditFacade.sendActivationAuditOnFailure(channel, input, "User role verification failed");
       throw new AccessDeniedException("Invalid user role for activate operation");
     }
 
     boolean successfullyVerified =
         channelVerificationService.verify(
-            channel, accessToken, input.getVerificationCode(), input.getAddress());
+            channel, userClaims, input.getVerificationCode(), input.getAddress());
     if (!successfullyVerified) {
       auditFacade.sendActivationAuditOnFailure(
           channel, input, "Communication channel verification failed");
       throw new ChannelVerificationException("Communication channel verification failed");
     }
-    var settings = getSettingsFromToken(accessToken);
-    var notificationChannel =
-        channelRepository.findBySettingsIdAndChannel(settings.getId(), channel);
+    var settings = getSettingsOfUser(userClaims);
 
     try {
-      if (notificationChannel.isPresent()) {
-        log.info("Activation of existing {} channel", channel.getValue());
-        channelRepository.activateChannel(
-            notificationChannel.get().getId(), input.getAddress(), LocalDateTime.now());
-      } else {
-        log.info("Creation of activated {} channel", channel.getValue());
-        channelRepository.create(settings.getId(), channel, input.getAddress(), true, null);
-      }
+      log.info("Activation of {} channel", channel.getValue());
+      transactionTemplate.executeWithoutResult(status -> {
+        var updatedAt = channelRepository.upsertActivatedChannel(
+            settings.getId(), channel, input.getAddress());
+        publishChanged(settings, channel, true, input.getAddress(), updatedAt);
+      });
+      settingsCacheService.invalidate(settings.getKeycloakId());
       auditFacade.sendActivationAuditOnSuccess(channel, input);
     } catch (RuntimeException exception) {
       auditFacade.sendActivationAuditOnFailure(channel, input, exception.getMessage());
@@ -93,33 +103,25 @@ public class SettingsActivationService {
   }
 
   public void deactivateChannel(
-      Channel channel, SettingsDeactivateChannelInputDto input, String accessToken) {
+      Channel channel, SettingsDeactivateChannelInputDto input, UserClaims userClaims) {
 
-    if (!userRoleVerifierService.verify(channel, accessToken)) {
+    if (!userRoleVerifierService.verify(channel, userClaims)) {
       auditFacade.sendDeactivationAuditOnFailure(channel, input, "User role verification failed");
       throw new AccessDeniedException("Invalid user role for deactivate operation");
     }
 
-    var settings = getSettingsFromToken(accessToken);
-    var notificationChannel =
-        channelRepository.findBySettingsIdAndChannel(settings.getId(), channel);
+    var settings = getSettingsOfUser(userClaims);
     try {
-      if (notificationChannel.isPresent()) {
-        log.info("Deactivation of existing channel {}", channel);
-        var address =
-            input.getAddress() == null
-                ? notificationChannel.get().getAddress()
-                : input.getAddress();
-        channelRepository.deactivateChannel(
-            notificationChannel.get().getId(),
-            address,
-            input.getDeactivationReason(),
-            LocalDateTime.now());
-      } else {
-        log.info("Creation of deactivated {} channel", channel);
-        channelRepository.create(
-            settings.getId(), channel, input.getAddress(), false, input.getDeactivationReason());
-      }
+      log.info("Deactivation of {} channel", channel);
+      transactionTemplate.executeWithoutResult(status -> {
+        var updatedAt = channelRepository.upsertDeactivatedChannel(
+            settings.getId(),
+            channel,
+            input.getAddress(),
+            input.getDeactivationReason());
+        publishChanged(settings, channel, false, input.getAddress(), updatedAt);
+      });
+      settingsCacheService.invalidate(settings.getKeycloakId());
       auditFacade.sendDeactivationAuditOnSuccess(channel, input);
     } catch (RuntimeException exception) {
       auditFacade.sendDeactivationAuditOnFailure(channel, input, exception.getMessage());
@@ -127,8 +129,14 @@ public class SettingsActivationService {
     }
   }
 
-  private Settings getSettingsFromToken(String accessToken) {
-    var userKeycloakId = jwtInfoProvider.getUserId(accessToken);
-    return settingsRepository.getByKeycloakId(UUID.fromString(userKeycloakId));
+  // Published inside the transaction of the change, so the event outbox row commits with it
+  private void publishChanged(Settings settings, Channel channel, boolean activated,
+      String address, Timestamp updatedAt) {
+    eventPublisher.publishEvent(new SettingsChangedEvent(settings.getKeycloakId(), channel,
+        activated, address, VersionedSettings.toVersion(updatedAt)));
+  }
+
+  private Settings getSettingsOfUser(UserClaims userClaims) {
+    return settingsRepository.getByKeycloakId(UUID.fromString(userClaims.getUserId()));
   }
 }
@@ -0,0 +1,93 @@
+/*
+ *  Copyright 2021 EPAM Systems.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.epam.digital.data.platform.settings.api.service;
+
+import com.epam.digital.data.platform.settings.api.model.VersionedSettings;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+@Service
+public class SettingsCacheService {
+
+  static final String CACHE_NAME = "user-settings";
+
+  private final Cache<UUID, VersionedSettings> cache;
+  // Bumped before every invalidation, lets a bulk load detect a write that raced with it
+  private final AtomicLong invalidations = new AtomicLong();
+
+  public SettingsCacheService(
+      @Value("${settings.cache.time-to-live}") long ttl,
+      @Value("${settings.cache.max-size}") long maxSize,
+      MeterRegistry meterRegistry) {
+    this.cache = Caffeine.newBuilder()
+        .expireAfterWrite(Duration.ofSeconds(ttl))
+        .maximumSize(maxSize)
+        .recordStats()
+        .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+  }
+
+  public VersionedSettings getIfPresent(UUID keycloakId) {
+    return cache.getIfPresent(keycloakId);
+  }
+
+  public VersionedSettings get(UUID keycloakId, Function<UUID, VersionedSettings> loader) {
+    return cache.get(keycloakId, loader);
+  }
+
+  public Map<UUID, VersionedSettings> getAll(Collection<UUID> keycloakIds,
+      Function<Set<UUID>, Map<UUID, VersionedSettings>> loader) {
+    var generation = invalidations.get();
+    var loadedKeys = new HashSet<UUID>();
+    var settings = cache.getAll(keycloakIds, missing -> {
+      var missingIds = new LinkedHashSet<UUID>();
+      missing.forEach(missingIds::add);
+      var loaded = loader.apply(missingIds);
+      loadedKeys.addAll(loaded.keySet());
+      return loaded;
+    });
+    // Unlike a single key load, a bulk load is not atomic with invalidate. Whatever it loaded
+    // may predate a write that invalidated the cache meanwhile, so it is dropped again
+    if (!loadedKeys.isEmpty() && invalidations.get() != generation) {
+      cache.invalidateAll(loadedKeys);
+    }
+    return settings;
+  }
+
+  public void invalidate(UUID keycloakId) {
+    invalidations.incrementAndGet();
+    cache.invalidate(keycloakId);
+  }
+
+  public void invalidateAll() {
+    invalidations.incrementAndGet();
+    cache.invalidateAll();
+  }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.settings.api.service;
+
+import com.epam.digital.data.platform.settings.api.model.SettingsChangedEvent;
+import com.epam.digital.data.platform.settings.api.repository.SettingsEventOutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Writes settings changed events to the outbox in the transaction of the change itself, they
+ * are sent to Kafka by {@link SettingsEventOutboxRelay}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "settings.events", name = "enabled", havingValue = "true")
+public class SettingsChangedEventPublisher {
+
+  private final SettingsEventOutboxRepository outboxRepository;
+  private final ObjectMapper objectMapper;
+  private final Clock clock;
+
+  public SettingsChangedEventPublisher(
+      SettingsEventOutboxRepository outboxRepository,
+      ObjectMapper objectMapper,
+      Clock clock) {
+    this.outboxRepository = outboxRepository;
+    this.objectMapper = objectMapper;
+    this.clock = clock;
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+  public void publish(SettingsChangedEvent event) {
+    String payload;
+    try {
+      payload = objectMapper.writeValueAsString(event);
+    } catch (JsonProcessingException exception) {
+      throw new IllegalStateException("Failed to serialize settings changed event", exception);
+    }
+    outboxRepository.insert(event.getKeycloakId(), payload, LocalDateTime.now(clock));
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ *  Copyright 2021 EPAM Systems.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.epam.digital.data.platform.settings.api.service;
+
+import com.epam.digital.data.platform.settings.api.config.KafkaConnectionProperties;
+import com.epam.digital.data.platform.settings.api.model.SettingsEventOutboxEntry;
+import com.epam.digital.data.platform.settings.api.repository.SettingsEventOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import javax.annotation.PreDestroy;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerProducerListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(prefix = "settings.events", name = "enabled", havingValue = "true")
+public class SettingsEventOutboxRelay extends OutboxRelay<SettingsEventOutboxEntry> {
+
+  private final DefaultKafkaProducerFactory<String, String> producerFactory;
+  private final KafkaTemplate<String, String> kafkaTemplate;
+  private final String topic;
+  private final long sendTimeout;
+  private final Counter publishedCounter;
+
+  public SettingsEventOutboxRelay(
+      SettingsEventOutboxRepository outboxRepository,
+      KafkaConnectionProperties kafkaConnectionProperties,
+      Clock clock,
+      MeterRegistry meterRegistry,
+      @Value("${settings.events.topic}") String topic,
+      @Value("${settings.events.max-block}") long maxBlock,
+      @Value("${settings.events.send-timeout}") long sendTimeout,
+      @Value("${settings.events.outbox.batch-size}") int batchSize,
+      @Value("${settings.events.outbox.retry-backoff}") long retryBackoff,
+      @Value("${settings.events.outbox.max-retry-backoff}") long maxRetryBackoff,
+      @Value("${settings.events.outbox.lease}") long lease) {
+    // Ordered, so that consumers see the events of one user in the order of the changes
+    super("settings.events.outbox", outboxRepository, clock, meterRegistry, batchSize,
+        Duration.ofMillis(retryBackoff), Duration.ofMillis(maxRetryBackoff),
+        Duration.ofMillis(lease));
+    var props = kafkaConnectionProperties.buildClientProperties();
+    props.put(ProducerConfig.ACKS_CONFIG, "all");
+    props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+    props.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, maxBlock);
+    // Not exposed as a bean, so that the auto-configured producer factory is left in place
+    this.producerFactory = new DefaultKafkaProducerFactory<>(
+        props, new StringSerializer(), new StringSerializer());
+    this.producerFactory.addListener(new MicrometerProducerListener<>(meterRegistry));
+    this.kafkaTemplate = new KafkaTemplate<>(producerFactory);
+    this.topic = topic;
+    this.sendTimeout = sendTimeout;
+    this.publishedCounter = Counter.builder("settings.events.published")
+        .description("Settings changed events acknowledged by Kafka")
+        .register(meterRegistry);
+  }
+
+  @Scheduled(fixedDelayString = "${settings.events.outbox.poll-interval}")
+  public void relay() {
+    relayDue();
+  }
+
+  @Override
+  protected boolean deliver(SettingsEventOutboxEntry entry) {
+    try {
+      kafkaTemplate.send(topic, entry.getKeycloakId().toString(), entry.getPayload())
+          .get(sendTimeout, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while publishing settings changed event",
+          exception);
+    } catch (ExecutionException | TimeoutException exception) {
+      throw new IllegalStateException("Failed to publish settings changed event", exception);
+    }
+    publishedCounter.increment();
+    return true;
+  }
+
+  @PreDestroy
+  public void close() {
+    producerFactory.destroy();
+  }
+}
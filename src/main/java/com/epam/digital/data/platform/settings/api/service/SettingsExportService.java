@@ -0,0 +1,177 @@
+/*
+ *  Copyright 2021 EPAM Systems.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.epam.digital.data.platform.settings.api.service;
+
+import com.epam.digital.data.platform.settings.api.model.UserClaims;
+import com.epam.digital.data.platform.settings.api.repository.SettingsExportRepository;
+import com.epam.digital.data.platform.settings.model.dto.Channel;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Service
+public class SettingsExportService {
+
+  private final Logger log = LoggerFactory.getLogger(SettingsExportService.class);
+
+  private final SettingsExportRepository settingsExportRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final ObjectMapper objectMapper;
+  private final Set<String> exportRoles;
+  private final int pageSize;
+
+  public SettingsExportService(
+      SettingsExportRepository settingsExportRepository,
+      PlatformTransactionManager transactionManager,
+      ObjectMapper objectMapper,
+      @Value("${settings.export.roles}") List<String> exportRoles,
+      @Value("${settings.export.page-size}") int pageSize) {
+    this.settingsExportRepository = settingsExportRepository;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setReadOnly(true);
+    this.objectMapper = objectMapper;
+    this.exportRoles = Set.copyOf(exportRoles);
+    this.pageSize = pageSize;
+  }
+
+  public void verifyExportAllowed(UserClaims userClaims) {
+    var userRoles = userClaims.getRoles();
+    if (Objects.isNull(userRoles) || userRoles.stream().noneMatch(exportRoles::contains)) {
+      throw new AccessDeniedException("Invalid user role for export operation");
+    }
+  }
+
+  public void exportSettings(OutputStream outputStream) throws IOException {
+    try (var generator = objectMapper.getFactory().createGenerator(outputStream)) {
+      generator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+      UUID after = null;
+      var exported = 0L;
+      PageReader page;
+      do {
+        page = readPage(after);
+        page.buffer.serialize(generator);
+        generator.flush();
+        exported += page.settingsCount;
+        after = page.lastSettingsId;
+      } while (page.settingsCount == pageSize);
+      if (exported > 0) {
+        generator.writeRaw('\n');
+      }
+      log.info("Exported {} user settings", exported);
+    }
+  }
+
+  /**
+   * Reads the page into memory, so the connection is returned to the pool before the page is
+   * written to a possibly slow client.
+   */
+  private PageReader readPage(UUID after) throws IOException {
+    var page = new PageReader(new TokenBuffer(objectMapper, false));
+    try {
+      transactionTemplate.executeWithoutResult(status ->
+          settingsExportRepository.findPage(after, pageSize, page));
+    } catch (UncheckedIOException exception) {
+      throw exception.getCause();
+    }
+    page.finish();
+    return page;
+  }
+
+  private static final class PageReader implements RowCallbackHandler {
+
+    private final TokenBuffer buffer;
+    private UUID lastSettingsId;
+    private int settingsCount;
+    private boolean settingsOpen;
+
+    private PageReader(TokenBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public void processRow(ResultSet rs) throws SQLException {
+      try {
+        var settingsId = rs.getObject("settings_id", UUID.class);
+        if (!settingsId.equals(lastSettingsId)) {
+          finish();
+          startSettings(settingsId, rs.getObject("keycloak_id", UUID.class));
+        }
+        var channel = rs.getString("channel");
+        if (channel != null) {
+          writeChannel(rs, channel);
+        }
+      } catch (IOException exception) {
+        throw new UncheckedIOException(exception);
+      }
+    }
+
+    private void startSettings(UUID settingsId, UUID keycloakId) throws IOException {
+      lastSettingsId = settingsId;
+      settingsCount++;
+      settingsOpen = true;
+      buffer.writeStartObject();
+      buffer.writeStringField("settingsId", settingsId.toString());
+      buffer.writeStringField("keycloakId", keycloakId.toString());
+      buffer.writeArrayFieldStart("channels");
+    }
+
+    private void writeChannel(ResultSet rs, String channel) throws SQLException, IOException {
+      buffer.writeStartObject();
+      buffer.writeStringField("channel", Channel.valueOf(channel).getValue());
+      buffer.writeBooleanField("activated", rs.getBoolean("is_activated"));
+      buffer.writeStringField("address", rs.getString("address"));
+      buffer.writeStringField("deactivationReason", rs.getString("deactivation_reason"));
+      writeTimestamp("createdAt", rs.getTimestamp("created_at"));
+      writeTimestamp("updatedAt", rs.getTimestamp("updated_at"));
+      buffer.writeEndObject();
+    }
+
+    private void writeTimestamp(String fieldName, Timestamp timestamp) throws IOException {
+      if (timestamp == null) {
+        buffer.writeNullField(fieldName);
+      } else {
+        buffer.writeStringField(fieldName, timestamp.toInstant().toString());
+      }
+    }
+
+    private void finish() throws IOException {
+      if (settingsOpen) {
+        buffer.writeEndArray();
+        buffer.writeEndObject();
+        settingsOpen = false;
+      }
+    }
+  }
+}
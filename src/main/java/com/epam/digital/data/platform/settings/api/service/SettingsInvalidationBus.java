@@ -0,0 +1,228 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.settings.api.service;
+
+import com.epam.digital.data.platform.settings.api.model.SettingsChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import org.postgresql.PGConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@ConditionalOnProperty(prefix = "settings.invalidation", name = "enabled", havingValue = "true")
+public class SettingsInvalidationBus implements SmartLifecycle {
+
+  private static final String NOTIFY = "SELECT pg_notify(:channel, :payload)";
+  private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+  private static final String SEPARATOR = "|";
+
+  private final Logger log = LoggerFactory.getLogger(SettingsInvalidationBus.class);
+
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+  private final SettingsCacheService settingsCacheService;
+  private final Clock clock;
+  private final String url;
+  private final Properties connectionProperties;
+  private final String channel;
+  private final int pollTimeout;
+  private final long reconnectInterval;
+  // Identifies notifications sent by this instance, which has already evicted its own entries
+  private final String instanceId = UUID.randomUUID().toString();
+
+  private final Timer lagTimer;
+  private final Counter receivedCounter;
+  private final Counter publishFailureCounter;
+  private final Counter reconnectCounter;
+
+  private volatile boolean running;
+  private volatile boolean connected;
+  private Thread listener;
+
+  public SettingsInvalidationBus(
+      NamedParameterJdbcTemplate jdbcTemplate,
+      SettingsCacheService settingsCacheService,
+      Clock clock,
+      MeterRegistry meterRegistry,
+      @Value("${data-platform.datasource.url}") String url,
+      @Value("${data-platform.datasource.username}") String username,
+      @Value("${data-platform.datasource.password}") String password,
+      @Value("${settings.invalidation.channel}") String channel,
+      @Value("${settings.invalidation.poll-timeout}") int pollTimeout,
+      @Value("${settings.invalidation.reconnect-interval}") long reconnectInterval) {
+    if (!CHANNEL_NAME.matcher(channel).matches()) {
+      throw new IllegalArgumentException("Invalid invalidation channel name: " + channel);
+    }
+    this.jdbcTemplate = jdbcTemplate;
+    this.settingsCacheService = settingsCacheService;
+    this.clock = clock;
+    this.url = url;
+    this.connectionProperties = new Properties();
+    this.connectionProperties.setProperty("user", username);
+    this.connectionProperties.setProperty("password", password);
+    this.connectionProperties.setProperty("tcpKeepAlive", "true");
+    this.connectionProperties.setProperty("ApplicationName", "user-settings-invalidation");
+    this.channel = channel;
+    this.pollTimeout = pollTimeout;
+    this.reconnectInterval = reconnectInterval;
+
+    this.lagTimer = Timer.builder("settings.invalidation.lag")
+        .description("Time between a settings write on one instance and eviction on another")
+        .register(meterRegistry);
+    this.receivedCounter = Counter.builder("settings.invalidation.received")
+        .description("Invalidation notifications received from other instances")
+        .register(meterRegistry);
+    this.publishFailureCounter = Counter.builder("settings.invalidation.publish.failures")
+        .description("Invalidation notifications that could not be sent")
+        .register(meterRegistry);
+    this.reconnectCounter = Counter.builder("settings.invalidation.reconnects")
+        .description("Reconnects of the invalidation listener connection")
+        .register(meterRegistry);
+    Gauge.builder("settings.invalidation.connected", this, bus -> bus.connected ? 1 : 0)
+        .description("Whether the invalidation listener connection is established")
+        .register(meterRegistry);
+  }
+
+  // Runs after the shared cache has been invalidated, otherwise the notified instances could
+  // reload the previous settings from it
+  @Order(Ordered.LOWEST_PRECEDENCE)
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onSettingsChanged(SettingsChangedEvent event) {
+    try {
+      jdbcTemplate.query(NOTIFY,
+          Map.of("channel", channel, "payload", payload(event.getKeycloakId())), rs -> null);
+    } catch (DataAccessException exception) {
+      publishFailureCounter.increment();
+      log.warn("Failed to send settings invalidation notification", exception);
+    }
+  }
+
+  @Override
+  public void start() {
+    running = true;
+    listener = new Thread(this::listenLoop, "settings-invalidation-listener");
+    listener.setDaemon(true);
+    listener.start();
+  }
+
+  @Override
+  public void stop() {
+    running = false;
+    var thread = listener;
+    if (thread != null) {
+      thread.interrupt();
+      try {
+        thread.join(pollTimeout + TimeUnit.SECONDS.toMillis(5));
+      } catch (InterruptedException exception) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  boolean isConnected() {
+    return connected;
+  }
+
+  String payload(UUID keycloakId) {
+    return instanceId + SEPARATOR + keycloakId + SEPARATOR + clock.millis();
+  }
+
+  void onNotification(String payload) {
+    var parts = payload.split(Pattern.quote(SEPARATOR));
+    if (parts.length != 3) {
+      log.warn("Ignoring malformed settings invalidation notification");
+      return;
+    }
+    if (instanceId.equals(parts[0])) {
+      return;
+    }
+    try {
+      settingsCacheService.invalidate(UUID.fromString(parts[1]));
+      var lag = clock.millis() - Long.parseLong(parts[2]);
+      lagTimer.record(Duration.ofMillis(Math.max(0L, lag)));
+      receivedCounter.increment();
+    } catch (IllegalArgumentException exception) {
+      log.warn("Ignoring malformed settings invalidation notification", exception);
+    }
+  }
+
+  private void listenLoop() {
+    while (running) {
+      try (var connection = DriverManager.getConnection(url, connectionProperties);
+          var statement = connection.createStatement()) {
+        statement.execute("LISTEN " + channel);
+        var pgConnection = connection.unwrap(PGConnection.class);
+        connected = true;
+        // Notifications sent while not listening are lost, so drop everything cached before
+        settingsCacheService.invalidateAll();
+        log.info("Listening for settings invalidation notifications");
+        while (running) {
+          var notifications = pgConnection.getNotifications(pollTimeout);
+          if (notifications != null) {
+            for (var notification : notifications) {
+              onNotification(notification.getParameter());
+            }
+          }
+        }
+      } catch (SQLException exception) {
+        connected = false;
+        if (running) {
+          reconnectCounter.increment();
+          log.warn("Settings invalidation listener connection lost, reconnecting in {} ms",
+              reconnectInterval, exception);
+          pause();
+        }
+      } finally {
+        connected = false;
+      }
+    }
+  }
+
+  private void pause() {
+    try {
+      Thread.sleep(reconnectInterval);
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+      running = false;
+    }
+  }
+}
@@ -16,50 +16,164 @@
 
 package com.epam.digital.data.platform.settings.api.service;
 
-import com.epam.digital.data.platform.settings.api.repository.NotificationChannelRepository;
-import com.epam.digital.data.platform.settings.api.repository.SettingsRepository;
-import com.epam.digital.data.platform.settings.model.dto.ChannelReadDto;
+import com.epam.digital.data.platform.settings.api.exception.BatchSizeExceededException;
+import com.epam.digital.data.platform.settings.api.exception.SettingsReadTimeoutException;
+import com.epam.digital.data.platform.settings.api.model.ChannelOwner;
+import com.epam.digital.data.platform.settings.api.model.Settings;
+import com.epam.digital.data.platform.settings.api.model.UserClaims;
+import com.epam.digital.data.platform.settings.api.model.VersionedSettings;
+import com.epam.digital.data.platform.settings.api.repository.SettingsReadRepository;
+import com.epam.digital.data.platform.settings.api.repository.SettingsSharedCacheRepository;
+import com.epam.digital.data.platform.settings.api.utils.SingleFlight;
 import com.epam.digital.data.platform.settings.model.dto.SettingsReadDto;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeoutException;
 
 @Service
 public class SettingsReadService {
 
-  private final SettingsRepository settingsRepository;
-  private final NotificationChannelRepository notificationChannelRepository;
-  private final JwtInfoProvider jwtInfoProvider;
+  private final SettingsReadRepository settingsReadRepository;
+  private final SettingsCacheService settingsCacheService;
+  // Null when Redis is disabled, reads then go straight to the database
+  private final SettingsSharedCacheRepository sharedCacheRepository;
+  private final int batchMaxSize;
+  private final Set<String> channelOwnersRoles;
+  private final SingleFlight<UUID, VersionedSettings> settingsLoads;
 
   public SettingsReadService(
-      SettingsRepository settingsRepository,
-      NotificationChannelRepository notificationChannelRepository,
-      JwtInfoProvider jwtInfoProvider) {
-    this.settingsRepository = settingsRepository;
-    this.notificationChannelRepository = notificationChannelRepository;
-    this.jwtInfoProvider = jwtInfoProvider;
+      SettingsReadRepository settingsReadRepository,
+      SettingsCacheService settingsCacheService,
+      ObjectProvider<SettingsSharedCacheRepository> sharedCacheRepository,
+      @Value("${settings.batch.max-size}") int batchMaxSize,
+      @Value("${settings.read.coalescing-timeout}") long coalescingTimeout,
+      @Value("${settings.channel-owners.roles}") List<String> channelOwnersRoles,
+      MeterRegistry meterRegistry) {
+    this.settingsReadRepository = settingsReadRepository;
+    this.settingsCacheService = settingsCacheService;
+    this.sharedCacheRepository = sharedCacheRepository.getIfAvailable();
+    this.batchMaxSize = batchMaxSize;
+    this.channelOwnersRoles = Set.copyOf(channelOwnersRoles);
+    this.settingsLoads = new SingleFlight<>(Duration.ofMillis(coalescingTimeout));
+    FunctionCounter.builder("settings.read.coalesced", settingsLoads,
+            SingleFlight::coalescedCount)
+        .description("Settings reads served by joining an in-flight load of the same user")
+        .register(meterRegistry);
+    FunctionCounter.builder("settings.read.coalesced.timeouts", settingsLoads,
+            SingleFlight::timedOutCount)
+        .description("Coalesced settings reads that timed out waiting for the in-flight load")
+        .register(meterRegistry);
   }
 
-  public SettingsReadDto findSettingsFromUserToken(String accessToken) {
-    var userKeycloakId = jwtInfoProvider.getUserId(accessToken);
-    return findSettingsByUserId(UUID.fromString(userKeycloakId));
+  public VersionedSettings findSettingsFromUserClaims(UserClaims userClaims) {
+    return findSettingsByUserId(UUID.fromString(userClaims.getUserId()));
   }
 
-  public SettingsReadDto findSettingsByUserId(UUID userId) {
-    var settings = settingsRepository.getByKeycloakId(userId);
-    var readDtoChannels =
-        notificationChannelRepository.findBySettingsId(settings.getId()).stream()
-            .map(
-                notificationChannel -> {
-                  var readDtoChannel = new ChannelReadDto();
-                  readDtoChannel.setChannel(notificationChannel.getChannel());
-                  readDtoChannel.setActivated(notificationChannel.isActivated());
-                  readDtoChannel.setAddress(notificationChannel.getAddress());
-                  readDtoChannel.setDeactivationReason(notificationChannel.getDeactivationReason());
-                  return readDtoChannel;
-                })
-            .collect(Collectors.toList());
-    return new SettingsReadDto(settings.getId(), readDtoChannels);
+  public VersionedSettings findSettingsByUserId(UUID userId) {
+    var cached = settingsCacheService.getIfPresent(userId);
+    if (cached != null) {
+      return cached;
+    }
+    try {
+      return settingsLoads.execute(userId,
+          () -> settingsCacheService.get(userId, this::loadSettings));
+    } catch (TimeoutException exception) {
+      throw new SettingsReadTimeoutException(
+          "Timed out waiting for in-flight settings load of user " + userId, exception);
+    }
+  }
+
+  public Map<UUID, SettingsReadDto> findSettingsByUserIds(Collection<UUID> userIds) {
+    var uniqueUserIds = new LinkedHashSet<>(userIds);
+    verifyBatchSize(uniqueUserIds.size(), "user ids");
+    var settings = new LinkedHashMap<UUID, SettingsReadDto>();
+    settingsCacheService.getAll(uniqueUserIds, this::loadAllSettings)
+        .forEach((userId, versionedSettings) ->
+            settings.put(userId, versionedSettings.getSettings()));
+    return settings;
+  }
+
+  public void verifyChannelOwnersLookupAllowed(UserClaims userClaims) {
+    var userRoles = userClaims.getRoles();
+    if (Objects.isNull(userRoles) || userRoles.stream().noneMatch(channelOwnersRoles::contains)) {
+      throw new AccessDeniedException("Invalid user role for channel owners lookup");
+    }
+  }
+
+  public List<ChannelOwner> findChannelOwnersByAddresses(Collection<String> addresses) {
+    var uniqueAddresses = new LinkedHashSet<>(addresses);
+    verifyBatchSize(uniqueAddresses.size(), "addresses");
+    if (uniqueAddresses.isEmpty()) {
+      return List.of();
+    }
+    return settingsReadRepository.findChannelOwnersByAddresses(uniqueAddresses);
+  }
+
+  private void verifyBatchSize(int size, String items) {
+    if (size > batchMaxSize) {
+      throw new BatchSizeExceededException(
+          "Batch of " + size + " " + items + " exceeds limit of " + batchMaxSize);
+    }
+  }
+
+  private Map<UUID, VersionedSettings> loadAllSettings(Set<UUID> userIds) {
+    if (sharedCacheRepository == null) {
+      return loadAllFromDatabase(userIds);
+    }
+    var settings = new HashMap<>(sharedCacheRepository.getAll(userIds));
+    var missing = new LinkedHashSet<>(userIds);
+    missing.removeAll(settings.keySet());
+    if (!missing.isEmpty()) {
+      var loaded = loadAllFromDatabase(missing);
+      sharedCacheRepository.putAll(loaded);
+      settings.putAll(loaded);
+    }
+    return settings;
+  }
+
+  private Map<UUID, VersionedSettings> loadAllFromDatabase(Set<UUID> userIds) {
+    var found = settingsReadRepository.findByKeycloakIds(userIds);
+    var settings = new HashMap<UUID, VersionedSettings>(found);
+    for (var userId : userIds) {
+      settings.computeIfAbsent(userId, SettingsReadService::emptySettings);
+    }
+    return settings;
+  }
+
+  private VersionedSettings loadSettings(UUID userId) {
+    if (sharedCacheRepository == null) {
+      return loadFromDatabase(userId);
+    }
+    var shared = sharedCacheRepository.get(userId);
+    if (shared != null) {
+      return shared;
+    }
+    var settings = loadFromDatabase(userId);
+    sharedCacheRepository.put(userId, settings);
+    return settings;
+  }
+
+  private VersionedSettings loadFromDatabase(UUID userId) {
+    return settingsReadRepository.findByKeycloakId(userId)
+        .orElseGet(() -> emptySettings(userId));
+  }
+
+  private static VersionedSettings emptySettings(UUID userId) {
+    return new VersionedSettings(new SettingsReadDto(Settings.deriveId(userId)), 0L);
   }
 }
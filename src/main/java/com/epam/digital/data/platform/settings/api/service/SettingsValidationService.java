@@ -17,25 +17,72 @@
 package com.epam.digital.data.platform.settings.api.service;
 
 import com.epam.digital.data.platform.settings.api.exception.EmailAddressValidationException;
+import com.epam.digital.data.platform.settings.api.model.EmailValidationStatus;
+import com.epam.digital.data.platform.settings.api.utils.EmailAddressValidator;
+import com.epam.digital.data.platform.settings.api.utils.ResponseCode;
 import com.epam.digital.data.platform.settings.model.dto.SettingsEmailInputDto;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.IOException;
 import java.util.Objects;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 @Service
 public class SettingsValidationService {
 
-  private static final String EMAIL_REGEX = "^[a-zA-Z0-9_!#$%&'*+/=?`{|}~^-]+(?:\\.[a-zA-Z0-9_!#$%&'*+/=?`{|}~^-]+)*@[a-zA-Z0-9-]+(?:\\.[a-zA-Z0-9-]+)+$";
-  private static final String EMAIL_ADDRESS_NOT_VALID_KEY = "ERROR_EMAIL_ADDRESS_NOT_VALID";
-  private static final String EMAIL_ADDRESS_EMPTY_KEY = "ERROR_EMAIL_ADDRESS_EMPTY";
+  private final Logger log = LoggerFactory.getLogger(SettingsValidationService.class);
 
   public boolean validateEmailAddress(SettingsEmailInputDto input) {
-    var address = input.getAddress();
-    if (Objects.isNull(address) || address.isEmpty()) {
-      throw new EmailAddressValidationException("Email address is empty", EMAIL_ADDRESS_EMPTY_KEY);
+    var status = checkEmailAddress(input.getAddress());
+    if (status == EmailValidationStatus.EMPTY) {
+      throw new EmailAddressValidationException("Email address is empty", status.getMessageKey());
     }
-    if (!address.matches(EMAIL_REGEX)) {    //NOSONAR
-      throw new EmailAddressValidationException("Email address is not valid", EMAIL_ADDRESS_NOT_VALID_KEY);
+    if (status == EmailValidationStatus.NOT_VALID) {
+      throw new EmailAddressValidationException(
+          "Email address is not valid", status.getMessageKey());
     }
     return true;
   }
+
+  public EmailValidationStatus checkEmailAddress(String address) {
+    if (Objects.isNull(address) || address.isEmpty()) {
+      return EmailValidationStatus.EMPTY;
+    }
+    return EmailAddressValidator.isValid(address)
+        ? EmailValidationStatus.VALID : EmailValidationStatus.NOT_VALID;
+  }
+
+  public void validateEmailAddresses(JsonParser parser, JsonGenerator generator)
+      throws IOException {
+    generator.writeStartArray();
+    var index = 0;
+    try {
+      for (var token = parser.nextToken(); token != JsonToken.END_ARRAY;
+          token = parser.nextToken()) {
+        if (token != JsonToken.VALUE_STRING && token != JsonToken.VALUE_NULL) {
+          throw new JsonParseException(parser, "Expected email address string at index " + index);
+        }
+        var status = checkEmailAddress(parser.getValueAsString());
+        generator.writeStartObject();
+        generator.writeNumberField("index", index++);
+        generator.writeStringField("status", status.name());
+        if (status.getMessageKey() != null) {
+          generator.writeStringField("messageKey", status.getMessageKey());
+        }
+        generator.writeEndObject();
+      }
+    } catch (JsonParseException exception) {
+      // the response is already committed, so the failure is reported as the last record
+      log.error("Batch email validation input is not readable at index {}", index, exception);
+      generator.writeStartObject();
+      generator.writeNumberField("index", index);
+      generator.writeStringField("error", ResponseCode.CLIENT_ERROR);
+      generator.writeEndObject();
+    }
+    generator.writeEndArray();
+  }
 }
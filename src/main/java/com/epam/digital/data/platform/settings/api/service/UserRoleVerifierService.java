@@ -16,23 +16,20 @@
 
 package com.epam.digital.data.platform.settings.api.service;
 
+import com.epam.digital.data.platform.settings.api.model.UserClaims;
 import com.epam.digital.data.platform.settings.model.dto.Channel;
 import com.epam.digital.data.platform.starter.security.SystemRole;
 import java.util.List;
 import java.util.Objects;
 
-import lombok.RequiredArgsConstructor;
 import org.apache.commons.collections4.CollectionUtils;
 import org.springframework.stereotype.Service;
 
 @Service
-@RequiredArgsConstructor
 public class UserRoleVerifierService {
 
-  private final JwtInfoProvider jwtInfoProvider;
-
-  public boolean verify(Channel channel, String accessToken) {
-    List<String> userRoles = jwtInfoProvider.getUserRoles(accessToken);
+  public boolean verify(Channel channel, UserClaims userClaims) {
+    List<String> userRoles = userClaims.getRoles();
     if (Objects.isNull(userRoles)) {
       return false;
     }
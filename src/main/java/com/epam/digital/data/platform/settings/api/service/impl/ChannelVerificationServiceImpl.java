@@ -17,11 +17,11 @@
 package com.epam.digital.data.platform.settings.api.service.impl;
 
 import com.epam.digital.data.platform.notification.dto.Recipient;
-import com.epam.digital.data.platform.settings.api.entity.OtpEntity;
 import com.epam.digital.data.platform.settings.api.model.OtpData;
+import com.epam.digital.data.platform.settings.api.model.OtpVerificationResult;
+import com.epam.digital.data.platform.settings.api.model.UserClaims;
 import com.epam.digital.data.platform.settings.api.repository.OtpRepository;
 import com.epam.digital.data.platform.settings.api.service.ChannelVerificationService;
-import com.epam.digital.data.platform.settings.api.service.JwtInfoProvider;
 import com.epam.digital.data.platform.settings.api.service.NotificationService;
 import com.epam.digital.data.platform.settings.api.service.UserRoleVerifierService;
 import com.epam.digital.data.platform.settings.api.service.VerificationCodeGenerator;
@@ -43,7 +43,6 @@ public class ChannelVerificationServiceImpl implements ChannelVerificationServic
   private final Logger log = LoggerFactory.getLogger(ChannelVerificationServiceImpl.class);
 
   private final OtpRepository repository;
-  private final JwtInfoProvider jwtInfoProvider;
   private final VerificationCodeGenerator generator;
   private final NotificationService notificationService;
   private final UserRoleVerifierService userRoleVerifierService;
@@ -52,13 +51,11 @@ public class ChannelVerificationServiceImpl implements ChannelVerificationServic
 
   public ChannelVerificationServiceImpl(
       OtpRepository repository,
-      JwtInfoProvider jwtInfoProvider,
       VerificationCodeGenerator generator,
       NotificationService notificationService,
       UserRoleVerifierService userRoleVerifierService,
       @Value("${verification.otp.time-to-live}") int ttl) {
     this.repository = repository;
-    this.jwtInfoProvider = jwtInfoProvider;
     this.generator = generator;
     this.notificationService = notificationService;
     this.userRoleVerifierService = userRoleVerifierService;
@@ -67,57 +64,45 @@ public class ChannelVerificationServiceImpl implements ChannelVerificationServic
 
   @Override
   public VerificationCodeExpirationDto sendVerificationCode(Channel channel,
-      VerificationInputDto input, String accessToken) {
+      VerificationInputDto input, UserClaims userClaims) {
 
-    if (!userRoleVerifierService.verify(channel, accessToken)) {
+    if (!userRoleVerifierService.verify(channel, userClaims)) {
       throw new AccessDeniedException("Invalid user role for verify operation");
     }
 
-    var userId = jwtInfoProvider.getUserId(accessToken);
-    var username = jwtInfoProvider.getUsername(accessToken);
-    var id = String.format(ID_PATTERN, userId, channel.getValue());
+    var id = String.format(ID_PATTERN, userClaims.getUserId(), channel.getValue());
     var otpCode = generator.generate();
 
-    repository.save(
-        OtpEntity.builder().id(id).otpData(new OtpData(input.getAddress(), otpCode)).build()
-    );
+    repository.save(id, new OtpData(input.getAddress(), otpCode));
 
     notificationService.sendNotification(
-        channel, input.getAddress(), username, otpCode, getRecipientRealm(accessToken));
+        channel,
+        input.getAddress(),
+        userClaims.getUsername(),
+        id,
+        getRecipientRealm(userClaims));
 
     return new VerificationCodeExpirationDto(ttl);
   }
 
   @Override
   public boolean verify(
-      Channel channel, String accessToken, String verificationCode, String address) {
+      Channel channel, UserClaims userClaims, String verificationCode, String address) {
 
-    var userId = jwtInfoProvider.getUserId(accessToken);
-    var id = String.format(ID_PATTERN, userId, channel.getValue());
-
-    var otpEntity = repository.findById(id);
-
-    if (otpEntity.isEmpty()) {
-      log.error("Verification code expired");
-    } else {
-      if (!otpEntity.get().getOtpData().getVerificationCode().equals(verificationCode)) {
-        log.error("Invalid verification code. Expected '{}' but received '{}'",
-            otpEntity.get().getOtpData().getVerificationCode(), verificationCode);
-      }
-      if (!otpEntity.get().getOtpData().getAddress().equals(address)) {
-        log.error("Invalid address. Expected '{}' but received '{}'",
-            otpEntity.get().getOtpData().getAddress(), address);
-      }
+    if (!channelSpecificVerifications(channel, userClaims, address)) {
+      return false;
     }
 
-    return otpEntity.isPresent()
-        && otpEntity.get().getOtpData().getVerificationCode().equals(verificationCode)
-        && otpEntity.get().getOtpData().getAddress().equals(address)
-        && channelSpecificVerifications(channel, accessToken, address);
+    var id = String.format(ID_PATTERN, userClaims.getUserId(), channel.getValue());
+    var result = repository.verifyAndConsume(id, verificationCode, address);
+    if (result != OtpVerificationResult.OK) {
+      log.error("Verification of {} channel failed: {}", channel.getValue(), result);
+    }
+    return result == OtpVerificationResult.OK;
   }
 
-  private Recipient.RecipientRealm getRecipientRealm(String accessToken) {
-    var roles = jwtInfoProvider.getUserRoles(accessToken);
+  private Recipient.RecipientRealm getRecipientRealm(UserClaims userClaims) {
+    var roles = userClaims.getRoles();
     if (CollectionUtils.containsAny(
         roles, SystemRole.OFFICER.getName(), SystemRole.UNREGISTERED_OFFICER.getName())) {
       return Recipient.RecipientRealm.OFFICER;
@@ -127,9 +112,10 @@ public class ChannelVerificationServiceImpl implements ChannelVerificationServic
     return null;
   }
 
-  private boolean channelSpecificVerifications(Channel channel, String accessToken, String address) {
+  private boolean channelSpecificVerifications(
+      Channel channel, UserClaims userClaims, String address) {
     if (Channel.DIIA.equals(channel)) {
-      var drfo = jwtInfoProvider.getDrfo(accessToken);
+      var drfo = userClaims.getDrfo();
       if (!address.equals(drfo)) {
         log.error("Invalid address for DIIA channel. Input drfo is not equal to user drfo");
         return false;
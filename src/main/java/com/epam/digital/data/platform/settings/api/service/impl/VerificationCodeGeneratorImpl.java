@@ -17,20 +17,32 @@
 package com.epam.digital.data.platform.settings.api.service.impl;
 
 import com.epam.digital.data.platform.settings.api.service.VerificationCodeGenerator;
-import java.security.SecureRandom;
+import com.epam.digital.data.platform.settings.api.utils.SecureRandomPool;
+import com.epam.digital.data.platform.settings.api.utils.ZeroPaddedDigits;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 @Component
 public class VerificationCodeGeneratorImpl implements VerificationCodeGenerator {
 
-  private final SecureRandom secureRandom;
+  private final SecureRandomPool secureRandomPool;
+  private final int length;
+  private final int bound;
 
-  public VerificationCodeGeneratorImpl(SecureRandom secureRandom) {
-    this.secureRandom = secureRandom;
+  public VerificationCodeGeneratorImpl(
+      SecureRandomPool secureRandomPool,
+      @Value("${verification.otp.length}") int length) {
+    if (length < 1 || length > ZeroPaddedDigits.MAX_LENGTH) {
+      throw new IllegalArgumentException(
+          "Verification code length must be between 1 and " + ZeroPaddedDigits.MAX_LENGTH);
+    }
+    this.secureRandomPool = secureRandomPool;
+    this.length = length;
+    this.bound = ZeroPaddedDigits.upperBound(length);
   }
 
   @Override
   public String generate() {
-    return String.format("%06d", secureRandom.nextInt(999999));
+    return ZeroPaddedDigits.encode(secureRandomPool.current().nextInt(bound), length);
   }
 }
@@ -0,0 +1,99 @@
+/*
+ *  Copyright 2021 EPAM Systems.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.epam.digital.data.platform.settings.api.utils;
+
+/**
+ * Single-pass validator for the address format previously checked with a regular expression in
+ * {@code SettingsValidationService}: dot-separated atoms of ASCII letters, digits and
+ * {@code _!#$%&'*+/=?`|~^-} or braces, then {@code @} and at least two dot-separated labels of
+ * ASCII letters, digits and hyphens.
+ */
+public final class EmailAddressValidator {
+
+  private static final boolean[] LOCAL_CHARS = new boolean[128];
+  private static final boolean[] DOMAIN_CHARS = new boolean[128];
+
+  private static final int LOCAL_ATOM_START = 0;
+  private static final int LOCAL_ATOM = 1;
+  private static final int DOMAIN_LABEL_START = 2;
+  private static final int DOMAIN_LABEL = 3;
+
+  static {
+    for (char c = 'a'; c <= 'z'; c++) {
+      LOCAL_CHARS[c] = true;
+      LOCAL_CHARS[Character.toUpperCase(c)] = true;
+    }
+    for (char c = '0'; c <= '9'; c++) {
+      LOCAL_CHARS[c] = true;
+    }
+    System.arraycopy(LOCAL_CHARS, 0, DOMAIN_CHARS, 0, LOCAL_CHARS.length);
+    DOMAIN_CHARS['-'] = true;
+    for (char c : "_!#$%&'*+/=?`{|}~^-".toCharArray()) {
+      LOCAL_CHARS[c] = true;
+    }
+  }
+
+  private EmailAddressValidator() {
+  }
+
+  public static boolean isValid(CharSequence address) {
+    var state = LOCAL_ATOM_START;
+    var domainLabels = 0;
+    for (int i = 0, length = address.length(); i < length; i++) {
+      var c = address.charAt(i);
+      switch (state) {
+        case LOCAL_ATOM_START:
+          if (!isLocalChar(c)) {
+            return false;
+          }
+          state = LOCAL_ATOM;
+          break;
+        case LOCAL_ATOM:
+          if (c == '.') {
+            state = LOCAL_ATOM_START;
+          } else if (c == '@') {
+            state = DOMAIN_LABEL_START;
+          } else if (!isLocalChar(c)) {
+            return false;
+          }
+          break;
+        case DOMAIN_LABEL_START:
+          if (!isDomainChar(c)) {
+            return false;
+          }
+          domainLabels++;
+          state = DOMAIN_LABEL;
+          break;
+        default:
+          if (c == '.') {
+            state = DOMAIN_LABEL_START;
+          } else if (!isDomainChar(c)) {
+            return false;
+          }
+      }
+    }
+    return state == DOMAIN_LABEL && domainLabels > 1;
+  }
+
+  private static boolean isLocalChar(char c) {
+    return c < LOCAL_CHARS.length && LOCAL_CHARS[c];
+  }
+
+  private static boolean isDomainChar(char c) {
+    return c < DOMAIN_CHARS.length && DOMAIN_CHARS[c];
+  }
+}
@@ -28,6 +28,7 @@ public final class ResponseCode {
   public static final String METHOD_ARGUMENT_TYPE_MISMATCH = "METHOD_ARGUMENT_TYPE_MISMATCH";
   public static final String JWT_INVALID = "JWT_INVALID";
   public static final String FORBIDDEN_OPERATION = "FORBIDDEN_OPERATION";
+  public static final String SERVICE_UNAVAILABLE = "SERVICE_UNAVAILABLE";
 
   private ResponseCode() {
 
@@ -0,0 +1,41 @@
+/*
+ *  Copyright 2021 EPAM Systems.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.epam.digital.data.platform.settings.api.utils;
+
+import java.security.SecureRandom;
+import java.util.List;
+
+public class SecureRandomPool {
+
+  private final SecureRandom[] instances;
+
+  public SecureRandomPool(List<SecureRandom> instances) {
+    if (instances.isEmpty()) {
+      throw new IllegalArgumentException("Secure random pool must not be empty");
+    }
+    this.instances = instances.toArray(new SecureRandom[0]);
+  }
+
+  public SecureRandom current() {
+    var stripe = Math.floorMod(Thread.currentThread().getId(), (long) instances.length);
+    return instances[(int) stripe];
+  }
+
+  public int size() {
+    return instances.length;
+  }
+}
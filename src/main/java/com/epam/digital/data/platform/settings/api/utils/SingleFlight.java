@@ -0,0 +1,96 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.settings.api.utils;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls with the same key: the first caller runs the loader in its own
+ * thread, callers arriving while it is in flight wait for the same result (or exception) for at
+ * most the configured timeout. Completed results are not retained.
+ */
+public class SingleFlight<K, V> {
+
+  private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+  private final LongAdder coalesced = new LongAdder();
+  private final LongAdder timedOut = new LongAdder();
+  private final long timeoutNanos;
+
+  public SingleFlight(Duration timeout) {
+    this.timeoutNanos = timeout.toNanos();
+  }
+
+  public V execute(K key, Supplier<V> loader) throws TimeoutException {
+    var flight = new CompletableFuture<V>();
+    var existing = inFlight.putIfAbsent(key, flight);
+    if (existing != null) {
+      coalesced.increment();
+      return await(existing);
+    }
+    try {
+      var value = loader.get();
+      inFlight.remove(key, flight);
+      flight.complete(value);
+      return value;
+    } catch (RuntimeException | Error exception) {
+      inFlight.remove(key, flight);
+      flight.completeExceptionally(exception);
+      throw exception;
+    }
+  }
+
+  public long coalescedCount() {
+    return coalesced.sum();
+  }
+
+  public long timedOutCount() {
+    return timedOut.sum();
+  }
+
+  int inFlightCount() {
+    return inFlight.size();
+  }
+
+  private V await(CompletableFuture<V> flight) throws TimeoutException {
+    try {
+      return flight.get(timeoutNanos, TimeUnit.NANOSECONDS);
+    } catch (TimeoutException exception) {
+      timedOut.increment();
+      throw exception;
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for in-flight call", exception);
+    } catch (ExecutionException exception) {
+      var cause = exception.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new IllegalStateException(cause);
+    }
+  }
+}
@@ -0,0 +1,48 @@
+/*
+ *  Copyright 2021 EPAM Systems.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.epam.digital.data.platform.settings.api.utils;
+
+public final class ZeroPaddedDigits {
+
+  public static final int MAX_LENGTH = 9;
+
+  private ZeroPaddedDigits() {
+  }
+
+  public static String encode(int value, int length) {
+    if (length < 1 || length > MAX_LENGTH) {
+      throw new IllegalArgumentException("Length must be between 1 and " + MAX_LENGTH);
+    }
+    if (value < 0 || value >= upperBound(length)) {
+      throw new IllegalArgumentException("Value " + value + " does not fit " + length + " digits");
+    }
+    var digits = new char[length];
+    for (int i = length - 1; i >= 0; i--) {
+      digits[i] = (char) ('0' + value % 10);
+      value /= 10;
+    }
+    return new String(digits);
+  }
+
+  public static int upperBound(int length) {
+    var bound = 1;
+    for (int i = 0; i < length; i++) {
+      bound *= 10;
+    }
+    return bound;
+  }
+}
@@ -0,0 +1,10 @@
+-- Compares the stored verification code and address with the provided ones and consumes the
+-- code on success. Returns 0 (OK), 1 (MISMATCH) or 2 (EXPIRED).
+if redis.call('TYPE', KEYS[1])['ok'] ~= 'string' then
+  return 2
+end
+if redis.call('GET', KEYS[1]) ~= ARGV[1] then
+  return 1
+end
+redis.call('DEL', KEYS[1])
+return 0
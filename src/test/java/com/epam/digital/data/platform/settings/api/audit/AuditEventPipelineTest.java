@@ -0,0 +1,188 @@
+/*
+ *  Copyright 2021 EPAM Systems.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.epam.digital.data.platform.settings.api.audit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.epam.digital.data.platform.starter.audit.model.AuditEvent;
+import com.epam.digital.data.platform.starter.audit.service.AuditService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class AuditEventPipelineTest {
+
+  @Mock
+  private AuditService auditService;
+  @Mock
+  private AuditSpool auditSpool;
+  @Mock
+  private AuditEvent first;
+  @Mock
+  private AuditEvent second;
+
+  private SimpleMeterRegistry meterRegistry;
+  private AuditEventPipeline pipeline;
+
+  @BeforeEach
+  void beforeEach() {
+    meterRegistry = new SimpleMeterRegistry();
+  }
+
+  @AfterEach
+  void afterEach() {
+    if (pipeline != null && pipeline.isRunning()) {
+      pipeline.stop();
+    }
+  }
+
+  @Test
+  void expectQueuedEventsSentByFlusher() {
+    pipeline = pipeline(10, AuditOverflowPolicy.DROP);
+    pipeline.start();
+
+    pipeline.submit(first);
+    pipeline.submit(second);
+
+    verify(auditService, timeout(1000)).sendAudit(first);
+    verify(auditService, timeout(1000)).sendAudit(second);
+    assertThat(meterRegistry.get("audit.pipeline.flush").timer().count()).isPositive();
+  }
+
+  @Test
+  void expectQueueDrainedOnStop() {
+    pipeline = pipeline(10, AuditOverflowPolicy.DROP);
+    pipeline.submit(first);
+    assertThat(meterRegistry.get("audit.pipeline.queue.size").gauge().value()).isEqualTo(1);
+
+    pipeline.stop();
+
+    verify(auditService).sendAudit(first);
+    assertThat(pipeline.size()).isZero();
+    assertThat(meterRegistry.get("audit.pipeline.batch.size").summary().totalAmount())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void expectEventDroppedWhenFullAndPolicyIsDrop() {
+    pipeline = pipeline(1, AuditOverflowPolicy.DROP);
+
+    pipeline.submit(first);
+    pipeline.submit(second);
+
+    verify(auditService, never()).sendAudit(second);
+    assertThat(pipeline.size()).isEqualTo(1);
+    assertThat(meterRegistry.get("audit.pipeline.dropped").counter().count()).isEqualTo(1);
+  }
+
+  @Test
+  void expectEventDroppedAfterBlockTimeoutWhenPolicyIsBlock() {
+    pipeline = pipeline(1, AuditOverflowPolicy.BLOCK);
+
+    pipeline.submit(first);
+    pipeline.submit(second);
+
+    assertThat(pipeline.size()).isEqualTo(1);
+    assertThat(meterRegistry.get("audit.pipeline.dropped").counter().count()).isEqualTo(1);
+  }
+
+  @Test
+  void expectEventSpooledWhenFullAndPolicyIsSpill() {
+    pipeline = pipeline(1, AuditOverflowPolicy.SPILL);
+    when(auditSpool.append(second)).thenReturn(true);
+
+    pipeline.submit(first);
+    pipeline.submit(second);
+
+    verify(auditSpool).append(second);
+    verify(auditService, never()).sendAudit(second);
+    assertThat(meterRegistry.get("audit.pipeline.spilled").counter().count()).isEqualTo(1);
+  }
+
+  @Test
+  void expectEventDroppedWhenSpoolIsFull() {
+    pipeline = pipeline(1, AuditOverflowPolicy.SPILL);
+    when(auditSpool.append(second)).thenReturn(false);
+
+    pipeline.submit(first);
+    pipeline.submit(second);
+
+    assertThat(meterRegistry.get("audit.pipeline.dropped").counter().count()).isEqualTo(1);
+  }
+
+  @Test
+  void expectRestOfBatchSpooledAfterFailedSend() {
+    pipeline = pipeline(10, AuditOverflowPolicy.DROP);
+    doThrow(new RuntimeException()).when(auditService).sendAudit(first);
+    when(auditSpool.append(any())).thenReturn(true);
+    pipeline.submit(first);
+    pipeline.submit(second);
+
+    pipeline.stop();
+
+    verify(auditSpool).append(first);
+    verify(auditSpool).append(second);
+    verify(auditService, never()).sendAudit(second);
+    assertThat(meterRegistry.get("audit.pipeline.failed").counter().count()).isEqualTo(1);
+  }
+
+  @Test
+  void expectSpoolReplayedBeforeQueuedEvents() {
+    pipeline = pipeline(10, AuditOverflowPolicy.DROP);
+    when(auditSpool.hasPending()).thenReturn(true, false);
+    when(auditSpool.replay(eq(10), any())).thenReturn(3);
+    pipeline.submit(first);
+
+    pipeline.stop();
+
+    var inOrder = inOrder(auditSpool, auditService);
+    inOrder.verify(auditSpool).replay(eq(10), any());
+    inOrder.verify(auditService).sendAudit(first);
+  }
+
+  @Test
+  void expectQueuedEventsSpooledWhileSpoolCannotBeReplayed() {
+    pipeline = pipeline(10, AuditOverflowPolicy.DROP);
+    when(auditSpool.hasPending()).thenReturn(true);
+    when(auditSpool.replay(eq(10), any())).thenReturn(0);
+    when(auditSpool.append(first)).thenReturn(true);
+    pipeline.submit(first);
+
+    pipeline.stop();
+
+    verify(auditSpool).append(first);
+    verify(auditService, never()).sendAudit(first);
+  }
+
+  private AuditEventPipeline pipeline(int capacity, AuditOverflowPolicy policy) {
+    return new AuditEventPipeline(auditService, auditSpool, meterRegistry, capacity, 10, policy,
+        10, 10, 1000);
+  }
+}
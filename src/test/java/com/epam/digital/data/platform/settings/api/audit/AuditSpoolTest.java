@@ -0,0 +1,271 @@
+/*
+ *  Copyright 2021 EPAM Systems.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.epam.digital.data.platform.settings.api.audit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.epam.digital.data.platform.settings.api.audit.dto.ActivateChannelAuditDto;
+import com.epam.digital.data.platform.settings.model.dto.ActivateChannelInputDto;
+import com.epam.digital.data.platform.settings.model.dto.Channel;
+import com.epam.digital.data.platform.settings.model.dto.SettingsDeactivateChannelInputDto;
+import com.epam.digital.data.platform.starter.audit.model.AuditEvent;
+import com.epam.digital.data.platform.starter.audit.service.AuditService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+class AuditSpoolTest {
+
+  private static final Instant NOW = Instant.parse("2023-01-01T10:00:00Z");
+  // Built the same way as the application's auto-configured mapper
+  private static final ObjectMapper OBJECT_MAPPER = Jackson2ObjectMapperBuilder.json().build();
+
+  @TempDir
+  Path directory;
+
+  private SimpleMeterRegistry meterRegistry;
+  private AuditSpool spool;
+
+  @BeforeEach
+  void beforeEach() {
+    meterRegistry = new SimpleMeterRegistry();
+    spool = spool(Clock.fixed(NOW, ZoneOffset.UTC), 1024 * 1024);
+  }
+
+  @AfterEach
+  void afterEach() throws IOException {
+    spool.close();
+  }
+
+  @Test
+  void expectEventsReplayedInOrder() {
+    spool.append(event("first"));
+    spool.append(event("second"));
+
+    var sent = new ArrayList<String>();
+    var replayed = spool.replay(10, event -> sent.add(event.getName()));
+
+    assertThat(replayed).isEqualTo(2);
+    assertThat(sent).containsExactly("first", "second");
+    assertThat(spool.hasPending()).isFalse();
+    assertThat(spool.pendingBytes()).isZero();
+  }
+
+  @Test
+  void expectReplayStoppedAtFailedSendAndResumedLater() {
+    spool.append(event("first"));
+    spool.append(event("second"));
+
+    var sent = new ArrayList<String>();
+    assertThat(spool.replay(10, event -> false)).isZero();
+    assertThat(spool.replay(1, event -> sent.add(event.getName()))).isEqualTo(1);
+    assertThat(spool.hasPending()).isTrue();
+    assertThat(spool.replay(10, event -> sent.add(event.getName()))).isEqualTo(1);
+
+    assertThat(sent).containsExactly("first", "second");
+  }
+
+  @Test
+  void expectAppendNotBlockedWhileReplayIsSending() {
+    spool.append(event("first"));
+
+    var replayed = spool.replay(10, sent -> CompletableFuture
+        .supplyAsync(() -> spool.append(event("second")))
+        .orTimeout(5, TimeUnit.SECONDS)
+        .join());
+
+    assertThat(replayed).isEqualTo(1);
+    assertThat(names(spool)).containsExactly("second");
+  }
+
+  @Test
+  void expectPendingEventsRecoveredAfterReopen() throws IOException {
+    spool.append(event("first"));
+    spool.append(event("second"));
+    spool.append(event("third"));
+    spool.replay(1, event -> true);
+    spool.close();
+
+    spool = spool(Clock.fixed(NOW, ZoneOffset.UTC), 1024 * 1024);
+
+    assertThat(names(spool)).containsExactly("second", "third");
+  }
+
+  @Test
+  void expectIncompleteRecordTruncatedOnReopen() throws IOException {
+    spool.append(event("first"));
+    spool.close();
+    Files.write(directory.resolve(AuditSpool.SEGMENT_FILE), new byte[] {0, 0, 0},
+        StandardOpenOption.APPEND);
+
+    spool = spool(Clock.fixed(NOW, ZoneOffset.UTC), 1024 * 1024);
+
+    assertThat(names(spool)).containsExactly("first");
+  }
+
+  @Test
+  void expectEventRejectedWhenSpoolIsFull() throws IOException {
+    spool.close();
+    spool = spool(Clock.fixed(NOW, ZoneOffset.UTC), 16);
+
+    assertThat(spool.append(event("first"))).isFalse();
+    assertThat(spool.hasPending()).isFalse();
+  }
+
+  @Test
+  void expectSizeAndAgeExposedAsMetrics() throws IOException {
+    spool.append(event("first"));
+    spool.close();
+
+    spool = spool(Clock.fixed(NOW.plusSeconds(30), ZoneOffset.UTC), 1024 * 1024);
+
+    assertThat(meterRegistry.get("audit.spool.size").gauge().value()).isPositive();
+    assertThat(meterRegistry.get("audit.spool.age").timeGauge().value(TimeUnit.SECONDS))
+        .isEqualTo(30);
+  }
+
+  @Test
+  void expectChannelAuditEventsReplayedUnchanged() throws IOException {
+    var activation = activationEvent();
+    var deactivation = deactivationEvent();
+    spool.append(activation);
+    spool.append(deactivation);
+
+    var replayed = new ArrayList<AuditEvent>();
+    spool.replay(10, replayed::add);
+
+    assertThat(replayed).hasSize(2);
+    assertThat(OBJECT_MAPPER.valueToTree(replayed.get(0)))
+        .isEqualTo(OBJECT_MAPPER.valueToTree(activation));
+    assertThat(OBJECT_MAPPER.valueToTree(replayed.get(1)))
+        .isEqualTo(OBJECT_MAPPER.valueToTree(deactivation));
+    var replayedActivation = (Map<?, ?>) replayed.get(0).getContext().get("activation");
+    assertThat(replayedActivation.get("address")).isEqualTo("email@email.com");
+    assertThat(replayedActivation.get("channel")).isEqualTo(Channel.EMAIL.getValue());
+  }
+
+  @Test
+  void expectUnreadableEventQuarantinedAndReplayContinued() throws IOException {
+    spool.append(event("first"));
+    spool.close();
+    appendRecord("{\"name\": [broken".getBytes());
+    spool = spool(Clock.fixed(NOW, ZoneOffset.UTC), 1024 * 1024);
+    spool.append(event("second"));
+
+    assertThat(names(spool)).containsExactly("first", "second");
+    assertThat(spool.hasPending()).isFalse();
+    assertThat(meterRegistry.get("audit.spool.quarantined").counter().count()).isEqualTo(1);
+    var quarantined = Files.readAllBytes(directory.resolve(AuditSpool.QUARANTINE_FILE));
+    assertThat(new String(quarantined, 12, quarantined.length - 12))
+        .isEqualTo("{\"name\": [broken");
+  }
+
+  @Test
+  void expectQuarantineProgressKeptWhenSendFails() throws IOException {
+    spool.close();
+    appendRecord("not json".getBytes());
+    spool = spool(Clock.fixed(NOW, ZoneOffset.UTC), 1024 * 1024);
+    spool.append(event("first"));
+
+    assertThat(spool.replay(10, event -> false)).isZero();
+    spool.close();
+    spool = spool(Clock.fixed(NOW, ZoneOffset.UTC), 1024 * 1024);
+
+    assertThat(names(spool)).containsExactly("first");
+  }
+
+  private void appendRecord(byte[] payload) throws IOException {
+    var record = ByteBuffer.allocate(12 + payload.length)
+        .putLong(NOW.toEpochMilli())
+        .putInt(payload.length)
+        .put(payload)
+        .array();
+    Files.write(directory.resolve(AuditSpool.SEGMENT_FILE), record,
+        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+  }
+
+  private AuditEvent activationEvent() {
+    var input = new ActivateChannelInputDto();
+    input.setAddress("email@email.com");
+    input.setVerificationCode("123456");
+    return capture(facade -> facade.sendActivationAuditOnFailure(Channel.EMAIL, input,
+        "Verification code expired"));
+  }
+
+  private AuditEvent deactivationEvent() {
+    var input = new SettingsDeactivateChannelInputDto();
+    input.setAddress("email@email.com");
+    input.setDeactivationReason("User deactivated");
+    return capture(facade -> facade.sendDeactivationAuditOnSuccess(Channel.EMAIL, input));
+  }
+
+  private AuditEvent capture(Consumer<SettingsAuditFacade> action) {
+    var auditService = mock(AuditService.class);
+    var context = new HashMap<String, Object>();
+    context.put("action", "USER_NOTIFICATION_CHANNEL_ACTIVATION");
+    context.put("step", "AFTER");
+    context.put("result", "SUCCESS");
+    when(auditService.createContext(any(), any(), any(), any(), any(), any()))
+        .thenReturn(context);
+    var pipeline = mock(AuditEventPipeline.class);
+    var facade = new SettingsAuditFacade(auditService, "user-settings-service-api",
+        Clock.fixed(NOW, ZoneOffset.UTC), pipeline);
+    action.accept(facade);
+    var captor = ArgumentCaptor.forClass(AuditEvent.class);
+    verify(pipeline).submit(captor.capture());
+    return captor.getValue();
+  }
+
+  private AuditSpool spool(Clock clock, long maxSize) {
+    meterRegistry = new SimpleMeterRegistry();
+    return new AuditSpool(OBJECT_MAPPER, clock, meterRegistry, directory, maxSize);
+  }
+
+  private static AuditEvent event(String name) {
+    return AuditEvent.builder().name(name).build();
+  }
+
+  private static List<String> names(AuditSpool spool) {
+    var names = new ArrayList<String>();
+    spool.replay(Integer.MAX_VALUE, event -> names.add(event.getName()));
+    return names;
+  }
+}
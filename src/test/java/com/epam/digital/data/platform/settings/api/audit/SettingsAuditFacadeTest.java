@@ -28,6 +28,7 @@ import com.epam.digital.data.platform.settings.model.dto.ActivateChannelInputDto
 import com.epam.digital.data.platform.settings.model.dto.Channel;
 import com.epam.digital.data.platform.settings.model.dto.SettingsDeactivateChannelInputDto;
 import com.epam.digital.data.platform.starter.audit.model.AuditEvent;
+import com.epam.digital.data.platform.starter.audit.model.EventType;
 import com.epam.digital.data.platform.starter.audit.model.Status;
 import com.epam.digital.data.platform.starter.audit.service.AuditService;
 import java.time.Clock;
@@ -51,12 +52,14 @@ class SettingsAuditFacadeTest {
   private AuditService auditService;
   @Mock
   private Clock clock;
+  @Mock
+  private AuditEventPipeline auditEventPipeline;
   @Captor
   private ArgumentCaptor<AuditEvent> eventCaptor;
 
   @BeforeEach
   void setUp() {
-    auditFacade = new SettingsAuditFacade(auditService, "appName", clock);
+    auditFacade = new SettingsAuditFacade(auditService, "appName", clock, auditEventPipeline);
     when(auditService.createContext(any(), any(), any(), any(), any(), any())).thenReturn(
         new HashMap<>());
   }
@@ -68,7 +71,7 @@ class SettingsAuditFacadeTest {
     input.setVerificationCode("123456");
 
     auditFacade.sendActivationAuditOnSuccess(Channel.EMAIL, input);
-    verify(auditService).sendAudit(eventCaptor.capture());
+    verify(auditEventPipeline).submit(eventCaptor.capture());
     var event = eventCaptor.getValue();
     var actual = (ActivateChannelAuditDto) event.getContext().get("activation");
 
@@ -83,7 +86,7 @@ class SettingsAuditFacadeTest {
     input.setVerificationCode("123456");
 
     auditFacade.sendActivationAuditOnFailure(Channel.EMAIL, input, "message");
-    verify(auditService).sendAudit(eventCaptor.capture());
+    verify(auditEventPipeline).submit(eventCaptor.capture());
     var event = eventCaptor.getValue();
     var context = event.getContext();
     var activation = (ActivateChannelAuditDto) context.get("activation");
@@ -102,7 +105,7 @@ class SettingsAuditFacadeTest {
     input.setAddress(EMAIL_ADDRESS);
 
     auditFacade.sendDeactivationAuditOnSuccess(Channel.EMAIL, input);
-    verify(auditService).sendAudit(eventCaptor.capture());
+    verify(auditEventPipeline).submit(eventCaptor.capture());
     var event = eventCaptor.getValue();
     var context = event.getContext();
     var deactivation = (DeactivateChannelAuditDto) context.get("deactivation");
@@ -120,7 +123,7 @@ class SettingsAuditFacadeTest {
     input.setDeactivationReason("deactivation reason");
 
     auditFacade.sendDeactivationAuditOnFailure(Channel.EMAIL, input, "message");
-    verify(auditService).sendAudit(eventCaptor.capture());
+    verify(auditEventPipeline).submit(eventCaptor.capture());
     var event = eventCaptor.getValue();
     var context = event.getContext();
     var deactivation = (DeactivateChannelAuditDto) context.get("deactivation");
@@ -132,4 +135,25 @@ class SettingsAuditFacadeTest {
     assertThat(delivery.getStatus()).isEqualTo(Status.FAILURE.name());
     assertThat(delivery.getFailureReason()).isEqualTo("message");
   }
+
+  @Test
+  void shouldSendBounceDeactivationAuditAsSystemEvent() {
+    var input = new SettingsDeactivateChannelInputDto();
+    input.setDeactivationReason("Mailbox full");
+    input.setAddress(EMAIL_ADDRESS);
+
+    auditFacade.sendBounceDeactivationAudit(Channel.EMAIL, input, "email-bounces-0@42");
+    verify(auditEventPipeline).submit(eventCaptor.capture());
+    var event = eventCaptor.getValue();
+    var context = event.getContext();
+    var deactivation = (DeactivateChannelAuditDto) context.get("deactivation");
+    var delivery = (DeliveryAuditDto) context.get("delivery");
+
+    assertThat(event.getEventType()).isEqualTo(EventType.SYSTEM_EVENT);
+    assertThat(event.getRequestId()).isEqualTo("email-bounces-0@42");
+    assertThat(context.get("source")).isEqualTo("email-bounces-0@42");
+    assertThat(deactivation.getAddress()).isEqualTo(EMAIL_ADDRESS);
+    assertThat(deactivation.getDeactivationReason()).isEqualTo("Mailbox full");
+    assertThat(delivery.getStatus()).isEqualTo(Status.SUCCESS.name());
+  }
 }
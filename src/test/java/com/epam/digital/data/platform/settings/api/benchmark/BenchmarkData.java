@@ -0,0 +1,48 @@
+/*
+ *  Copyright 2021 EPAM Systems.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.epam.digital.data.platform.settings.api.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+final class BenchmarkData {
+
+  private BenchmarkData() {
+  }
+
+  static List<UUID> insertUsers(NamedParameterJdbcTemplate jdbcTemplate, int count) {
+    var keycloakIds = new ArrayList<UUID>(count);
+    for (int i = 0; i < count; i++) {
+      var keycloakId = UUID.randomUUID();
+      var settingsId = UUID.randomUUID();
+      jdbcTemplate.update(
+          "INSERT INTO settings (id, keycloak_id) VALUES (:id, :keycloakId)",
+          Map.of("id", settingsId, "keycloakId", keycloakId));
+      jdbcTemplate.update(
+          "INSERT INTO notification_channel (settings_id, channel, address, is_activated) "
+              + "VALUES (:settingsId, 'EMAIL', :address, true), "
+              + "(:settingsId, 'DIIA', :drfo, false)",
+          Map.of("settingsId", settingsId, "address", keycloakId + "@email.com",
+              "drfo", String.format("%010d", i)));
+      keycloakIds.add(keycloakId);
+    }
+    return keycloakIds;
+  }
+}
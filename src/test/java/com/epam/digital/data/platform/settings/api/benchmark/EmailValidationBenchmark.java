@@ -0,0 +1,100 @@
+/*
+ *  Copyright 2021 EPAM Systems.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.epam.digital.data.platform.settings.api.benchmark;
+
+import com.epam.digital.data.platform.settings.api.utils.EmailAddressValidator;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares {@code String.matches} with the former email regex, the same regex precompiled and
+ * {@link EmailAddressValidator} on typical and pathological addresses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class EmailValidationBenchmark {
+
+  private static final String EMAIL_REGEX =
+      "^[a-zA-Z0-9_!#$%&'*+/=?`{|}~^-]+(?:\\.[a-zA-Z0-9_!#$%&'*+/=?`{|}~^-]+)*"
+          + "@[a-zA-Z0-9-]+(?:\\.[a-zA-Z0-9-]+)+$";
+  private static final Pattern EMAIL_PATTERN = Pattern.compile(EMAIL_REGEX);
+
+  @Param({"typical", "longValid", "dottedLocalNoAt", "longDomainNoDot", "dottedDomainBadTail"})
+  private String input;
+
+  private String address;
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(EmailValidationBenchmark.class.getSimpleName())
+        .build())
+        .run();
+  }
+
+  @Setup
+  public void setUp() {
+    switch (input) {
+      case "typical":
+        address = "first.last@gmail.com";
+        break;
+      case "longValid":
+        address = "a.".repeat(32) + "a@" + "sub.".repeat(32) + "example.com";
+        break;
+      case "dottedLocalNoAt":
+        address = "a.".repeat(512) + "a";
+        break;
+      case "longDomainNoDot":
+        address = "a@" + "a-".repeat(512);
+        break;
+      default:
+        address = "a@" + "a.".repeat(512) + "a!";
+    }
+  }
+
+  @Benchmark
+  public boolean stringMatches() {
+    return address.matches(EMAIL_REGEX);
+  }
+
+  @Benchmark
+  public boolean precompiledPattern() {
+    return EMAIL_PATTERN.matcher(address).matches();
+  }
+
+  @Benchmark
+  public boolean emailAddressValidator() {
+    return EmailAddressValidator.isValid(address);
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.settings.api.benchmark;
+
+import com.epam.digital.data.platform.settings.api.repository.SettingsExportRepository;
+import com.epam.digital.data.platform.settings.api.service.SettingsExportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+/**
+ * Measures the full NDJSON export of {@link SettingsExportService} for different keyset page
+ * sizes. The export is written to a byte counting stream, so the result reflects query, row
+ * mapping and serialization cost only. Runs against the embedded PostgreSQL used by integration
+ * tests; run with {@code -prof gc} to see that allocation does not depend on the number of users.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SettingsExportBenchmark {
+
+  private static final int USERS = 100_000;
+  private static final int FETCH_SIZE = 500;
+
+  @Param({"100", "1000", "10000"})
+  private int pageSize;
+
+  private EmbeddedPostgres postgres;
+  private SettingsExportService settingsExportService;
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(SettingsExportBenchmark.class.getSimpleName())
+        .build())
+        .run();
+  }
+
+  @Setup
+  public void setUp() throws IOException {
+    postgres = EmbeddedPostgres.start();
+    var dataSource = postgres.getPostgresDatabase();
+    new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+    BenchmarkData.insertUsers(new NamedParameterJdbcTemplate(dataSource), USERS);
+
+    settingsExportService = new SettingsExportService(
+        new SettingsExportRepository(dataSource, FETCH_SIZE),
+        new DataSourceTransactionManager(dataSource),
+        new ObjectMapper(), List.of("admin"), pageSize);
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    postgres.close();
+  }
+
+  @Benchmark
+  public long exportAll() throws IOException {
+    var outputStream = new CountingOutputStream();
+    settingsExportService.exportSettings(outputStream);
+    return outputStream.count;
+  }
+
+  private static final class CountingOutputStream extends OutputStream {
+
+    private long count;
+
+    @Override
+    public void write(int b) {
+      count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+      count += len;
+    }
+  }
+}
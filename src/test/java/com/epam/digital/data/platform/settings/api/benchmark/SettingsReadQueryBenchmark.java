@@ -0,0 +1,121 @@
+/*
+ *  Copyright 2021 EPAM Systems.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.epam.digital.data.platform.settings.api.benchmark;
+
+import com.epam.digital.data.platform.settings.api.repository.SettingsReadRepository;
+import com.epam.digital.data.platform.settings.model.dto.Channel;
+import com.epam.digital.data.platform.settings.model.dto.ChannelReadDto;
+import com.epam.digital.data.platform.settings.model.dto.SettingsReadDto;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+/**
+ * Compares the settings read path implemented as two queries (settings lookup followed by
+ * notification channels lookup) with the single join query of {@link SettingsReadRepository}.
+ * Runs against the embedded PostgreSQL used by integration tests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SettingsReadQueryBenchmark {
+
+  private static final int USERS = 10_000;
+
+  private EmbeddedPostgres postgres;
+  private NamedParameterJdbcTemplate jdbcTemplate;
+  private SettingsReadRepository settingsReadRepository;
+  private List<UUID> keycloakIds;
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(SettingsReadQueryBenchmark.class.getSimpleName())
+        .build())
+        .run();
+  }
+
+  @Setup
+  public void setUp() throws IOException {
+    postgres = EmbeddedPostgres.start();
+    var dataSource = postgres.getPostgresDatabase();
+    new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+
+    jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+    settingsReadRepository = new SettingsReadRepository(jdbcTemplate);
+    keycloakIds = BenchmarkData.insertUsers(jdbcTemplate, USERS);
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    postgres.close();
+  }
+
+  @Benchmark
+  public SettingsReadDto twoQueries() {
+    var keycloakId = randomKeycloakId();
+    var settingsId = jdbcTemplate.queryForObject(
+        "SELECT id FROM settings WHERE keycloak_id = :keycloakId",
+        Map.of("keycloakId", keycloakId), UUID.class);
+    var channels = jdbcTemplate.query(
+        "SELECT channel, address, is_activated, deactivation_reason "
+            + "FROM notification_channel WHERE settings_id = :settingsId",
+        Map.of("settingsId", settingsId),
+        (rs, rowNum) -> {
+          var channel = new ChannelReadDto();
+          channel.setChannel(Channel.valueOf(rs.getString("channel")));
+          channel.setAddress(rs.getString("address"));
+          channel.setActivated(rs.getBoolean("is_activated"));
+          channel.setDeactivationReason(rs.getString("deactivation_reason"));
+          return channel;
+        });
+    return new SettingsReadDto(settingsId, new ArrayList<>(channels));
+  }
+
+  @Benchmark
+  public SettingsReadDto singleJoinQuery() {
+    return settingsReadRepository.findByKeycloakId(randomKeycloakId()).orElseThrow().getSettings();
+  }
+
+  private UUID randomKeycloakId() {
+    return keycloakIds.get(ThreadLocalRandom.current().nextInt(keycloakIds.size()));
+  }
+}
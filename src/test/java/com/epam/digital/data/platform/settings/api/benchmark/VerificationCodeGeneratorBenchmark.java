@@ -0,0 +1,78 @@
+/*
+ *  Copyright 2021 EPAM Systems.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.epam.digital.data.platform.settings.api.benchmark;
+
+import com.epam.digital.data.platform.settings.api.config.SecureRandomConfig;
+import com.epam.digital.data.platform.settings.api.service.VerificationCodeGenerator;
+import com.epam.digital.data.platform.settings.api.service.impl.VerificationCodeGeneratorImpl;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures verification code generation throughput with a single shared DRBG instance (pool size
+ * 1, the previous behaviour) and with a striped pool of DRBG instances at 1, 8 and 64 threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class VerificationCodeGeneratorBenchmark {
+
+  private static final int[] THREADS = {1, 8, 64};
+
+  @Param({"1", "16"})
+  private int poolSize;
+
+  private VerificationCodeGenerator generator;
+
+  public static void main(String[] args) throws RunnerException {
+    for (int threads : THREADS) {
+      new Runner(new OptionsBuilder()
+          .include(VerificationCodeGeneratorBenchmark.class.getSimpleName())
+          .threads(threads)
+          .build())
+          .run();
+    }
+  }
+
+  @Setup
+  public void setUp() throws NoSuchAlgorithmException {
+    generator = new VerificationCodeGeneratorImpl(
+        new SecureRandomConfig().secureRandomPool(poolSize), 6);
+  }
+
+  @Benchmark
+  public String generate() {
+    return generator.generate();
+  }
+}
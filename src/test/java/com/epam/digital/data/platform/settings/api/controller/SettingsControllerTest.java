@@ -19,21 +19,29 @@ package com.epam.digital.data.platform.settings.api.controller;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.epam.digital.data.platform.settings.api.UserSettingsServiceApiApplication;
 import com.epam.digital.data.platform.settings.api.config.TestBeansConfig;
+import com.epam.digital.data.platform.settings.api.model.ChannelOwner;
+import com.epam.digital.data.platform.settings.api.model.UserClaims;
+import com.epam.digital.data.platform.settings.api.model.VersionedSettings;
 import com.epam.digital.data.platform.settings.api.service.ChannelVerificationService;
+import com.epam.digital.data.platform.settings.api.service.JwtInfoProvider;
 import com.epam.digital.data.platform.settings.api.service.SettingsActivationService;
+import com.epam.digital.data.platform.settings.api.service.SettingsExportService;
 import com.epam.digital.data.platform.settings.api.service.SettingsReadService;
 import com.epam.digital.data.platform.settings.api.service.SettingsValidationService;
 import com.epam.digital.data.platform.settings.api.utils.Header;
@@ -47,15 +55,23 @@ import com.epam.digital.data.platform.settings.model.dto.VerificationCodeExpirat
 import com.epam.digital.data.platform.settings.model.dto.VerificationInputDto;
 import com.epam.digital.data.platform.starter.localization.MessageResolver;
 import com.epam.digital.data.platform.starter.security.PermitAllWebSecurityConfig;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.TestPropertySource;
@@ -72,8 +88,11 @@ class SettingsControllerTest {
   private static final UUID SETTINGS_ID = UUID.fromString("123e4567-e89b-12d3-a456-426655440000");
   private static final UUID KEYCLOAK_ID = UUID.fromString("123e4567-e89b-12d3-a456-426655440001");
   private static final String EMAIL = "email@email.com";
+  private static final long VERSION = 1_672_567_200_000_000L;
 
   private static final String TOKEN = "token";
+  private static final UserClaims USER_CLAIMS = new UserClaims(
+      KEYCLOAK_ID.toString(), "user_name", "2222222222", List.of("citizen"));
 
   @Autowired
   private MockMvc mockMvc;
@@ -87,31 +106,72 @@ class SettingsControllerTest {
   @MockBean
   private SettingsValidationService settingsValidationService;
   @MockBean
+  private SettingsExportService settingsExportService;
+  @MockBean
   private MessageResolver messageResolver;
   @MockBean
   private ChannelVerificationService channelVerificationService;
+  @MockBean
+  private JwtInfoProvider jwtInfoProvider;
+
+  @BeforeEach
+  void beforeEach() {
+    when(jwtInfoProvider.getUserClaims(TOKEN)).thenReturn(USER_CLAIMS);
+  }
 
   @Test
   void expectControllerReturnSettingsFromToken() throws Exception {
-    var payload = new SettingsReadDto(SETTINGS_ID);
-    when(settingsReadService.findSettingsFromUserToken(any())).thenReturn(payload);
+    var payload = new VersionedSettings(new SettingsReadDto(SETTINGS_ID), VERSION);
+    when(settingsReadService.findSettingsFromUserClaims(USER_CLAIMS)).thenReturn(payload);
 
     mockMvc
         .perform(get(BASE_URL + "/me").header(Header.X_ACCESS_TOKEN.getHeaderName(), TOKEN))
         .andExpectAll(
             status().isOk(),
             content().contentType(MediaType.APPLICATION_JSON),
+            header().string(HttpHeaders.ETAG, payload.getETag()),
             jsonPath("$.settingsId", is(SETTINGS_ID.toString())),
             jsonPath("$.channels", is(Collections.emptyList())));
   }
 
+  @Test
+  void expectControllerReturnNotModifiedWhenSettingsVersionMatches() throws Exception {
+    var payload = new VersionedSettings(new SettingsReadDto(SETTINGS_ID), VERSION);
+    when(settingsReadService.findSettingsFromUserClaims(USER_CLAIMS)).thenReturn(payload);
+
+    mockMvc
+        .perform(get(BASE_URL + "/me")
+            .header(Header.X_ACCESS_TOKEN.getHeaderName(), TOKEN)
+            .header(HttpHeaders.IF_NONE_MATCH, payload.getETag()))
+        .andExpectAll(
+            status().isNotModified(),
+            header().string(HttpHeaders.ETAG, payload.getETag()),
+            content().string(""));
+  }
+
+  @Test
+  void expectControllerReturnSettingsWhenSettingsVersionChanged() throws Exception {
+    var stale = new VersionedSettings(new SettingsReadDto(SETTINGS_ID), VERSION);
+    var payload = new VersionedSettings(new SettingsReadDto(SETTINGS_ID), VERSION + 1);
+    when(settingsReadService.findSettingsByUserId(KEYCLOAK_ID)).thenReturn(payload);
+
+    mockMvc
+        .perform(get(BASE_URL + "/" + KEYCLOAK_ID)
+            .header(HttpHeaders.IF_NONE_MATCH, stale.getETag()))
+        .andExpectAll(
+            status().isOk(),
+            header().string(HttpHeaders.ETAG, payload.getETag()),
+            jsonPath("$.settingsId", is(SETTINGS_ID.toString())));
+  }
+
   @Test
   void expectControllerReturnSettingsByUserId() throws Exception {
     var channelDto = new ChannelReadDto();
     channelDto.setChannel(Channel.EMAIL);
     channelDto.setActivated(true);
     channelDto.setAddress(EMAIL);
-    var payload = new SettingsReadDto(SETTINGS_ID, Collections.singletonList(channelDto));
+    var payload = new VersionedSettings(
+        new SettingsReadDto(SETTINGS_ID, Collections.singletonList(channelDto)), VERSION);
 
     when(settingsReadService.findSettingsByUserId(KEYCLOAK_ID)).thenReturn(payload);
 
@@ -127,6 +187,44 @@ class SettingsControllerTest {
             jsonPath("$.channels[0].deactivationReason").doesNotExist());
   }
 
+  @Test
+  void expectControllerReturnSettingsOfSeveralUsers() throws Exception {
+    var payload = new SettingsReadDto(SETTINGS_ID);
+    when(settingsReadService.findSettingsByUserIds(List.of(KEYCLOAK_ID)))
+        .thenReturn(Map.of(KEYCLOAK_ID, payload));
+
+    mockMvc
+        .perform(
+            post(BASE_URL + "/batch")
+                .header(Header.X_ACCESS_TOKEN.getHeaderName(), TOKEN)
+                .content(objectMapper.writeValueAsString(List.of(KEYCLOAK_ID)))
+                .contentType(MediaType.APPLICATION_JSON))
+        .andExpectAll(
+            status().isOk(),
+            content().contentType(MediaType.APPLICATION_JSON),
+            jsonPath("$['" + KEYCLOAK_ID + "'].settingsId", is(SETTINGS_ID.toString())));
+  }
+
+  @Test
+  void expectControllerReturnChannelOwnersByAddresses() throws Exception {
+    when(settingsReadService.findChannelOwnersByAddresses(List.of(EMAIL)))
+        .thenReturn(List.of(new ChannelOwner(EMAIL, KEYCLOAK_ID, Channel.EMAIL, true)));
+
+    mockMvc
+        .perform(
+            post(BASE_URL + "/channels/by-address")
+                .header(Header.X_ACCESS_TOKEN.getHeaderName(), TOKEN)
+                .content(objectMapper.writeValueAsString(List.of(EMAIL)))
+                .contentType(MediaType.APPLICATION_JSON))
+        .andExpectAll(
+            status().isOk(),
+            content().contentType(MediaType.APPLICATION_JSON),
+            jsonPath("$[0].address", is(EMAIL)),
+            jsonPath("$[0].keycloakId", is(KEYCLOAK_ID.toString())),
+            jsonPath("$[0].activated", is(true)));
+    verify(settingsReadService).verifyChannelOwnersLookupAllowed(USER_CLAIMS);
+  }
+
   @Test
   void expectControllerActivateEmailChannel() throws Exception {
     var payload = new ActivateChannelInputDto();
@@ -142,7 +240,7 @@ class SettingsControllerTest {
             status().isOk());
 
     var captor = ArgumentCaptor.forClass(ActivateChannelInputDto.class);
-    verify(settingsActivationService).activateChannel(captor.capture(), eq(Channel.EMAIL), eq(TOKEN));
+    verify(settingsActivationService).activateChannel(captor.capture(), eq(Channel.EMAIL), eq(USER_CLAIMS));
     assertThat(captor.getValue().getAddress()).isEqualTo(EMAIL);
   }
 
@@ -160,7 +258,7 @@ class SettingsControllerTest {
         .andExpectAll(status().isOk());
 
     var captor = ArgumentCaptor.forClass(ActivateChannelInputDto.class);
-    verify(settingsActivationService).activateChannel(captor.capture(), eq(Channel.DIIA), eq(TOKEN));
+    verify(settingsActivationService).activateChannel(captor.capture(), eq(Channel.DIIA), eq(USER_CLAIMS));
     var capturedPayload = captor.getValue();
     assertThat(capturedPayload.getAddress()).isEqualTo(payload.getAddress());
     assertThat(capturedPayload.getVerificationCode()).isEqualTo(payload.getVerificationCode());
@@ -181,7 +279,7 @@ class SettingsControllerTest {
 
     var captor = ArgumentCaptor.forClass(SettingsDeactivateChannelInputDto.class);
     verify(settingsActivationService)
-        .deactivateChannel(eq(Channel.DIIA), captor.capture(), eq(TOKEN));
+        .deactivateChannel(eq(Channel.DIIA), captor.capture(), eq(USER_CLAIMS));
     assertThat(captor.getValue().getDeactivationReason()).isEqualTo("Reason");
   }
 
@@ -190,7 +288,7 @@ class SettingsControllerTest {
     var request = new SettingsEmailInputDto();
     request.setAddress(EMAIL);
     when(channelVerificationService.sendVerificationCode(any(Channel.class), any(
-        VerificationInputDto.class), anyString()))
+        VerificationInputDto.class), any(UserClaims.class)))
         .thenReturn(new VerificationCodeExpirationDto(60));
 
     mockMvc
@@ -204,6 +302,55 @@ class SettingsControllerTest {
             jsonPath("$.verificationCodeExpirationSec", is(60)));
 
     verify(channelVerificationService).sendVerificationCode(eq(Channel.EMAIL),
-        argThat(dto -> EMAIL.equals(dto.getAddress())), eq(TOKEN));
+        argThat(dto -> EMAIL.equals(dto.getAddress())), eq(USER_CLAIMS));
+  }
+
+  @Test
+  void expectControllerStreamBatchEmailValidationResult() throws Exception {
+    doAnswer(invocation -> {
+      JsonParser parser = invocation.getArgument(0);
+      JsonGenerator generator = invocation.getArgument(1);
+      generator.writeStartArray();
+      generator.writeString(parser.nextTextValue());
+      generator.writeEndArray();
+      return null;
+    }).when(settingsValidationService).validateEmailAddresses(any(), any());
+
+    var result = mockMvc
+        .perform(
+            post(BASE_URL + "/me/channels/email/validate/batch")
+                .header(Header.X_ACCESS_TOKEN.getHeaderName(), TOKEN)
+                .content("[\"" + EMAIL + "\"]")
+                .contentType(MediaType.APPLICATION_JSON))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+    assertThat(result.getRequest().getAsyncContext().getTimeout()).isNotEqualTo(3_600_000L);
+
+    mockMvc.perform(asyncDispatch(result))
+        .andExpectAll(status().isOk(),
+            content().contentType(MediaType.APPLICATION_JSON),
+            content().json("[\"" + EMAIL + "\"]"));
+  }
+
+  @Test
+  void expectControllerStreamSettingsExport() throws Exception {
+    var line = "{\"settingsId\":\"" + SETTINGS_ID + "\",\"channels\":[]}\n";
+    doAnswer(invocation -> {
+      OutputStream outputStream = invocation.getArgument(0);
+      outputStream.write(line.getBytes(StandardCharsets.UTF_8));
+      return null;
+    }).when(settingsExportService).exportSettings(any());
+
+    var result = mockMvc
+        .perform(get(BASE_URL + "/export").header(Header.X_ACCESS_TOKEN.getHeaderName(), TOKEN))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+    assertThat(result.getRequest().getAsyncContext().getTimeout()).isEqualTo(3_600_000L);
+
+    mockMvc.perform(asyncDispatch(result))
+        .andExpectAll(status().isOk(),
+            content().contentType(MediaType.APPLICATION_NDJSON),
+            content().string(line));
+    verify(settingsExportService).verifyExportAllowed(USER_CLAIMS);
   }
 }
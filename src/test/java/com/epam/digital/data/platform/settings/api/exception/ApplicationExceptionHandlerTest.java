@@ -20,21 +20,26 @@ import static com.epam.digital.data.platform.settings.api.utils.Header.X_ACCESS_
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.epam.digital.data.platform.settings.api.config.WebConfig;
 import com.epam.digital.data.platform.settings.api.controller.SettingsController;
 import com.epam.digital.data.platform.settings.api.converter.StringToChannelConverter;
 import com.epam.digital.data.platform.settings.api.model.DetailedErrorResponse;
+import com.epam.digital.data.platform.settings.api.interceptor.LivenessProbeStateInterceptor;
 import com.epam.digital.data.platform.settings.api.model.FieldsValidationErrorDetails;
+import com.epam.digital.data.platform.settings.api.resolver.UserClaimsArgumentResolver;
 import com.epam.digital.data.platform.settings.api.service.ChannelVerificationService;
+import com.epam.digital.data.platform.settings.api.service.JwtInfoProvider;
 import com.epam.digital.data.platform.settings.api.service.SettingsActivationService;
+import com.epam.digital.data.platform.settings.api.service.SettingsExportService;
 import com.epam.digital.data.platform.settings.api.service.SettingsReadService;
 import com.epam.digital.data.platform.settings.api.service.SettingsValidationService;
 import com.epam.digital.data.platform.settings.api.service.TraceService;
@@ -43,6 +48,7 @@ import com.epam.digital.data.platform.settings.model.dto.ActivateChannelInputDto
 import com.epam.digital.data.platform.settings.model.dto.Channel;
 import com.epam.digital.data.platform.settings.model.dto.SettingsEmailInputDto;
 import com.epam.digital.data.platform.settings.model.dto.VerificationInputDto;
+import com.epam.digital.data.platform.starter.actuator.livenessprobe.LivenessStateHandler;
 import com.epam.digital.data.platform.starter.localization.MessageResolver;
 import com.epam.digital.data.platform.starter.security.PermitAllWebSecurityConfig;
 import com.epam.digital.data.platform.starter.security.exception.JwtParsingException;
@@ -56,6 +62,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.test.context.ContextConfiguration;
@@ -68,7 +75,8 @@ import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExcep
 @WebMvcTest
 @ContextConfiguration(
     classes = {SettingsController.class, ApplicationExceptionHandler.class, TokenParser.class,
-        StringToChannelConverter.class})
+        StringToChannelConverter.class, WebConfig.class, LivenessProbeStateInterceptor.class,
+        UserClaimsArgumentResolver.class})
 @Import({TokenProvider.class, PermitAllWebSecurityConfig.class})
 class ApplicationExceptionHandlerTest extends ResponseEntityExceptionHandler {
 
@@ -91,9 +99,15 @@ class ApplicationExceptionHandlerTest extends ResponseEntityExceptionHandler {
   @MockBean
   private SettingsValidationService settingsValidationService;
   @MockBean
+  private SettingsExportService settingsExportService;
+  @MockBean
   private MessageResolver messageResolver;
   @MockBean
   private ChannelVerificationService channelVerificationFacade;
+  @MockBean
+  private JwtInfoProvider jwtInfoProvider;
+  @MockBean
+  private LivenessStateHandler livenessStateHandler;
 
   @BeforeEach
   void beforeEach() {
@@ -102,7 +116,7 @@ class ApplicationExceptionHandlerTest extends ResponseEntityExceptionHandler {
 
   @Test
   void shouldReturnRuntimeErrorOnGenericException() throws Exception {
-    when(settingsReadService.findSettingsFromUserToken(any())).thenThrow(RuntimeException.class);
+    when(settingsReadService.findSettingsFromUserClaims(any())).thenThrow(RuntimeException.class);
 
     mockMvc
         .perform(get(BASE_URL + "/me").header(X_ACCESS_TOKEN.getHeaderName(), TOKEN))
@@ -113,9 +127,24 @@ class ApplicationExceptionHandlerTest extends ResponseEntityExceptionHandler {
             jsonPath("$.details").doesNotExist());
   }
 
+  @Test
+  void shouldReturnServiceUnavailableOnSettingsReadTimeout() throws Exception {
+    when(settingsReadService.findSettingsFromUserClaims(any()))
+        .thenThrow(new SettingsReadTimeoutException("Timed out", new RuntimeException()));
+
+    mockMvc
+        .perform(get(BASE_URL + "/me").header(X_ACCESS_TOKEN.getHeaderName(), TOKEN))
+        .andExpect(status().isServiceUnavailable())
+        .andExpectAll(
+            header().string(HttpHeaders.RETRY_AFTER, "5"),
+            jsonPath("$.traceId").value(is(TRACE_ID)),
+            jsonPath("$.code").value(is(ResponseCode.SERVICE_UNAVAILABLE)),
+            jsonPath("$.details").doesNotExist());
+  }
+
   @Test
   void shouldReturnBadRequestOnHttpNotReadable() throws Exception {
-    when(settingsReadService.findSettingsFromUserToken(any())).thenThrow(
+    when(settingsReadService.findSettingsFromUserClaims(any())).thenThrow(
         HttpMessageNotReadableException.class);
 
     mockMvc
@@ -127,6 +156,23 @@ class ApplicationExceptionHandlerTest extends ResponseEntityExceptionHandler {
                     response.getResolvedException() instanceof HttpMessageNotReadableException));
   }
 
+  @Test
+  void shouldReturnBadRequestWhenBatchValidationBodyIsNotJsonArray() throws Exception {
+    mockMvc
+        .perform(post(BASE_URL + "/me/channels/email/validate/batch")
+            .header(X_ACCESS_TOKEN.getHeaderName(), TOKEN)
+            .content("{\"address\":\"email@email.com\"}")
+            .contentType(MediaType.APPLICATION_JSON))
+        .andExpect(status().isBadRequest())
+        .andExpectAll(
+            jsonPath("$.traceId").value(is(TRACE_ID)),
+            jsonPath("$.code").value(is(ResponseCode.CLIENT_ERROR)))
+        .andExpect(
+            response ->
+                assertTrue(
+                    response.getResolvedException() instanceof BatchInputNotReadableException));
+  }
+
   @Test
   void shouldReturn415WithBodyWhenMediaTypeIsNotSupported() throws Exception {
     var unsupportedMediaType = MediaType.APPLICATION_PDF;
@@ -173,7 +219,7 @@ class ApplicationExceptionHandlerTest extends ResponseEntityExceptionHandler {
 
   @Test
   void shouldReturn401WhenJwtParsingException() throws Exception {
-    when(settingsReadService.findSettingsFromUserToken(any())).thenThrow(JwtParsingException.class);
+    when(jwtInfoProvider.getUserClaims(TOKEN)).thenThrow(JwtParsingException.class);
 
     mockMvc
         .perform(get(BASE_URL + "/me").header(X_ACCESS_TOKEN.getHeaderName(), TOKEN))
@@ -230,7 +276,7 @@ class ApplicationExceptionHandlerTest extends ResponseEntityExceptionHandler {
     var exception = new ChannelVerificationException("message");
 
     when(channelVerificationFacade.sendVerificationCode(any(Channel.class), any(
-        VerificationInputDto.class), anyString())).thenThrow(exception);
+        VerificationInputDto.class), any())).thenThrow(exception);
 
     mockMvc
         .perform(post(BASE_URL + "/me/channels/email/verify")
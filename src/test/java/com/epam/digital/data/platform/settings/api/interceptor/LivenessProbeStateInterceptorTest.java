@@ -25,10 +25,14 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 
 import com.epam.digital.data.platform.settings.api.config.WebConfig;
 import com.epam.digital.data.platform.settings.api.controller.SettingsController;
+import com.epam.digital.data.platform.settings.api.resolver.UserClaimsArgumentResolver;
 import com.epam.digital.data.platform.settings.api.service.SettingsActivationService;
+import com.epam.digital.data.platform.settings.api.service.SettingsExportService;
 import com.epam.digital.data.platform.settings.api.service.ChannelVerificationService;
+import com.epam.digital.data.platform.settings.api.service.JwtInfoProvider;
 import com.epam.digital.data.platform.settings.api.service.SettingsReadService;
 import com.epam.digital.data.platform.settings.api.service.SettingsValidationService;
+import com.epam.digital.data.platform.settings.api.model.VersionedSettings;
 import com.epam.digital.data.platform.settings.model.dto.SettingsReadDto;
 import com.epam.digital.data.platform.starter.actuator.livenessprobe.LivenessStateHandler;
 import com.epam.digital.data.platform.starter.security.PermitAllWebSecurityConfig;
@@ -48,7 +52,7 @@ import java.util.UUID;
 @WebMvcTest
 @ContextConfiguration(
     classes = {SettingsController.class, LivenessProbeStateInterceptor.class, WebConfig.class,
-    TokenProvider.class, TokenParser.class})
+    UserClaimsArgumentResolver.class, TokenProvider.class, TokenParser.class})
 @Import({PermitAllWebSecurityConfig.class})
 class LivenessProbeStateInterceptorTest {
 
@@ -66,12 +70,16 @@ class LivenessProbeStateInterceptorTest {
   @MockBean
   private SettingsValidationService settingsValidationService;
   @MockBean
+  private SettingsExportService settingsExportService;
+  @MockBean
   private ChannelVerificationService channelVerificationFacade;
+  @MockBean
+  private JwtInfoProvider jwtInfoProvider;
 
   @Test
   void expectStateHandlerIsCalledInInterceptor() throws Exception {
-    when(settingsReadService.findSettingsFromUserToken(any()))
-        .thenReturn(new SettingsReadDto(UUID.randomUUID()));
+    when(settingsReadService.findSettingsFromUserClaims(any()))
+        .thenReturn(new VersionedSettings(new SettingsReadDto(UUID.randomUUID()), 0L));
 
     mockMvc.perform(get(BASE_URL).header(X_ACCESS_TOKEN.getHeaderName(), "token"));
 
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.settings.api.listener;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.epam.digital.data.platform.settings.api.model.BounceEvent;
+import com.epam.digital.data.platform.settings.api.model.ChannelOwner;
+import com.epam.digital.data.platform.settings.api.service.BounceDeactivationService;
+import com.epam.digital.data.platform.settings.model.dto.Channel;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.kafka.support.Acknowledgment;
+
+@ExtendWith(MockitoExtension.class)
+class BounceEventListenerTest {
+
+  private static final Instant NOW = Instant.parse("2023-01-01T10:00:00Z");
+  private static final String DEFAULT_REASON = "Email address bounced";
+
+  @Mock
+  private BounceDeactivationService bounceDeactivationService;
+  @Mock
+  private Acknowledgment acknowledgment;
+
+  private SimpleMeterRegistry meterRegistry;
+  private BounceEventListener listener;
+
+  @BeforeEach
+  void beforeEach() {
+    meterRegistry = new SimpleMeterRegistry();
+    listener = new BounceEventListener(bounceDeactivationService, new ObjectMapper(),
+        Clock.fixed(NOW, ZoneOffset.UTC), meterRegistry, DEFAULT_REASON);
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  void expectBatchDeactivatedBeforeOffsetsCommitted() {
+    var owner = new ChannelOwner("first@email.com", UUID.randomUUID(), Channel.EMAIL, false);
+    when(bounceDeactivationService.deactivate(any())).thenReturn(List.of(owner));
+
+    listener.onBounces(List.of(
+        bounceRecord(0, "{\"address\":\"first@email.com\",\"reason\":\"Unknown user\"}", 2000),
+        bounceRecord(1, "{\"address\":\"second@email.com\"}", 1000)), acknowledgment);
+
+    var captor = ArgumentCaptor.forClass(List.class);
+    var order = inOrder(bounceDeactivationService, acknowledgment);
+    order.verify(bounceDeactivationService).deactivate(captor.capture());
+    order.verify(acknowledgment).acknowledge();
+    List<BounceEvent> bounces = captor.getValue();
+    assertThat(bounces).extracting(BounceEvent::getAddress)
+        .containsExactly("first@email.com", "second@email.com");
+    assertThat(bounces).extracting(BounceEvent::getReason)
+        .containsExactly("Unknown user", DEFAULT_REASON);
+    assertThat(bounces).extracting(BounceEvent::getSource)
+        .containsExactly("email-bounces-0@0", "email-bounces-0@1");
+    assertThat(meterRegistry.get("bounce.consumer.batch.size").summary().totalAmount())
+        .isEqualTo(2);
+    assertThat(meterRegistry.get("bounce.consumer.lag").timer().max(TimeUnit.MILLISECONDS))
+        .isEqualTo(2000);
+    assertThat(meterRegistry.get("bounce.consumer.deactivated").counter().count()).isEqualTo(1);
+  }
+
+  @Test
+  void expectMalformedEventsSkipped() {
+    when(bounceDeactivationService.deactivate(List.of())).thenReturn(List.of());
+
+    listener.onBounces(List.of(
+        bounceRecord(0, "not json", 0),
+        bounceRecord(1, "{\"reason\":\"Unknown user\"}", 0),
+        bounceRecord(2, null, 0)), acknowledgment);
+
+    verify(acknowledgment).acknowledge();
+    assertThat(meterRegistry.get("bounce.consumer.malformed").counter().count()).isEqualTo(3);
+  }
+
+  @Test
+  void expectOffsetsNotCommittedWhenDeactivationFails() {
+    when(bounceDeactivationService.deactivate(any()))
+        .thenThrow(new DataAccessResourceFailureException("Database is down"));
+    var records = List.of(bounceRecord(0, "{\"address\":\"first@email.com\"}", 0));
+
+    assertThatThrownBy(() -> listener.onBounces(records, acknowledgment))
+        .isInstanceOf(DataAccessResourceFailureException.class);
+    verifyNoInteractions(acknowledgment);
+  }
+
+  private ConsumerRecord<String, String> bounceRecord(long offset, String value, long ageMillis) {
+    return new ConsumerRecord<>("email-bounces", 0, offset, NOW.toEpochMilli() - ageMillis,
+        TimestampType.CREATE_TIME, -1, -1, null, value, new RecordHeaders(), Optional.empty());
+  }
+}
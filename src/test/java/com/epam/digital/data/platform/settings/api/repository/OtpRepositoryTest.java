@@ -0,0 +1,112 @@
+/*
+ *  Copyright 2021 EPAM Systems.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.epam.digital.data.platform.settings.api.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.epam.digital.data.platform.settings.api.model.OtpData;
+import com.epam.digital.data.platform.settings.api.model.OtpVerificationResult;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+@ExtendWith(MockitoExtension.class)
+class OtpRepositoryTest {
+
+  private static final String ID = "user_id/email";
+  private static final String KEY = "channel-verification-codes:user_id/email";
+
+  @Mock
+  private StringRedisTemplate redisTemplate;
+  @Mock
+  private ValueOperations<String, String> valueOperations;
+
+  private OtpRepository otpRepository;
+
+  @BeforeEach
+  void beforeEach() {
+    otpRepository = new OtpRepository(redisTemplate, 60);
+  }
+
+  @Test
+  void expectOtpSavedWithSingleSetCommand() {
+    when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+
+    otpRepository.save(ID, new OtpData("test@email.addr", "654321"));
+
+    verify(valueOperations).set(KEY, "654321:test@email.addr", Duration.ofSeconds(60));
+  }
+
+  @Test
+  void expectStoredOtpFoundById() {
+    when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    when(valueOperations.get(KEY)).thenReturn("654321:test@email.addr");
+
+    var actual = otpRepository.find(ID);
+
+    assertThat(actual.getVerificationCode()).isEqualTo("654321");
+    assertThat(actual.getAddress()).isEqualTo("test@email.addr");
+  }
+
+  @Test
+  void expectNoOtpForMissingKey() {
+    when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+
+    assertThat(otpRepository.find(ID)).isNull();
+  }
+
+  @Test
+  void expectOtpVerifiedAndConsumedWithSingleScriptCall() {
+    when(redisTemplate.execute(any(RedisScript.class), eq(List.of(KEY)),
+        eq("654321:test@email.addr"))).thenReturn(0L);
+
+    var actual = otpRepository.verifyAndConsume(ID, "654321", "test@email.addr");
+
+    assertThat(actual).isEqualTo(OtpVerificationResult.OK);
+  }
+
+  @Test
+  void expectMismatchResultMapped() {
+    when(redisTemplate.execute(any(RedisScript.class), eq(List.of(KEY)),
+        eq("111111:test@email.addr"))).thenReturn(1L);
+
+    var actual = otpRepository.verifyAndConsume(ID, "111111", "test@email.addr");
+
+    assertThat(actual).isEqualTo(OtpVerificationResult.MISMATCH);
+  }
+
+  @Test
+  void expectExpiredResultMapped() {
+    when(redisTemplate.execute(any(RedisScript.class), eq(List.of(KEY)),
+        eq("654321:test@email.addr"))).thenReturn(2L);
+
+    var actual = otpRepository.verifyAndConsume(ID, "654321", "test@email.addr");
+
+    assertThat(actual).isEqualTo(OtpVerificationResult.EXPIRED);
+  }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.settings.api.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.epam.digital.data.platform.settings.api.model.SettingsChangedEvent;
+import com.epam.digital.data.platform.settings.api.model.VersionedSettings;
+import com.epam.digital.data.platform.settings.model.dto.Channel;
+import com.epam.digital.data.platform.settings.model.dto.ChannelReadDto;
+import com.epam.digital.data.platform.settings.model.dto.SettingsReadDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+@ExtendWith(MockitoExtension.class)
+class SettingsSharedCacheRepositoryTest {
+
+  private static final UUID KEYCLOAK_ID = UUID.fromString("123e4567-e89b-12d3-a456-426655440000");
+  private static final UUID OTHER_KEYCLOAK_ID =
+      UUID.fromString("123e4567-e89b-12d3-a456-426655440001");
+  private static final UUID SETTINGS_ID = UUID.fromString("321e7654-e89b-12d3-a456-426655441111");
+  private static final String KEY = "user-settings:123e4567-e89b-12d3-a456-426655440000";
+  private static final long VERSION = 1_672_567_200_000_000L;
+
+  @Mock
+  private StringRedisTemplate redisTemplate;
+  @Mock
+  private ValueOperations<String, String> valueOperations;
+  @Mock
+  private StringRedisConnection connection;
+  @Captor
+  private ArgumentCaptor<RedisCallback<Object>> callbackCaptor;
+
+  private SimpleMeterRegistry meterRegistry;
+  private SettingsSharedCacheRepository repository;
+
+  @BeforeEach
+  void beforeEach() {
+    meterRegistry = new SimpleMeterRegistry();
+    repository = new SettingsSharedCacheRepository(
+        redisTemplate, new ObjectMapper(), 300, meterRegistry);
+  }
+
+  @Test
+  void expectCachedSettingsDecodedWithVersion() throws Exception {
+    var channel = new ChannelReadDto();
+    channel.setChannel(Channel.EMAIL);
+    channel.setActivated(true);
+    channel.setAddress("email@email.com");
+    var encoded = repository.encode(
+        new VersionedSettings(new SettingsReadDto(SETTINGS_ID, List.of(channel)), VERSION));
+    when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    when(valueOperations.get(KEY)).thenReturn(encoded);
+
+    var actual = repository.get(KEYCLOAK_ID);
+
+    assertThat(actual.getVersion()).isEqualTo(VERSION);
+    assertThat(actual.getSettings().getSettingsId()).isEqualTo(SETTINGS_ID);
+    assertThat(actual.getSettings().getChannels()).hasSize(1);
+    assertThat(actual.getSettings().getChannels().get(0).getAddress())
+        .isEqualTo("email@email.com");
+    assertThat(gets("hit")).isEqualTo(1);
+  }
+
+  @Test
+  void expectMissForAbsentKey() {
+    when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+
+    assertThat(repository.get(KEYCLOAK_ID)).isNull();
+    assertThat(gets("miss")).isEqualTo(1);
+  }
+
+  @Test
+  void expectRedisFailureTreatedAsMiss() {
+    when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    when(valueOperations.get(KEY)).thenThrow(new RedisConnectionFailureException("down"));
+
+    assertThat(repository.get(KEYCLOAK_ID)).isNull();
+    assertThat(errors()).isEqualTo(1);
+  }
+
+  @Test
+  void expectMalformedValueTreatedAsMiss() {
+    when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    when(valueOperations.get(KEY)).thenReturn("not cached settings");
+
+    assertThat(repository.get(KEYCLOAK_ID)).isNull();
+    assertThat(errors()).isEqualTo(1);
+  }
+
+  @Test
+  void expectTombstoneTreatedAsMiss() {
+    when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    when(valueOperations.get(KEY)).thenReturn(SettingsSharedCacheRepository.tombstone(VERSION));
+
+    assertThat(repository.get(KEYCLOAK_ID)).isNull();
+    assertThat(gets("miss")).isEqualTo(1);
+    assertThat(errors()).isZero();
+  }
+
+  @Test
+  void expectBatchReturnsOnlyCachedSettings() throws Exception {
+    var encoded = repository.encode(
+        new VersionedSettings(new SettingsReadDto(SETTINGS_ID), VERSION));
+    when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    when(valueOperations.multiGet(List.of(KEY, "user-settings:" + OTHER_KEYCLOAK_ID)))
+        .thenReturn(Arrays.asList(encoded, null));
+
+    var actual = repository.getAll(List.of(KEYCLOAK_ID, OTHER_KEYCLOAK_ID));
+
+    assertThat(actual).containsOnlyKeys(KEYCLOAK_ID);
+    assertThat(gets("hit")).isEqualTo(1);
+    assertThat(gets("miss")).isEqualTo(1);
+  }
+
+  @Test
+  void expectSettingsStoredInSinglePipelineGuardedByVersion() throws Exception {
+    var settings = new VersionedSettings(new SettingsReadDto(SETTINGS_ID), VERSION);
+
+    repository.put(KEYCLOAK_ID, settings);
+
+    verify(redisTemplate).executePipelined(callbackCaptor.capture());
+    callbackCaptor.getValue().doInRedis(connection);
+    verify(connection).eval(anyString(), eq(ReturnType.INTEGER), eq(1), eq(KEY),
+        eq(Long.toString(VERSION)), eq(repository.encode(settings)), eq("300"));
+  }
+
+  @Test
+  void expectTombstoneWithNewVersionStoredOnSettingsChange() {
+    repository.onSettingsChanged(
+        new SettingsChangedEvent(KEYCLOAK_ID, Channel.EMAIL, false, null, VERSION));
+
+    verify(redisTemplate).execute(callbackCaptor.capture());
+    callbackCaptor.getValue().doInRedis(connection);
+    verify(connection).eval(anyString(), eq(ReturnType.INTEGER), eq(1), eq(KEY),
+        eq(Long.toString(VERSION)), eq(Long.toHexString(VERSION) + ":"), eq("300"));
+  }
+
+  @Test
+  void expectInvalidationFailureNotPropagated() {
+    doThrow(new RedisConnectionFailureException("down"))
+        .when(redisTemplate).execute(any(RedisCallback.class));
+
+    repository.invalidate(KEYCLOAK_ID, VERSION);
+
+    assertThat(errors()).isEqualTo(1);
+  }
+
+  private double gets(String result) {
+    return meterRegistry.get("settings.shared-cache.gets").tag("result", result).counter()
+        .count();
+  }
+
+  private double errors() {
+    return meterRegistry.get("settings.shared-cache.errors").counter().count();
+  }
+}
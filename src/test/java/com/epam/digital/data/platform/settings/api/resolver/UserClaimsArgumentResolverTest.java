@@ -0,0 +1,79 @@
+/*
+ *  Copyright 2021 EPAM Systems.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.epam.digital.data.platform.settings.api.resolver;
+
+import static com.epam.digital.data.platform.settings.api.utils.Header.X_ACCESS_TOKEN;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.epam.digital.data.platform.settings.api.model.UserClaims;
+import com.epam.digital.data.platform.settings.api.service.JwtInfoProvider;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.MethodParameter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.bind.MissingRequestHeaderException;
+import org.springframework.web.context.request.ServletWebRequest;
+
+@ExtendWith(MockitoExtension.class)
+class UserClaimsArgumentResolverTest {
+
+  private static final String TOKEN = "token";
+
+  @Mock
+  private JwtInfoProvider jwtInfoProvider;
+  @Mock
+  private MethodParameter methodParameter;
+
+  private UserClaimsArgumentResolver resolver;
+
+  @BeforeEach
+  void beforeEach() {
+    resolver = new UserClaimsArgumentResolver(jwtInfoProvider);
+  }
+
+  @Test
+  void expectTokenParsedOncePerRequest() throws Exception {
+    var userClaims = new UserClaims("user_id", "user_name", "1234567890", List.of("citizen"));
+    when(jwtInfoProvider.getUserClaims(TOKEN)).thenReturn(userClaims);
+    var request = new MockHttpServletRequest();
+    request.addHeader(X_ACCESS_TOKEN.getHeaderName(), TOKEN);
+    var webRequest = new ServletWebRequest(request);
+
+    var first = resolver.resolveArgument(methodParameter, null, webRequest, null);
+    var second = resolver.resolveArgument(methodParameter, null, webRequest, null);
+
+    assertThat(first).isSameAs(userClaims);
+    assertThat(second).isSameAs(userClaims);
+    verify(jwtInfoProvider, times(1)).getUserClaims(TOKEN);
+  }
+
+  @Test
+  void expectMissingHeaderExceptionWhenNoToken() {
+    var webRequest = new ServletWebRequest(new MockHttpServletRequest());
+
+    assertThatThrownBy(() -> resolver.resolveArgument(methodParameter, null, webRequest, null))
+        .isInstanceOf(MissingRequestHeaderException.class);
+  }
+}
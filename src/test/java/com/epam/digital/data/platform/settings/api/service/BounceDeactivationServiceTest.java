@@ -0,0 +1,127 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.settings.api.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.epam.digital.data.platform.settings.api.audit.SettingsAuditFacade;
+import com.epam.digital.data.platform.settings.api.model.BounceEvent;
+import com.epam.digital.data.platform.settings.api.model.ChannelOwner;
+import com.epam.digital.data.platform.settings.api.model.DeactivatedChannel;
+import com.epam.digital.data.platform.settings.api.model.SettingsChangedEvent;
+import com.epam.digital.data.platform.settings.api.repository.ChannelDeactivationRepository;
+import com.epam.digital.data.platform.settings.model.dto.Channel;
+import com.epam.digital.data.platform.settings.model.dto.SettingsDeactivateChannelInputDto;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class BounceDeactivationServiceTest {
+
+  private static final long VERSION = 1_672_567_200_123_456L;
+  private static final UUID KEYCLOAK_ID = UUID.fromString("496fd2fd-3497-4391-9ead-41410522d06f");
+
+  @Mock
+  private ChannelDeactivationRepository channelDeactivationRepository;
+  @Mock
+  private SettingsCacheService settingsCacheService;
+  @Mock
+  private SettingsAuditFacade auditFacade;
+  @Mock
+  private PlatformTransactionManager transactionManager;
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  private BounceDeactivationService bounceDeactivationService;
+
+  @BeforeEach
+  void beforeEach() {
+    bounceDeactivationService = new BounceDeactivationService(channelDeactivationRepository,
+        settingsCacheService, auditFacade, transactionManager, eventPublisher);
+  }
+
+  @Test
+  void expectBouncedAddressesDeactivatedInOneUpdateAndAudited() {
+    var deactivated = new ChannelOwner("first@email.com", KEYCLOAK_ID, Channel.EMAIL, false);
+    when(channelDeactivationRepository.deactivateEmailChannels(
+        List.of("first@email.com", "second@email.com"),
+        List.of("Mailbox full", "Unknown user")))
+        .thenReturn(List.of(new DeactivatedChannel(deactivated, VERSION)));
+
+    var actual = bounceDeactivationService.deactivate(List.of(
+        bounce("first@email.com", "Unknown user", "bounces-0@1"),
+        bounce("second@email.com", "Unknown user", "bounces-0@2"),
+        bounce("first@email.com", "Mailbox full", "bounces-0@3")));
+
+    assertThat(actual).containsExactly(deactivated);
+    var inOrder = inOrder(eventPublisher, transactionManager, settingsCacheService);
+    inOrder.verify(eventPublisher).publishEvent(any(SettingsChangedEvent.class));
+    inOrder.verify(transactionManager).commit(any());
+    inOrder.verify(settingsCacheService).invalidate(KEYCLOAK_ID);
+    var captor = ArgumentCaptor.forClass(SettingsDeactivateChannelInputDto.class);
+    verify(auditFacade)
+        .sendBounceDeactivationAudit(eq(Channel.EMAIL), captor.capture(), eq("bounces-0@3"));
+    assertThat(captor.getValue().getAddress()).isEqualTo("first@email.com");
+    assertThat(captor.getValue().getDeactivationReason()).isEqualTo("Mailbox full");
+    var event = ArgumentCaptor.forClass(SettingsChangedEvent.class);
+    verify(eventPublisher).publishEvent(event.capture());
+    assertThat(event.getValue().getKeycloakId()).isEqualTo(KEYCLOAK_ID);
+    assertThat(event.getValue().getAddress()).isEqualTo("first@email.com");
+    assertThat(event.getValue().isActivated()).isFalse();
+    assertThat(event.getValue().getVersion()).isEqualTo(VERSION);
+  }
+
+  @Test
+  void expectNothingDoneForEmptyBatch() {
+    var actual = bounceDeactivationService.deactivate(List.of());
+
+    assertThat(actual).isEmpty();
+    verifyNoInteractions(channelDeactivationRepository, transactionManager, auditFacade);
+  }
+
+  @Test
+  void expectNoAuditForAddressesThatWereNotActive() {
+    when(channelDeactivationRepository.deactivateEmailChannels(any(), any()))
+        .thenReturn(List.of());
+
+    bounceDeactivationService.deactivate(List.of(new BounceEvent("a@email.com", "Bounce")));
+
+    verify(settingsCacheService, never()).invalidate(any());
+    verifyNoInteractions(auditFacade, eventPublisher);
+  }
+
+  private static BounceEvent bounce(String address, String reason, String source) {
+    var bounce = new BounceEvent(address, reason);
+    bounce.setSource(source);
+    return bounce;
+  }
+}
@@ -19,19 +19,21 @@ package com.epam.digital.data.platform.settings.api.service;
 import static org.apache.commons.lang3.StringUtils.EMPTY;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.epam.digital.data.platform.notification.dto.Recipient;
-import com.epam.digital.data.platform.settings.api.entity.OtpEntity;
 import com.epam.digital.data.platform.settings.api.model.OtpData;
+import com.epam.digital.data.platform.settings.api.model.OtpVerificationResult;
+import com.epam.digital.data.platform.settings.api.model.UserClaims;
 import com.epam.digital.data.platform.settings.api.repository.OtpRepository;
 import com.epam.digital.data.platform.settings.api.service.impl.ChannelVerificationServiceImpl;
 import com.epam.digital.data.platform.settings.model.dto.Channel;
 import com.epam.digital.data.platform.settings.model.dto.VerificationInputDto;
 import com.epam.digital.data.platform.starter.security.SystemRole;
 import java.util.List;
-import java.util.Optional;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -46,10 +48,11 @@ import org.springframework.security.access.AccessDeniedException;
 class ChannelVerificationServiceTest {
 
   private static final int OTP_TTL = 60;
-  private static final String VALID_ACCESS_TOKEN = "valid_access_token";
-  private static final String INVALID_ACCESS_TOKEN = "invalid_access_token";
   private static final String USER_ID = "user_id";
   private static final String USER_NAME = "user_name";
+  private static final String USER_DRFO = "1234567891";
+  private static final UserClaims USER_CLAIMS = new UserClaims(
+      USER_ID, USER_NAME, USER_DRFO, List.of(SystemRole.CITIZEN.getName()));
   private static final Channel EMAIL_CHANNEL = Channel.EMAIL;
   private static final String VALID_RECORD_KEY = String.format("%s/%s", USER_ID,
       EMAIL_CHANNEL.getValue());
@@ -61,8 +64,6 @@ class ChannelVerificationServiceTest {
   @Mock
   private OtpRepository repository;
   @Mock
-  private JwtInfoProvider jwtInfoProvider;
-  @Mock
   private VerificationCodeGenerator generator;
   @Mock
   private NotificationService notificationService;
@@ -74,7 +75,7 @@ class ChannelVerificationServiceTest {
   @BeforeEach
   public void beforeEach() {
     channelVerificationService = new ChannelVerificationServiceImpl(repository,
-        jwtInfoProvider, generator, notificationService, userRoleVerifierService, OTP_TTL);
+        generator, notificationService, userRoleVerifierService, OTP_TTL);
 
   }
 
@@ -82,144 +83,112 @@ class ChannelVerificationServiceTest {
   void shouldSendVerificationCode() {
     Mockito.reset(repository);
     when(generator.generate()).thenReturn(VALID_OTP_CODE);
-    when(jwtInfoProvider.getUsername(VALID_ACCESS_TOKEN)).thenReturn(USER_NAME);
     var inputDto = new VerificationInputDto();
     inputDto.setAddress(VALID_EMAIL_ADDRESS);
-    when(userRoleVerifierService.verify(EMAIL_CHANNEL, VALID_ACCESS_TOKEN)).thenReturn(true);
-    when(jwtInfoProvider.getUserRoles(VALID_ACCESS_TOKEN)).thenReturn(List.of(SystemRole.CITIZEN.getName()));
-    when(jwtInfoProvider.getUserId(VALID_ACCESS_TOKEN)).thenReturn(USER_ID);
+    when(userRoleVerifierService.verify(EMAIL_CHANNEL, USER_CLAIMS)).thenReturn(true);
 
     var response = channelVerificationService.sendVerificationCode(EMAIL_CHANNEL,
-        inputDto, VALID_ACCESS_TOKEN);
+        inputDto, USER_CLAIMS);
 
     assertThat(response.getVerificationCodeExpirationSec()).isEqualTo(OTP_TTL);
 
-    var otpEntityCaptor = ArgumentCaptor.forClass(OtpEntity.class);
-    verify(repository).save(otpEntityCaptor.capture());
+    var otpDataCaptor = ArgumentCaptor.forClass(OtpData.class);
+    verify(repository).save(eq(VALID_RECORD_KEY), otpDataCaptor.capture());
 
-    var otpEntity = otpEntityCaptor.getValue();
-    assertThat(otpEntity.getId()).isEqualTo(VALID_RECORD_KEY);
-    assertThat(otpEntity.getOtpData().getVerificationCode()).isEqualTo(VALID_OTP_CODE);
-    assertThat(otpEntity.getOtpData().getAddress()).isEqualTo(VALID_EMAIL_ADDRESS);
+    var otpData = otpDataCaptor.getValue();
+    assertThat(otpData.getVerificationCode()).isEqualTo(VALID_OTP_CODE);
+    assertThat(otpData.getAddress()).isEqualTo(VALID_EMAIL_ADDRESS);
 
     var channelCaptor = ArgumentCaptor.forClass(Channel.class);
     var addressCaptor = ArgumentCaptor.forClass(String.class);
     var usernameCaptor = ArgumentCaptor.forClass(String.class);
-    var otpCodeCaptor = ArgumentCaptor.forClass(String.class);
+    var otpIdCaptor = ArgumentCaptor.forClass(String.class);
     var realmCaptor = ArgumentCaptor.forClass(Recipient.RecipientRealm.class);
     verify(notificationService).sendNotification(channelCaptor.capture(), addressCaptor.capture(),
-        usernameCaptor.capture(), otpCodeCaptor.capture(), realmCaptor.capture());
+        usernameCaptor.capture(), otpIdCaptor.capture(), realmCaptor.capture());
 
     assertThat(channelCaptor.getValue()).isEqualTo(EMAIL_CHANNEL);
     assertThat(addressCaptor.getValue()).isEqualTo(VALID_EMAIL_ADDRESS);
     assertThat(usernameCaptor.getValue()).isEqualTo(USER_NAME);
-    assertThat(otpCodeCaptor.getValue()).isEqualTo(VALID_OTP_CODE);
+    assertThat(otpIdCaptor.getValue()).isEqualTo(VALID_RECORD_KEY);
     assertThat(realmCaptor.getValue()).isEqualTo(Recipient.RecipientRealm.CITIZEN);
   }
 
   @Test
   void shouldNotPassUserRoleVerification() {
-    when(userRoleVerifierService.verify(EMAIL_CHANNEL, VALID_ACCESS_TOKEN)).thenReturn(false);
+    when(userRoleVerifierService.verify(EMAIL_CHANNEL, USER_CLAIMS)).thenReturn(false);
 
     Assertions.assertThatThrownBy(
             () ->
                 channelVerificationService.sendVerificationCode(
-                    EMAIL_CHANNEL, null, VALID_ACCESS_TOKEN))
+                    EMAIL_CHANNEL, null, USER_CLAIMS))
         .isInstanceOf(AccessDeniedException.class)
         .hasMessage("Invalid user role for verify operation");
   }
 
   @Test
   void shouldVerifyCorrectCodeAndEmail() {
-    var otpEntity = OtpEntity.builder()
-        .id(VALID_RECORD_KEY)
-        .otpData(new OtpData(VALID_EMAIL_ADDRESS, VALID_OTP_CODE))
-        .build();
-    when(repository.findById(VALID_RECORD_KEY)).thenReturn(Optional.of(otpEntity));
-    when(jwtInfoProvider.getUserId(VALID_ACCESS_TOKEN)).thenReturn(USER_ID);
-
-    var isValid = channelVerificationService.verify(EMAIL_CHANNEL, VALID_ACCESS_TOKEN,
+    when(repository.verifyAndConsume(VALID_RECORD_KEY, VALID_OTP_CODE, VALID_EMAIL_ADDRESS))
+        .thenReturn(OtpVerificationResult.OK);
+
+    var isValid = channelVerificationService.verify(EMAIL_CHANNEL, USER_CLAIMS,
         VALID_OTP_CODE, VALID_EMAIL_ADDRESS);
 
     assertThat(isValid).isTrue();
   }
 
   @Test
-  void shouldNotVerifyIncorrectCodeAndCorrectEmail() {
-    var otpEntity = OtpEntity.builder()
-        .id(VALID_RECORD_KEY)
-        .otpData(new OtpData(VALID_EMAIL_ADDRESS, VALID_OTP_CODE))
-        .build();
-    when(repository.findById(VALID_RECORD_KEY)).thenReturn(Optional.of(otpEntity));
-    when(jwtInfoProvider.getUserId(VALID_ACCESS_TOKEN)).thenReturn(USER_ID);
-
-    var isValid = channelVerificationService.verify(EMAIL_CHANNEL, VALID_ACCESS_TOKEN,
+  void shouldNotVerifyMismatchedCodeOrEmail() {
+    when(repository.verifyAndConsume(VALID_RECORD_KEY, "111111", VALID_EMAIL_ADDRESS))
+        .thenReturn(OtpVerificationResult.MISMATCH);
+
+    var isValid = channelVerificationService.verify(EMAIL_CHANNEL, USER_CLAIMS,
         "111111", VALID_EMAIL_ADDRESS);
 
     assertThat(isValid).isFalse();
   }
 
   @Test
-  void shouldNotVerifyCorrectCodeAndIncorrectEmail() {
-    var otpEntity = OtpEntity.builder()
-        .id(VALID_RECORD_KEY)
-        .otpData(new OtpData(VALID_EMAIL_ADDRESS, VALID_OTP_CODE))
-        .build();
-    when(repository.findById(VALID_RECORD_KEY)).thenReturn(Optional.of(otpEntity));
-    when(jwtInfoProvider.getUserId(VALID_ACCESS_TOKEN)).thenReturn(USER_ID);
+  void shouldNotVerifyExpiredCode() {
+    when(repository.verifyAndConsume(VALID_RECORD_KEY, VALID_OTP_CODE, VALID_EMAIL_ADDRESS))
+        .thenReturn(OtpVerificationResult.EXPIRED);
 
-    var isValid = channelVerificationService.verify(EMAIL_CHANNEL, VALID_ACCESS_TOKEN,
-        VALID_OTP_CODE, "invalid@email.addr");
+    var isValid = channelVerificationService.verify(EMAIL_CHANNEL, USER_CLAIMS,
+        VALID_OTP_CODE, VALID_EMAIL_ADDRESS);
 
     assertThat(isValid).isFalse();
   }
 
   @Test
   void shouldNotVerifyForIncorrectUser() {
-    Mockito.reset(jwtInfoProvider);
-    when(jwtInfoProvider.getUserId(INVALID_ACCESS_TOKEN)).thenReturn(EMPTY);
-    when(repository.findById(anyString())).thenReturn(Optional.empty());
+    var userClaims = new UserClaims(EMPTY, USER_NAME, USER_DRFO, List.of());
+    when(repository.verifyAndConsume(anyString(), anyString(), anyString()))
+        .thenReturn(OtpVerificationResult.EXPIRED);
 
-    var isValid = channelVerificationService.verify(EMAIL_CHANNEL, INVALID_ACCESS_TOKEN,
+    var isValid = channelVerificationService.verify(EMAIL_CHANNEL, userClaims,
         VALID_OTP_CODE, VALID_EMAIL_ADDRESS);
 
     assertThat(isValid).isFalse();
   }
 
   @Test
-  void shouldNotPassVerificationForDiiaChannelDifferentDrfos() {
-    Mockito.reset(jwtInfoProvider);
-    var drfo = "1234567891";
-    when(jwtInfoProvider.getUserId(VALID_ACCESS_TOKEN)).thenReturn(USER_ID);
-    when(jwtInfoProvider.getDrfo(VALID_ACCESS_TOKEN)).thenReturn("1111111111");
-    var otpEntity = OtpEntity.builder()
-        .id(VALID_DIIA_RECORD_KEY)
-        .otpData(new OtpData(drfo, VALID_OTP_CODE))
-        .build();
-    when(repository.findById(VALID_DIIA_RECORD_KEY)).thenReturn(Optional.of(otpEntity));
-    when(jwtInfoProvider.getUserId(VALID_ACCESS_TOKEN)).thenReturn(USER_ID);
-
-    var isValid = channelVerificationService.verify(Channel.DIIA, VALID_ACCESS_TOKEN,
+  void shouldNotConsumeCodeForDiiaChannelDifferentDrfos() {
+    var drfo = "1111111111";
+
+    var isValid = channelVerificationService.verify(Channel.DIIA, USER_CLAIMS,
         VALID_OTP_CODE, drfo);
 
     assertThat(isValid).isFalse();
+    verify(repository, never()).verifyAndConsume(anyString(), anyString(), anyString());
   }
 
   @Test
   void shouldPassVerificationForDiiaChannel() {
-    Mockito.reset(jwtInfoProvider);
-    var drfo = "1234567891";
-    when(jwtInfoProvider.getUserId(VALID_ACCESS_TOKEN)).thenReturn(USER_ID);
-    when(jwtInfoProvider.getDrfo(VALID_ACCESS_TOKEN)).thenReturn(drfo);
-    var otpEntity = OtpEntity.builder()
-        .id(VALID_DIIA_RECORD_KEY)
-        .otpData(new OtpData(drfo, VALID_OTP_CODE))
-        .build();
-    when(repository.findById(VALID_DIIA_RECORD_KEY)).thenReturn(Optional.of(otpEntity));
-    when(jwtInfoProvider.getUserId(VALID_ACCESS_TOKEN)).thenReturn(USER_ID);
-
-    var isValid = channelVerificationService.verify(Channel.DIIA, VALID_ACCESS_TOKEN,
-        VALID_OTP_CODE, drfo);
+    when(repository.verifyAndConsume(VALID_DIIA_RECORD_KEY, VALID_OTP_CODE, USER_DRFO))
+        .thenReturn(OtpVerificationResult.OK);
+
+    var isValid = channelVerificationService.verify(Channel.DIIA, USER_CLAIMS,
+        VALID_OTP_CODE, USER_DRFO);
 
     assertThat(isValid).isTrue();
   }
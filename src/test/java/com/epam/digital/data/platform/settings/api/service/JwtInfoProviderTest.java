@@ -16,9 +16,9 @@
 
 package com.epam.digital.data.platform.settings.api.service;
 
-import com.epam.digital.data.platform.starter.security.SystemRole;
 import com.epam.digital.data.platform.starter.security.dto.JwtClaimsDto;
 import com.epam.digital.data.platform.starter.security.jwt.TokenParser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -27,45 +27,98 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Date;
 import java.util.List;
 
 @ExtendWith(MockitoExtension.class)
 class JwtInfoProviderTest {
 
+  private static final Instant NOW = Instant.parse("2023-01-01T10:00:00Z");
+
   @Mock
   private TokenParser tokenParser;
 
+  private SimpleMeterRegistry meterRegistry;
   private JwtInfoProvider jwtInfoProvider;
 
   @BeforeEach
   void beforeEach() {
-    jwtInfoProvider = new JwtInfoProvider(tokenParser);
+    meterRegistry = new SimpleMeterRegistry();
+    jwtInfoProvider = createProvider(true);
   }
 
   @Test
-  void expectSubjectIsRetrievedFromToken() {
+  void expectUserClaimsAreRetrievedFromTokenWithSingleParse() {
     JwtClaimsDto jwtClaimsDto = new JwtClaimsDto();
+    List<String> roles = List.of("officer", "auditor", "task-dispatcher");
     jwtClaimsDto.setSubject("subject");
+    jwtClaimsDto.setPreferredUsername("username");
+    jwtClaimsDto.setDrfo("1234567890");
+    jwtClaimsDto.setRoles(roles);
 
     when(tokenParser.parseClaims(any())).thenReturn(jwtClaimsDto);
 
-    var actual = jwtInfoProvider.getUserId("token");
+    var actual = jwtInfoProvider.getUserClaims("token");
 
-    assertThat(actual).isEqualTo("subject");
+    assertThat(actual.getUserId()).isEqualTo("subject");
+    assertThat(actual.getUsername()).isEqualTo("username");
+    assertThat(actual.getDrfo()).isEqualTo("1234567890");
+    assertThat(actual.getRoles()).isEqualTo(roles);
+    verify(tokenParser, times(1)).parseClaims("token");
   }
 
   @Test
-  void containsUserRole() {
-    JwtClaimsDto jwtClaimsDto = new JwtClaimsDto();
-    List<String> roles = List.of("officer", "auditor", "task-dispatcher");
-    jwtClaimsDto.setRoles(roles);
+  void expectRepeatedTokenServedFromCache() {
+    var token = "token";
+    when(tokenParser.parseClaims(token)).thenReturn(claimsExpiringAt(NOW.plusSeconds(60)));
 
-    when(tokenParser.parseClaims(any())).thenReturn(jwtClaimsDto);
+    var first = jwtInfoProvider.getUserClaims(token);
+    var second = jwtInfoProvider.getUserClaims(token);
+
+    assertThat(second).isSameAs(first);
+    verify(tokenParser, times(1)).parseClaims(token);
+    assertThat(meterRegistry.get("cache.gets").tag("cache", JwtInfoProvider.CACHE_NAME)
+        .tag("result", "hit").functionCounter().count()).isEqualTo(1);
+  }
+
+  @Test
+  void expectExpiredTokenNotServedFromCache() {
+    var token = "token";
+    when(tokenParser.parseClaims(token)).thenReturn(claimsExpiringAt(NOW.minusSeconds(60)));
+
+    jwtInfoProvider.getUserClaims(token);
+    jwtInfoProvider.getUserClaims(token);
+
+    verify(tokenParser, times(2)).parseClaims(token);
+  }
+
+  @Test
+  void expectTokenParsedOnEveryCallWhenCacheDisabled() {
+    jwtInfoProvider = createProvider(false);
+    var token = "token";
+    when(tokenParser.parseClaims(token)).thenReturn(claimsExpiringAt(NOW.plusSeconds(60)));
+
+    jwtInfoProvider.getUserClaims(token);
+    jwtInfoProvider.getUserClaims(token);
 
-    var actual = jwtInfoProvider.getUserRoles("token");
+    verify(tokenParser, times(2)).parseClaims(token);
+  }
+
+  private JwtInfoProvider createProvider(boolean cacheEnabled) {
+    return new JwtInfoProvider(tokenParser, Clock.fixed(NOW, ZoneOffset.UTC), meterRegistry,
+        cacheEnabled, 100, 300);
+  }
 
-    assertThat(actual).isEqualTo(roles);
+  private static JwtClaimsDto claimsExpiringAt(Instant expiration) {
+    var jwtClaims = new JwtClaimsDto();
+    jwtClaims.setExp(Date.from(expiration));
+    return jwtClaims;
   }
 }
@@ -0,0 +1,187 @@
+/*
+ *  Copyright 2021 EPAM Systems.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.epam.digital.data.platform.settings.api.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.epam.digital.data.platform.settings.api.model.NotificationOutboxEntry;
+import com.epam.digital.data.platform.settings.api.model.OtpData;
+import com.epam.digital.data.platform.settings.api.repository.NotificationOutboxRepository;
+import com.epam.digital.data.platform.settings.api.repository.OtpRepository;
+import com.epam.digital.data.platform.settings.model.dto.Channel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationOutboxRelayTest {
+
+  private static final Instant NOW_INSTANT = Instant.parse("2023-01-01T10:00:00Z");
+  private static final LocalDateTime NOW = LocalDateTime.ofInstant(NOW_INSTANT, ZoneOffset.UTC);
+  private static final LocalDateTime LEASE_UNTIL = NOW.plusSeconds(30);
+  private static final String ADDRESS = "test@email.addr";
+  private static final String OTP_ID = "user_id/email";
+  private static final String OTP_CODE = "654321";
+
+  @Mock
+  private NotificationOutboxRepository outboxRepository;
+  @Mock
+  private NotificationService notificationService;
+  @Mock
+  private OtpRepository otpRepository;
+
+  private SimpleMeterRegistry meterRegistry;
+  private NotificationOutboxRelay relay;
+
+  @BeforeEach
+  void beforeEach() {
+    meterRegistry = new SimpleMeterRegistry();
+    relay = new NotificationOutboxRelay(outboxRepository, notificationService, otpRepository,
+        Clock.fixed(NOW_INSTANT, ZoneOffset.UTC), meterRegistry, 2, 3, 1000, 4000, 30000);
+  }
+
+  @Test
+  void expectSentEntriesDeleted() {
+    var first = outboxEntry(1);
+    var second = outboxEntry(1);
+    when(outboxRepository.claim(2, NOW, LEASE_UNTIL))
+        .thenReturn(List.of(first, second))
+        .thenReturn(List.of());
+    when(otpRepository.find(OTP_ID)).thenReturn(new OtpData(ADDRESS, OTP_CODE));
+
+    relay.relay();
+
+    verify(notificationService).deliver(first, OTP_CODE);
+    verify(notificationService).deliver(second, OTP_CODE);
+    verify(outboxRepository).deleteByIds(List.of(first.getId(), second.getId()));
+  }
+
+  @Test
+  void expectFailedEntryRescheduledWithoutBlockingOthers() {
+    var failing = outboxEntry(2);
+    var next = outboxEntry(1);
+    when(outboxRepository.claim(2, NOW, LEASE_UNTIL)).thenReturn(List.of(failing, next))
+        .thenReturn(List.of());
+    when(otpRepository.find(OTP_ID)).thenReturn(new OtpData(ADDRESS, OTP_CODE));
+    doThrow(new RuntimeException("broker unavailable"))
+        .when(notificationService).deliver(failing, OTP_CODE);
+
+    relay.relay();
+
+    verify(outboxRepository).reschedule(eq(failing.getId()), any(), eq(NOW.plusSeconds(2)));
+    verify(outboxRepository).deleteByIds(List.of(next.getId()));
+    assertThat(meterRegistry.get("notification.outbox.failures").counter().count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void expectEntryDeadLetteredAfterMaxAttempts() {
+    var failing = outboxEntry(3);
+    when(outboxRepository.claim(2, NOW, LEASE_UNTIL)).thenReturn(List.of(failing));
+    when(otpRepository.find(OTP_ID)).thenReturn(new OtpData(ADDRESS, OTP_CODE));
+    doThrow(new RuntimeException("invalid recipient"))
+        .when(notificationService).deliver(failing, OTP_CODE);
+
+    relay.relay();
+
+    verify(outboxRepository).deadLetter(eq(failing.getId()), any(), eq(NOW));
+    verify(outboxRepository, never()).reschedule(any(), any(), any());
+    assertThat(meterRegistry.get("notification.outbox.dead-lettered").counter().count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void expectEntryDroppedWhenCodeExpired() {
+    var entry = outboxEntry(1);
+    when(outboxRepository.claim(2, NOW, LEASE_UNTIL)).thenReturn(List.of(entry));
+
+    relay.relay();
+
+    verify(notificationService, never()).deliver(any(), any());
+    verify(outboxRepository).deleteByIds(List.of(entry.getId()));
+    assertThat(meterRegistry.get("notification.outbox.expired").counter().count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void expectEntryDroppedWhenCodeReissuedForAnotherAddress() {
+    var entry = outboxEntry(1);
+    when(outboxRepository.claim(2, NOW, LEASE_UNTIL)).thenReturn(List.of(entry));
+    when(otpRepository.find(OTP_ID)).thenReturn(new OtpData("other@email.addr", OTP_CODE));
+
+    relay.relay();
+
+    verify(notificationService, never()).deliver(any(), any());
+    verify(outboxRepository).deleteByIds(List.of(entry.getId()));
+  }
+
+  @Test
+  void expectNothingDeletedForEmptyOutbox() {
+    when(outboxRepository.claim(2, NOW, LEASE_UNTIL)).thenReturn(List.of());
+
+    relay.relay();
+
+    verify(notificationService, never()).deliver(any(), any());
+    verify(outboxRepository, never()).deleteByIds(anyCollection());
+  }
+
+  @Test
+  void expectBackoffDoubledUpToLimit() {
+    assertThat(relay.backoff(1)).isEqualTo(Duration.ofSeconds(1));
+    assertThat(relay.backoff(2)).isEqualTo(Duration.ofSeconds(2));
+    assertThat(relay.backoff(3)).isEqualTo(Duration.ofSeconds(4));
+    assertThat(relay.backoff(10)).isEqualTo(Duration.ofSeconds(4));
+  }
+
+  @Test
+  void expectOldestPendingAgeExposed() {
+    when(outboxRepository.findOldestPendingCreatedAt())
+        .thenReturn(Optional.of(NOW.minusSeconds(90)));
+
+    assertThat(meterRegistry.get("notification.outbox.oldest.age").gauge().value())
+        .isEqualTo(90);
+  }
+
+  private NotificationOutboxEntry outboxEntry(int attempts) {
+    var entry = new NotificationOutboxEntry();
+    entry.setId(UUID.randomUUID());
+    entry.setChannel(Channel.EMAIL);
+    entry.setAddress(ADDRESS);
+    entry.setOtpId(OTP_ID);
+    entry.setAttempts(attempts);
+    entry.setCreatedAt(NOW.minusSeconds(5));
+    return entry;
+  }
+}
@@ -18,11 +18,18 @@ package com.epam.digital.data.platform.settings.api.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 import com.epam.digital.data.platform.notification.dto.Recipient;
 import com.epam.digital.data.platform.notification.dto.UserNotificationMessageDto;
+import com.epam.digital.data.platform.settings.api.model.NotificationOutboxEntry;
+import com.epam.digital.data.platform.settings.api.repository.NotificationOutboxRepository;
 import com.epam.digital.data.platform.settings.model.dto.Channel;
 import com.epam.digital.data.platform.starter.notifications.facade.UserNotificationFacade;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.AbstractMap;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -41,21 +48,36 @@ class NotificationServiceTest {
   private static final String DIIA_ADDRESS = "test_diia_address";
   private static final String USER_ID = "";
   private static final String OTP_CODE = "654321";
+  private static final String OTP_ID = "user_id/email";
+  private static final Instant NOW = Instant.parse("2023-01-01T10:00:00Z");
 
   @Mock
   private UserNotificationFacade userNotificationFacade;
+  @Mock
+  private NotificationOutboxRepository outboxRepository;
   private NotificationService notificationService;
 
   @BeforeEach
   public void beforeEach() {
-    notificationService = new NotificationService(userNotificationFacade, APPLICATION_NAME);
+    notificationService = new NotificationService(userNotificationFacade, outboxRepository,
+        Clock.fixed(NOW, ZoneOffset.UTC), APPLICATION_NAME);
   }
 
   @Test
-  void shouldSendCorrectEmailNotificationDto() {
+  void shouldWriteNotificationToOutbox() {
 
     notificationService.sendNotification(
-        EMAIL_CHANNEL, EMAIL_ADDRESS, USER_ID, OTP_CODE, Recipient.RecipientRealm.OFFICER);
+        EMAIL_CHANNEL, EMAIL_ADDRESS, USER_ID, OTP_ID, Recipient.RecipientRealm.OFFICER);
+
+    verify(outboxRepository).insert("EMAIL", EMAIL_ADDRESS, USER_ID, OTP_ID, "OFFICER",
+        LocalDateTime.ofInstant(NOW, ZoneOffset.UTC));
+    verifyNoInteractions(userNotificationFacade);
+  }
+
+  @Test
+  void shouldSendCorrectEmailNotificationDto() {
+
+    notificationService.deliver(outboxEntry(EMAIL_CHANNEL, EMAIL_ADDRESS), OTP_CODE);
 
     var captor = ArgumentCaptor.forClass(UserNotificationMessageDto.class);
     verify(userNotificationFacade).sendNotification(captor.capture());
@@ -88,8 +110,7 @@ class NotificationServiceTest {
   @Test
   void shouldSendCorrectDiiaNotificationDto() {
 
-    notificationService.sendNotification(
-        DIIA_CHANNEL, DIIA_ADDRESS, USER_ID, OTP_CODE, Recipient.RecipientRealm.OFFICER);
+    notificationService.deliver(outboxEntry(DIIA_CHANNEL, DIIA_ADDRESS), OTP_CODE);
 
     var captor = ArgumentCaptor.forClass(UserNotificationMessageDto.class);
     verify(userNotificationFacade).sendNotification(captor.capture());
@@ -118,4 +139,14 @@ class NotificationServiceTest {
         new AbstractMap.SimpleEntry<>("verificationCode", OTP_CODE));
     assertThat(recipient.getRealm()).isEqualTo(Recipient.RecipientRealm.OFFICER);
   }
+
+  private NotificationOutboxEntry outboxEntry(Channel channel, String address) {
+    var entry = new NotificationOutboxEntry();
+    entry.setChannel(channel);
+    entry.setAddress(address);
+    entry.setUsername(USER_ID);
+    entry.setOtpId(OTP_ID);
+    entry.setRealm(Recipient.RecipientRealm.OFFICER);
+    return entry;
+  }
 }
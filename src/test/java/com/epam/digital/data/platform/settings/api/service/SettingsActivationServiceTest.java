@@ -17,39 +17,46 @@
 package com.epam.digital.data.platform.settings.api.service;
 
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.epam.digital.data.platform.settings.api.audit.SettingsAuditFacade;
-import com.epam.digital.data.platform.settings.api.model.NotificationChannel;
 import com.epam.digital.data.platform.settings.api.model.Settings;
+import com.epam.digital.data.platform.settings.api.model.SettingsChangedEvent;
+import com.epam.digital.data.platform.settings.api.model.UserClaims;
+import com.epam.digital.data.platform.settings.api.model.VersionedSettings;
 import com.epam.digital.data.platform.settings.api.repository.NotificationChannelRepository;
 import com.epam.digital.data.platform.settings.api.repository.SettingsRepository;
 import com.epam.digital.data.platform.settings.model.dto.ActivateChannelInputDto;
 import com.epam.digital.data.platform.settings.model.dto.Channel;
 import com.epam.digital.data.platform.settings.model.dto.SettingsDeactivateChannelInputDto;
-import java.time.LocalDateTime;
-import java.util.Optional;
+import java.sql.Timestamp;
+import java.util.List;
 import java.util.UUID;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
+import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.transaction.PlatformTransactionManager;
 
 @ExtendWith(MockitoExtension.class)
 class SettingsActivationServiceTest {
 
   private static final UUID TOKEN_SUBJECT_ID = UUID.fromString(
       "123e4567-e89b-12d3-a456-426655440000");
+  private static final UserClaims USER_CLAIMS = new UserClaims(
+      TOKEN_SUBJECT_ID.toString(), "user_name", "2222222222", List.of("citizen"));
   private static final UUID SETTINGS_ID = UUID.fromString("321e7654-e89b-12d3-a456-426655441111");
-  private static final UUID NOTIFICATION_CHANNEL_ID = UUID.fromString(
-      "da8ee615-5de7-474d-a673-f83831c7f547");
-  private static final String EMAIL = "email@email.com";
   private static final String DEACTIVATION_REASON = "User deactivated";
+  private static final Timestamp UPDATED_AT = Timestamp.valueOf("2023-01-01 10:00:00.123456");
 
   private SettingsActivationService settingsActivationService;
 
@@ -58,60 +65,62 @@ class SettingsActivationServiceTest {
   @Mock
   private NotificationChannelRepository notificationChannelRepository;
   @Mock
-  private JwtInfoProvider jwtInfoProvider;
-  @Mock
   private SettingsAuditFacade auditFacade;
   @Mock
   private ChannelVerificationService channelVerificationService;
   @Mock
   private UserRoleVerifierService userRoleVerifierService;
+  @Mock
+  private SettingsCacheService settingsCacheService;
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+  @Mock
+  private PlatformTransactionManager transactionManager;
 
   @BeforeEach
   void beforeEach() {
     settingsActivationService = new SettingsActivationService(notificationChannelRepository,
-        settingsRepository, jwtInfoProvider, auditFacade, channelVerificationService, userRoleVerifierService);
+        settingsRepository, auditFacade, channelVerificationService,
+        userRoleVerifierService, settingsCacheService, eventPublisher, transactionManager);
   }
 
   @Test
-  void expectUpdateDeactivatedEmailChannel() {
+  void expectUpsertActivatedEmailChannel() {
     var inputDto = new ActivateChannelInputDto();
     inputDto.setAddress("new@email.com");
     inputDto.setVerificationCode("123456");
 
-    var settingsFromDb = new Settings();
-    settingsFromDb.setId(SETTINGS_ID);
-    settingsFromDb.setKeycloakId(TOKEN_SUBJECT_ID);
-
-    var channelFromDb = new NotificationChannel();
-    channelFromDb.setId(NOTIFICATION_CHANNEL_ID);
-    channelFromDb.setChannel(Channel.EMAIL);
-    channelFromDb.setActivated(false);
-    channelFromDb.setAddress(EMAIL);
-    channelFromDb.setDeactivationReason(DEACTIVATION_REASON);
-    channelFromDb.setCreatedAt(LocalDateTime.MIN);
-    channelFromDb.setUpdatedAt(LocalDateTime.MIN);
-
-    when(settingsRepository.getByKeycloakId(TOKEN_SUBJECT_ID))
-        .thenReturn(settingsFromDb);
-    when(notificationChannelRepository.findBySettingsIdAndChannel(SETTINGS_ID,
-        Channel.EMAIL)).thenReturn(Optional.of(channelFromDb));
-    when(channelVerificationService.verify(Channel.EMAIL, "token", "123456", "new@email.com"))
+    when(settingsRepository.getByKeycloakId(TOKEN_SUBJECT_ID)).thenReturn(settingsFromDb());
+    when(channelVerificationService.verify(Channel.EMAIL, USER_CLAIMS, "123456", "new@email.com"))
         .thenReturn(true);
-    when(jwtInfoProvider.getUserId(any())).thenReturn(TOKEN_SUBJECT_ID.toString());
-    when(userRoleVerifierService.verify(Channel.EMAIL, "token")).thenReturn(true);
-
-    settingsActivationService.activateChannel(inputDto, Channel.EMAIL, "token");
-
-    verify(notificationChannelRepository)
-        .activateChannel(eq(NOTIFICATION_CHANNEL_ID), eq("new@email.com"), any());
+    when(userRoleVerifierService.verify(Channel.EMAIL, USER_CLAIMS)).thenReturn(true);
+    when(notificationChannelRepository.upsertActivatedChannel(
+        SETTINGS_ID, Channel.EMAIL, "new@email.com")).thenReturn(UPDATED_AT);
+
+    settingsActivationService.activateChannel(inputDto, Channel.EMAIL, USER_CLAIMS);
+
+    verify(settingsCacheService).invalidate(TOKEN_SUBJECT_ID);
+    verify(auditFacade).sendActivationAuditOnSuccess(Channel.EMAIL, inputDto);
+    var event = ArgumentCaptor.forClass(SettingsChangedEvent.class);
+    verify(eventPublisher).publishEvent(event.capture());
+    Assertions.assertThat(event.getValue().getKeycloakId()).isEqualTo(TOKEN_SUBJECT_ID);
+    Assertions.assertThat(event.getValue().getChannel()).isEqualTo(Channel.EMAIL);
+    Assertions.assertThat(event.getValue().isActivated()).isTrue();
+    Assertions.assertThat(event.getValue().getAddress()).isEqualTo("new@email.com");
+    Assertions.assertThat(event.getValue().getVersion())
+        .isEqualTo(VersionedSettings.toVersion(UPDATED_AT));
+    var inOrder = inOrder(eventPublisher, transactionManager, settingsCacheService);
+    inOrder.verify(eventPublisher).publishEvent(any(SettingsChangedEvent.class));
+    inOrder.verify(transactionManager).commit(any());
+    inOrder.verify(settingsCacheService).invalidate(TOKEN_SUBJECT_ID);
   }
 
   @Test
   void expectActivateNotPassUserRoleVerification() {
-    when(userRoleVerifierService.verify(Channel.DIIA, "token")).thenReturn(false);
+    when(userRoleVerifierService.verify(Channel.DIIA, USER_CLAIMS)).thenReturn(false);
 
     Assertions.assertThatThrownBy(
-            () -> settingsActivationService.activateChannel(null, Channel.DIIA, "token"))
+            () -> settingsActivationService.activateChannel(null, Channel.DIIA, USER_CLAIMS))
         .isInstanceOf(AccessDeniedException.class)
         .hasMessage("Invalid user role for activate operation");
     verify(auditFacade)
@@ -119,127 +128,87 @@ class SettingsActivationServiceTest {
   }
 
   @Test
-  void expectCreateActivatedEmailChannel() {
-    var inputDto = new ActivateChannelInputDto();
-    inputDto.setAddress("new@email.com");
-    inputDto.setVerificationCode("123456");
-
-    var settingsFromDb = new Settings();
-    settingsFromDb.setId(SETTINGS_ID);
-    settingsFromDb.setKeycloakId(TOKEN_SUBJECT_ID);
-
-    when(settingsRepository.getByKeycloakId(TOKEN_SUBJECT_ID)).thenReturn(settingsFromDb);
-    when(notificationChannelRepository.findBySettingsIdAndChannel(SETTINGS_ID, Channel.EMAIL))
-        .thenReturn(Optional.empty());
-    when(channelVerificationService.verify(Channel.EMAIL, "token", "123456", "new@email.com"))
-        .thenReturn(true);
-    when(jwtInfoProvider.getUserId(any())).thenReturn(TOKEN_SUBJECT_ID.toString());
-    when(userRoleVerifierService.verify(Channel.EMAIL, "token")).thenReturn(true);
-
-    settingsActivationService.activateChannel(inputDto, Channel.EMAIL, "token");
-
-    verify(notificationChannelRepository)
-        .create(SETTINGS_ID, Channel.EMAIL, "new@email.com", true, null);
-  }
-
-  @Test
-  void expectUpdateDeactivatedDiiaChannel() {
+  void expectUpsertActivatedDiiaChannel() {
     var drfo = "2222222222";
     var inputDto = new ActivateChannelInputDto();
     inputDto.setAddress(drfo);
     inputDto.setVerificationCode("123456");
-    var settingsFromDb = new Settings();
-    settingsFromDb.setId(SETTINGS_ID);
-    settingsFromDb.setKeycloakId(TOKEN_SUBJECT_ID);
-
-    var channelFromDb = new NotificationChannel();
-    channelFromDb.setId(NOTIFICATION_CHANNEL_ID);
-    channelFromDb.setChannel(Channel.DIIA);
-    channelFromDb.setActivated(false);
-    channelFromDb.setDeactivationReason(DEACTIVATION_REASON);
-    channelFromDb.setCreatedAt(LocalDateTime.MIN);
-    channelFromDb.setUpdatedAt(LocalDateTime.MIN);
-
-    when(settingsRepository.getByKeycloakId(TOKEN_SUBJECT_ID))
-            .thenReturn(settingsFromDb);
-    when(notificationChannelRepository.findBySettingsIdAndChannel(SETTINGS_ID,
-            Channel.DIIA)).thenReturn(Optional.of(channelFromDb));
-    when(channelVerificationService.verify(Channel.DIIA, "token", "123456", drfo))
+
+    when(settingsRepository.getByKeycloakId(TOKEN_SUBJECT_ID)).thenReturn(settingsFromDb());
+    when(channelVerificationService.verify(Channel.DIIA, USER_CLAIMS, "123456", drfo))
         .thenReturn(true);
-    when(jwtInfoProvider.getUserId(any())).thenReturn(TOKEN_SUBJECT_ID.toString());
-    when(userRoleVerifierService.verify(Channel.DIIA, "token")).thenReturn(true);
+    when(userRoleVerifierService.verify(Channel.DIIA, USER_CLAIMS)).thenReturn(true);
 
-    settingsActivationService.activateChannel(inputDto, Channel.DIIA, "token");
+    settingsActivationService.activateChannel(inputDto, Channel.DIIA, USER_CLAIMS);
 
-    verify(userRoleVerifierService).verify(Channel.DIIA, "token");
+    verify(userRoleVerifierService).verify(Channel.DIIA, USER_CLAIMS);
     verify(notificationChannelRepository)
-            .activateChannel(eq(NOTIFICATION_CHANNEL_ID), eq(drfo), any());
+        .upsertActivatedChannel(SETTINGS_ID, Channel.DIIA, drfo);
   }
 
   @Test
-  void expectCreateActivatedDiiaChannel() {
-    var drfo = "2222222222";
+  void expectActivationFailureAuditedWhenUpsertFails() {
     var inputDto = new ActivateChannelInputDto();
-    inputDto.setAddress(drfo);
+    inputDto.setAddress("new@email.com");
     inputDto.setVerificationCode("123456");
-    var settingsFromDb = new Settings();
-    settingsFromDb.setId(SETTINGS_ID);
-    settingsFromDb.setKeycloakId(TOKEN_SUBJECT_ID);
-
-    when(settingsRepository.getByKeycloakId(TOKEN_SUBJECT_ID))
-            .thenReturn(settingsFromDb);
-    when(notificationChannelRepository.findBySettingsIdAndChannel(SETTINGS_ID, Channel.DIIA))
-            .thenReturn(Optional.empty());
-    when(channelVerificationService.verify(Channel.DIIA, "token", "123456", drfo))
-        .thenReturn(true);
-    when(jwtInfoProvider.getUserId(any())).thenReturn(TOKEN_SUBJECT_ID.toString());
-    when(userRoleVerifierService.verify(Channel.DIIA, "token")).thenReturn(true);
 
-    settingsActivationService.activateChannel(inputDto, Channel.DIIA, "token");
+    when(settingsRepository.getByKeycloakId(TOKEN_SUBJECT_ID)).thenReturn(settingsFromDb());
+    when(channelVerificationService.verify(Channel.EMAIL, USER_CLAIMS, "123456", "new@email.com"))
+        .thenReturn(true);
+    when(userRoleVerifierService.verify(Channel.EMAIL, USER_CLAIMS)).thenReturn(true);
+    var exception = new DataIntegrityViolationException("duplicate address");
+    Mockito.doThrow(exception).when(notificationChannelRepository)
+        .upsertActivatedChannel(SETTINGS_ID, Channel.EMAIL, "new@email.com");
 
-    verify(userRoleVerifierService).verify(Channel.DIIA, "token");
-    verify(notificationChannelRepository)
-            .create(SETTINGS_ID, Channel.DIIA, drfo, true, null);
+    Assertions.assertThatThrownBy(
+            () -> settingsActivationService.activateChannel(inputDto, Channel.EMAIL, USER_CLAIMS))
+        .isSameAs(exception);
+    verify(auditFacade)
+        .sendActivationAuditOnFailure(Channel.EMAIL, inputDto, "duplicate address");
+    verify(transactionManager).rollback(any());
+    verify(settingsCacheService, Mockito.never()).invalidate(any());
+    verify(eventPublisher, Mockito.never()).publishEvent(any(SettingsChangedEvent.class));
   }
 
   @Test
-  void expectDeactivatedExistingChannel() {
-    var settingsFromDb = new Settings();
-    settingsFromDb.setId(SETTINGS_ID);
-    settingsFromDb.setKeycloakId(TOKEN_SUBJECT_ID);
-
-    var channelFromDb = new NotificationChannel();
-    channelFromDb.setId(NOTIFICATION_CHANNEL_ID);
-    channelFromDb.setChannel(Channel.DIIA);
-    channelFromDb.setActivated(true);
-    channelFromDb.setCreatedAt(LocalDateTime.MIN);
-    channelFromDb.setUpdatedAt(LocalDateTime.MIN);
-
-    when(settingsRepository.getByKeycloakId(TOKEN_SUBJECT_ID)).thenReturn(settingsFromDb);
-    when(notificationChannelRepository.findBySettingsIdAndChannel(SETTINGS_ID, Channel.DIIA))
-        .thenReturn(Optional.of(channelFromDb));
-    when(jwtInfoProvider.getUserId(any())).thenReturn(TOKEN_SUBJECT_ID.toString());
-    when(userRoleVerifierService.verify(Channel.DIIA, "token")).thenReturn(true);
+  void expectUpsertDeactivatedChannel() {
+    when(settingsRepository.getByKeycloakId(TOKEN_SUBJECT_ID)).thenReturn(settingsFromDb());
+    when(userRoleVerifierService.verify(Channel.DIIA, USER_CLAIMS)).thenReturn(true);
+    when(notificationChannelRepository.upsertDeactivatedChannel(
+        SETTINGS_ID, Channel.DIIA, null, DEACTIVATION_REASON)).thenReturn(UPDATED_AT);
 
     var input = new SettingsDeactivateChannelInputDto();
     input.setDeactivationReason(DEACTIVATION_REASON);
 
-    settingsActivationService.deactivateChannel(Channel.DIIA, input, "token");
-
-    verify(userRoleVerifierService).verify(Channel.DIIA, "token");
-    verify(notificationChannelRepository)
-        .deactivateChannel(any(), eq(null), eq("User deactivated"), any());
+    settingsActivationService.deactivateChannel(Channel.DIIA, input, USER_CLAIMS);
+
+    verify(userRoleVerifierService).verify(Channel.DIIA, USER_CLAIMS);
+    verify(settingsCacheService).invalidate(TOKEN_SUBJECT_ID);
+    var event = ArgumentCaptor.forClass(SettingsChangedEvent.class);
+    verify(eventPublisher).publishEvent(event.capture());
+    Assertions.assertThat(event.getValue().getChannel()).isEqualTo(Channel.DIIA);
+    Assertions.assertThat(event.getValue().isActivated()).isFalse();
+    Assertions.assertThat(event.getValue().getAddress()).isNull();
+    Assertions.assertThat(event.getValue().getVersion())
+        .isEqualTo(VersionedSettings.toVersion(UPDATED_AT));
   }
 
   @Test
   void expectDeactivateNotPassUserRoleVerification() {
-    when(userRoleVerifierService.verify(Channel.DIIA, "token")).thenReturn(false);
+    when(userRoleVerifierService.verify(Channel.DIIA, USER_CLAIMS)).thenReturn(false);
 
     Assertions.assertThatThrownBy(
-            () -> settingsActivationService.deactivateChannel(Channel.DIIA, null, "token"))
+            () -> settingsActivationService.deactivateChannel(Channel.DIIA, null, USER_CLAIMS))
         .isInstanceOf(AccessDeniedException.class)
         .hasMessage("Invalid user role for deactivate operation");
     verify(auditFacade)
         .sendDeactivationAuditOnFailure(Channel.DIIA, null, "User role verification failed");
   }
+
+  private Settings settingsFromDb() {
+    var settings = new Settings();
+    settings.setId(SETTINGS_ID);
+    settings.setKeycloakId(TOKEN_SUBJECT_ID);
+    return settings;
+  }
 }
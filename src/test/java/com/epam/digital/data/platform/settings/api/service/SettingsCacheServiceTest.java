@@ -0,0 +1,106 @@
+/*
+ *  Copyright 2021 EPAM Systems.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.epam.digital.data.platform.settings.api.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.epam.digital.data.platform.settings.api.model.VersionedSettings;
+import com.epam.digital.data.platform.settings.model.dto.SettingsReadDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SettingsCacheServiceTest {
+
+  private static final UUID KEYCLOAK_ID = UUID.fromString("123e4567-e89b-12d3-a456-426655440000");
+  private static final UUID SETTINGS_ID = UUID.fromString("321e7654-e89b-12d3-a456-426655441111");
+
+  private SimpleMeterRegistry meterRegistry;
+  private SettingsCacheService settingsCacheService;
+
+  @BeforeEach
+  void beforeEach() {
+    meterRegistry = new SimpleMeterRegistry();
+    settingsCacheService = new SettingsCacheService(60, 100, meterRegistry);
+  }
+
+  @Test
+  void shouldLoadSettingsOnlyOnceUntilInvalidated() {
+    var loads = new AtomicInteger();
+
+    settingsCacheService.get(KEYCLOAK_ID, id -> load(loads));
+    settingsCacheService.get(KEYCLOAK_ID, id -> load(loads));
+    assertThat(loads).hasValue(1);
+
+    settingsCacheService.invalidate(KEYCLOAK_ID);
+    settingsCacheService.get(KEYCLOAK_ID, id -> load(loads));
+    assertThat(loads).hasValue(2);
+  }
+
+  @Test
+  void shouldExposeHitAndMissMetrics() {
+    var loads = new AtomicInteger();
+
+    settingsCacheService.get(KEYCLOAK_ID, id -> load(loads));
+    settingsCacheService.get(KEYCLOAK_ID, id -> load(loads));
+
+    assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count())
+        .isEqualTo(1);
+    assertThat(meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count())
+        .isEqualTo(1);
+  }
+
+  private VersionedSettings load(AtomicInteger loads) {
+    loads.incrementAndGet();
+    return new VersionedSettings(new SettingsReadDto(SETTINGS_ID), 0L);
+  }
+
+  @Test
+  void shouldLoadOnlyMissingSettingsInBatch() {
+    var otherKeycloakId = UUID.fromString("123e4567-e89b-12d3-a456-426655440001");
+    var loads = new AtomicInteger();
+    var cached = settingsCacheService.get(KEYCLOAK_ID, id -> load(loads));
+
+    var actual = settingsCacheService.getAll(List.of(KEYCLOAK_ID, otherKeycloakId), missing -> {
+      assertThat(missing).containsExactly(otherKeycloakId);
+      return Map.of(otherKeycloakId, load(loads));
+    });
+
+    assertThat(actual).containsOnlyKeys(KEYCLOAK_ID, otherKeycloakId);
+    assertThat(actual.get(KEYCLOAK_ID)).isSameAs(cached);
+    settingsCacheService.get(otherKeycloakId, id -> load(loads));
+    assertThat(loads).hasValue(2);
+  }
+
+  @Test
+  void expectBulkLoadNotCachedWhenInvalidatedMeanwhile() {
+    var otherKeycloakId = UUID.fromString("123e4567-e89b-12d3-a456-426655440001");
+    var loads = new AtomicInteger();
+
+    settingsCacheService.getAll(List.of(otherKeycloakId), missing -> {
+      var loaded = load(loads);
+      settingsCacheService.invalidate(otherKeycloakId);
+      return Map.of(otherKeycloakId, loaded);
+    });
+
+    assertThat(settingsCacheService.getIfPresent(otherKeycloakId)).isNull();
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.settings.api.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+
+import com.epam.digital.data.platform.settings.api.model.SettingsChangedEvent;
+import com.epam.digital.data.platform.settings.api.repository.SettingsEventOutboxRepository;
+import com.epam.digital.data.platform.settings.model.dto.Channel;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+@ExtendWith(MockitoExtension.class)
+class SettingsChangedEventPublisherTest {
+
+  private static final Instant NOW_INSTANT = Instant.parse("2023-01-01T10:00:00Z");
+  private static final LocalDateTime NOW = LocalDateTime.ofInstant(NOW_INSTANT, ZoneOffset.UTC);
+  private static final UUID KEYCLOAK_ID = UUID.fromString("496fd2fd-3497-4391-9ead-41410522d06f");
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Mock
+  private SettingsEventOutboxRepository outboxRepository;
+
+  private SettingsChangedEventPublisher publisher;
+
+  @BeforeEach
+  void beforeEach() {
+    publisher = new SettingsChangedEventPublisher(outboxRepository, objectMapper,
+        Clock.fixed(NOW_INSTANT, ZoneOffset.UTC));
+  }
+
+  @Test
+  void expectEventWrittenToOutbox() throws Exception {
+    publisher.publish(
+        new SettingsChangedEvent(KEYCLOAK_ID, Channel.EMAIL, true, "new@email.com", 42L));
+
+    var payloadCaptor = ArgumentCaptor.forClass(String.class);
+    verify(outboxRepository).insert(eq(KEYCLOAK_ID), payloadCaptor.capture(), eq(NOW));
+    var payload = objectMapper.readTree(payloadCaptor.getValue());
+    assertThat(payload.get("keycloakId").asText()).isEqualTo(KEYCLOAK_ID.toString());
+    assertThat(payload.get("activated").asBoolean()).isTrue();
+    assertThat(payload.get("address").asText()).isEqualTo("new@email.com");
+    assertThat(payload.get("version").asLong()).isEqualTo(42L);
+  }
+
+  @Test
+  void expectOutboxFailurePropagatedToRollBackTheChange() {
+    var exception = new DataAccessResourceFailureException("connection lost");
+    doThrow(exception).when(outboxRepository).insert(any(), any(), any());
+    var event = new SettingsChangedEvent(KEYCLOAK_ID, Channel.EMAIL, false, null, 42L);
+
+    assertThatThrownBy(() -> publisher.publish(event)).isSameAs(exception);
+  }
+}
@@ -0,0 +1,167 @@
+/*
+ *  Copyright 2021 EPAM Systems.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.epam.digital.data.platform.settings.api.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.epam.digital.data.platform.settings.api.config.KafkaConnectionProperties;
+import com.epam.digital.data.platform.settings.api.model.SettingsEventOutboxEntry;
+import com.epam.digital.data.platform.settings.api.repository.SettingsEventOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.condition.EmbeddedKafkaCondition;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+@EmbeddedKafka(partitions = 1, topics = SettingsEventOutboxRelayTest.TOPIC)
+class SettingsEventOutboxRelayTest {
+
+  static final String TOPIC = "user-settings-changed";
+  private static final Instant NOW_INSTANT = Instant.parse("2023-01-01T10:00:00Z");
+  private static final LocalDateTime NOW = LocalDateTime.ofInstant(NOW_INSTANT, ZoneOffset.UTC);
+  private static final LocalDateTime LEASE_UNTIL = NOW.plusSeconds(30);
+  private static final UUID KEYCLOAK_ID = UUID.fromString("496fd2fd-3497-4391-9ead-41410522d06f");
+  private static final String PAYLOAD = "{\"keycloakId\":\"" + KEYCLOAK_ID + "\"}";
+
+  @Mock
+  private SettingsEventOutboxRepository outboxRepository;
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @Test
+  void expectEntrySentKeyedByKeycloakIdAndDeleted() {
+    var broker = EmbeddedKafkaCondition.getBroker();
+    var entry = outboxEntry();
+    when(outboxRepository.claim(2, NOW, LEASE_UNTIL)).thenReturn(List.of(entry));
+    var relay = createRelay(broker.getBrokersAsString());
+
+    try {
+      relay.relay();
+    } finally {
+      relay.close();
+    }
+
+    verify(outboxRepository).deleteByIds(List.of(entry.getId()));
+    assertThat(meterRegistry.get("settings.events.published").counter().count()).isEqualTo(1);
+    var consumerRecord = consumeSingleRecord(broker);
+    assertThat(consumerRecord.key()).isEqualTo(KEYCLOAK_ID.toString());
+    assertThat(consumerRecord.value()).isEqualTo(PAYLOAD);
+  }
+
+  @Test
+  void expectEntryRescheduledWhenBrokerUnavailable() {
+    var entry = outboxEntry();
+    when(outboxRepository.claim(2, NOW, LEASE_UNTIL)).thenReturn(List.of(entry));
+    var relay = createRelay("localhost:1");
+
+    try {
+      relay.relay();
+    } finally {
+      relay.close();
+    }
+
+    verify(outboxRepository).reschedule(eq(entry.getId()), any(), eq(NOW.plusSeconds(1)));
+    verify(outboxRepository, never()).deleteByIds(any());
+    assertThat(meterRegistry.get("settings.events.published").counter().count()).isZero();
+    assertThat(meterRegistry.get("settings.events.outbox.failures").counter().count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void expectRestOfBatchReleasedAfterFirstFailure() {
+    var first = outboxEntry();
+    var second = outboxEntry();
+    when(outboxRepository.claim(2, NOW, LEASE_UNTIL)).thenReturn(List.of(first, second));
+    var relay = createRelay("localhost:1");
+
+    try {
+      relay.relay();
+    } finally {
+      relay.close();
+    }
+
+    verify(outboxRepository).reschedule(eq(first.getId()), any(), eq(NOW.plusSeconds(1)));
+    verify(outboxRepository).release(List.of(second.getId()), NOW.plusSeconds(1));
+    verify(outboxRepository, times(1)).claim(anyInt(), any(), any());
+    assertThat(meterRegistry.get("settings.events.outbox.failures").counter().count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void expectEntryNeverDeadLettered() {
+    var entry = outboxEntry();
+    entry.setAttempts(100);
+    when(outboxRepository.claim(2, NOW, LEASE_UNTIL)).thenReturn(List.of(entry));
+    var relay = createRelay("localhost:1");
+
+    try {
+      relay.relay();
+    } finally {
+      relay.close();
+    }
+
+    verify(outboxRepository).reschedule(eq(entry.getId()), any(), eq(NOW.plusSeconds(4)));
+    verify(outboxRepository, never()).deadLetter(any(), any(), any());
+  }
+
+  private SettingsEventOutboxRelay createRelay(String bootstrap) {
+    var connection = new KafkaConnectionProperties(bootstrap, false, "PEM", "PEM", "", "", "");
+    return new SettingsEventOutboxRelay(outboxRepository, connection,
+        Clock.fixed(NOW_INSTANT, ZoneOffset.UTC), meterRegistry, TOPIC, 500, 10_000,
+        2, 1000, 4000, 30000);
+  }
+
+  private ConsumerRecord<String, String> consumeSingleRecord(EmbeddedKafkaBroker broker) {
+    var consumerProps = KafkaTestUtils.consumerProps("settings-changed-test", "false", broker);
+    try (var consumer = new DefaultKafkaConsumerFactory<>(consumerProps,
+        new StringDeserializer(), new StringDeserializer()).createConsumer()) {
+      broker.consumeFromAnEmbeddedTopic(consumer, TOPIC);
+      return KafkaTestUtils.getSingleRecord(consumer, TOPIC, 10_000);
+    }
+  }
+
+  private static SettingsEventOutboxEntry outboxEntry() {
+    var entry = new SettingsEventOutboxEntry();
+    entry.setId(UUID.randomUUID());
+    entry.setAttempts(1);
+    entry.setKeycloakId(KEYCLOAK_ID);
+    entry.setPayload(PAYLOAD);
+    entry.setCreatedAt(NOW);
+    return entry;
+  }
+}
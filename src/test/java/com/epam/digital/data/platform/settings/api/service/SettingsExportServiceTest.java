@@ -0,0 +1,176 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.settings.api.service;
+
+import com.epam.digital.data.platform.settings.api.model.UserClaims;
+import com.epam.digital.data.platform.settings.api.repository.SettingsExportRepository;
+import com.epam.digital.data.platform.settings.model.dto.Channel;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class SettingsExportServiceTest {
+
+  private static final UUID FIRST_SETTINGS_ID =
+      UUID.fromString("00000000-0000-0000-0000-000000000001");
+  private static final UUID SECOND_SETTINGS_ID =
+      UUID.fromString("00000000-0000-0000-0000-000000000002");
+  private static final UUID FIRST_KEYCLOAK_ID =
+      UUID.fromString("123e4567-e89b-12d3-a456-426655440000");
+  private static final UUID SECOND_KEYCLOAK_ID =
+      UUID.fromString("496fd2fd-3497-4391-9ead-41410522d06f");
+  private static final Instant CREATED_AT = Instant.parse("2023-01-01T10:00:00Z");
+  private static final Instant UPDATED_AT = Instant.parse("2023-01-02T10:00:00Z");
+
+  private SettingsExportService settingsExportService;
+
+  @Mock
+  private SettingsExportRepository settingsExportRepository;
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  @BeforeEach
+  void beforeEach() {
+    settingsExportService = new SettingsExportService(settingsExportRepository,
+        transactionManager, new ObjectMapper(), List.of("admin"), 2);
+  }
+
+  @Test
+  void expectExportAllowedForUserWithExportRole() {
+    var userClaims = new UserClaims("user_id", "user_name", null, List.of("officer", "admin"));
+
+    assertThatCode(() -> settingsExportService.verifyExportAllowed(userClaims))
+        .doesNotThrowAnyException();
+  }
+
+  @Test
+  void expectAccessDeniedForUserWithoutExportRole() {
+    var userClaims = new UserClaims("user_id", "user_name", null, List.of("officer"));
+
+    assertThatThrownBy(() -> settingsExportService.verifyExportAllowed(userClaims))
+        .isInstanceOf(AccessDeniedException.class);
+  }
+
+  @Test
+  void expectAccessDeniedForUserWithoutRoles() {
+    var userClaims = new UserClaims("user_id", "user_name", null, null);
+
+    assertThatThrownBy(() -> settingsExportService.verifyExportAllowed(userClaims))
+        .isInstanceOf(AccessDeniedException.class);
+  }
+
+  @Test
+  void expectSettingsExportedAsNdjsonPageByPage() throws Exception {
+    doAnswer(invocation -> {
+      RowCallbackHandler handler = invocation.getArgument(2);
+      handler.processRow(row(FIRST_SETTINGS_ID, FIRST_KEYCLOAK_ID, "EMAIL", "email@email.com"));
+      handler.processRow(row(FIRST_SETTINGS_ID, FIRST_KEYCLOAK_ID, "DIIA", "1234567890"));
+      handler.processRow(row(SECOND_SETTINGS_ID, SECOND_KEYCLOAK_ID, null, null));
+      return null;
+    }).when(settingsExportRepository).findPage(isNull(), eq(2), any());
+
+    var outputStream = new ByteArrayOutputStream();
+    settingsExportService.exportSettings(outputStream);
+
+    var lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+    assertThat(lines).containsExactly(
+        "{\"settingsId\":\"" + FIRST_SETTINGS_ID + "\",\"keycloakId\":\"" + FIRST_KEYCLOAK_ID
+            + "\",\"channels\":[{\"channel\":\"" + Channel.EMAIL.getValue()
+            + "\",\"activated\":true,"
+            + "\"address\":\"email@email.com\",\"deactivationReason\":null,"
+            + "\"createdAt\":\"2023-01-01T10:00:00Z\",\"updatedAt\":\"2023-01-02T10:00:00Z\"},"
+            + "{\"channel\":\"" + Channel.DIIA.getValue()
+            + "\",\"activated\":true,\"address\":\"1234567890\","
+            + "\"deactivationReason\":null,\"createdAt\":\"2023-01-01T10:00:00Z\","
+            + "\"updatedAt\":\"2023-01-02T10:00:00Z\"}]}",
+        "{\"settingsId\":\"" + SECOND_SETTINGS_ID + "\",\"keycloakId\":\"" + SECOND_KEYCLOAK_ID
+            + "\",\"channels\":[]}");
+    verify(settingsExportRepository).findPage(eq(SECOND_SETTINGS_ID), eq(2), any());
+    verify(transactionManager, times(2)).commit(any());
+  }
+
+  @Test
+  void expectPageWrittenAfterTransactionCommit() throws Exception {
+    var outputStream = new ByteArrayOutputStream();
+    var writtenBeforeCommit = new ArrayList<Integer>();
+    doAnswer(invocation -> {
+      RowCallbackHandler handler = invocation.getArgument(2);
+      handler.processRow(row(FIRST_SETTINGS_ID, FIRST_KEYCLOAK_ID, "EMAIL", "email@email.com"));
+      return null;
+    }).when(settingsExportRepository).findPage(isNull(), eq(2), any());
+    doAnswer(invocation -> {
+      writtenBeforeCommit.add(outputStream.size());
+      return null;
+    }).when(transactionManager).commit(any());
+
+    settingsExportService.exportSettings(outputStream);
+
+    assertThat(writtenBeforeCommit).containsExactly(0);
+    assertThat(outputStream.toString(StandardCharsets.UTF_8))
+        .startsWith("{\"settingsId\":\"" + FIRST_SETTINGS_ID + "\"");
+  }
+
+  @Test
+  void expectEmptyOutputIfNoSettingsExist() throws Exception {
+    var outputStream = new ByteArrayOutputStream();
+    settingsExportService.exportSettings(outputStream);
+
+    assertThat(outputStream.toByteArray()).isEmpty();
+    verify(settingsExportRepository).findPage(isNull(), eq(2), any());
+  }
+
+  private ResultSet row(UUID settingsId, UUID keycloakId, String channel, String address)
+      throws Exception {
+    var rs = mock(ResultSet.class);
+    lenient().when(rs.getObject("settings_id", UUID.class)).thenReturn(settingsId);
+    lenient().when(rs.getObject("keycloak_id", UUID.class)).thenReturn(keycloakId);
+    lenient().when(rs.getString("channel")).thenReturn(channel);
+    lenient().when(rs.getString("address")).thenReturn(address);
+    lenient().when(rs.getBoolean("is_activated")).thenReturn(true);
+    lenient().when(rs.getTimestamp("created_at")).thenReturn(Timestamp.from(CREATED_AT));
+    lenient().when(rs.getTimestamp("updated_at")).thenReturn(Timestamp.from(UPDATED_AT));
+    return rs;
+  }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.settings.api.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.epam.digital.data.platform.settings.api.model.SettingsChangedEvent;
+import com.epam.digital.data.platform.settings.api.model.VersionedSettings;
+import com.epam.digital.data.platform.settings.model.dto.Channel;
+import com.epam.digital.data.platform.settings.model.dto.SettingsReadDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+class SettingsInvalidationBusTest {
+
+  private static final UUID KEYCLOAK_ID = UUID.fromString("123e4567-e89b-12d3-a456-426655440000");
+  private static final UUID SETTINGS_ID = UUID.fromString("321e7654-e89b-12d3-a456-426655441111");
+  private static final String CHANNEL = "user_settings_invalidation";
+
+  private static EmbeddedPostgres postgres;
+
+  private SimpleMeterRegistry meterRegistry;
+  private SettingsCacheService senderCache;
+  private SettingsCacheService receiverCache;
+  private SettingsInvalidationBus sender;
+  private SettingsInvalidationBus receiver;
+
+  @BeforeAll
+  static void startDatabase() throws IOException {
+    postgres = EmbeddedPostgres.start();
+  }
+
+  @AfterAll
+  static void stopDatabase() throws IOException {
+    postgres.close();
+  }
+
+  @BeforeEach
+  void beforeEach() {
+    meterRegistry = new SimpleMeterRegistry();
+    senderCache = new SettingsCacheService(60, 100, new SimpleMeterRegistry());
+    receiverCache = new SettingsCacheService(60, 100, new SimpleMeterRegistry());
+    sender = bus(senderCache, new SimpleMeterRegistry(), Clock.systemUTC());
+    receiver = bus(receiverCache, meterRegistry, Clock.systemUTC());
+  }
+
+  @AfterEach
+  void afterEach() {
+    receiver.stop();
+  }
+
+  @Test
+  void shouldEvictSettingsChangedOnAnotherInstance() {
+    receiver.start();
+    await(receiver::isConnected);
+    cache(receiverCache);
+
+    sender.onSettingsChanged(event());
+
+    await(() -> receiverCache.getIfPresent(KEYCLOAK_ID) == null);
+    assertThat(meterRegistry.get("settings.invalidation.received").counter().count())
+        .isEqualTo(1);
+    assertThat(meterRegistry.get("settings.invalidation.lag").timer().count()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldReconnectAndFlushCacheAfterConnectionLoss() {
+    receiver.start();
+    await(receiver::isConnected);
+    cache(receiverCache);
+
+    new NamedParameterJdbcTemplate(postgres.getPostgresDatabase()).query(
+        "SELECT pg_terminate_backend(pid) FROM pg_stat_activity "
+            + "WHERE application_name = 'user-settings-invalidation'",
+        Map.of(), rs -> null);
+
+    await(() -> meterRegistry.get("settings.invalidation.reconnects").counter().count() == 1
+        && receiver.isConnected());
+    assertThat(receiverCache.getIfPresent(KEYCLOAK_ID)).isNull();
+  }
+
+  @Test
+  void shouldIgnoreOwnNotifications() {
+    cache(receiverCache);
+
+    receiver.onNotification(receiver.payload(KEYCLOAK_ID));
+
+    assertThat(receiverCache.getIfPresent(KEYCLOAK_ID)).isNotNull();
+    assertThat(meterRegistry.get("settings.invalidation.received").counter().count())
+        .isZero();
+  }
+
+  @Test
+  void shouldIgnoreMalformedNotifications() {
+    cache(receiverCache);
+
+    receiver.onNotification("not a payload");
+    receiver.onNotification("instance|not-a-uuid|0");
+
+    assertThat(receiverCache.getIfPresent(KEYCLOAK_ID)).isNotNull();
+  }
+
+  @Test
+  void shouldRecordLagFromSenderTimestamp() {
+    var sentAt = Instant.parse("2021-01-01T10:00:00Z");
+    var senderAtSentTime = bus(senderCache, new SimpleMeterRegistry(),
+        Clock.fixed(sentAt, ZoneOffset.UTC));
+    var receiverLater = bus(receiverCache, meterRegistry,
+        Clock.fixed(sentAt.plusMillis(250), ZoneOffset.UTC));
+
+    receiverLater.onNotification(senderAtSentTime.payload(KEYCLOAK_ID));
+
+    assertThat(meterRegistry.get("settings.invalidation.lag").timer().max(TimeUnit.MILLISECONDS)).isEqualTo(250);
+  }
+
+  private SettingsInvalidationBus bus(
+      SettingsCacheService cacheService, SimpleMeterRegistry registry, Clock clock) {
+    var dataSource = postgres.getPostgresDatabase();
+    return new SettingsInvalidationBus(new NamedParameterJdbcTemplate(dataSource), cacheService,
+        clock, registry, postgres.getJdbcUrl("postgres", "postgres"), "postgres", "postgres",
+        CHANNEL, 100, 100);
+  }
+
+  private void cache(SettingsCacheService cacheService) {
+    cacheService.get(KEYCLOAK_ID,
+        id -> new VersionedSettings(new SettingsReadDto(SETTINGS_ID), 0L));
+  }
+
+  private SettingsChangedEvent event() {
+    return new SettingsChangedEvent(KEYCLOAK_ID, Channel.EMAIL, true, "user@example.com", 0L);
+  }
+
+  private void await(BooleanSupplier condition) {
+    var deadline = System.currentTimeMillis() + 10_000;
+    while (!condition.getAsBoolean()) {
+      assertThat(System.currentTimeMillis()).as("condition not met in time")
+          .isLessThan(deadline);
+      try {
+        Thread.sleep(20);
+      } catch (InterruptedException exception) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException(exception);
+      }
+    }
+  }
+}
@@ -16,85 +16,286 @@
 
 package com.epam.digital.data.platform.settings.api.service;
 
-import com.epam.digital.data.platform.settings.api.model.NotificationChannel;
+import com.epam.digital.data.platform.settings.api.exception.BatchSizeExceededException;
+import com.epam.digital.data.platform.settings.api.model.ChannelOwner;
 import com.epam.digital.data.platform.settings.api.model.Settings;
-import com.epam.digital.data.platform.settings.api.repository.NotificationChannelRepository;
-import com.epam.digital.data.platform.settings.api.repository.SettingsRepository;
+import com.epam.digital.data.platform.settings.api.model.UserClaims;
+import com.epam.digital.data.platform.settings.api.model.VersionedSettings;
+import com.epam.digital.data.platform.settings.api.repository.SettingsReadRepository;
+import com.epam.digital.data.platform.settings.api.repository.SettingsSharedCacheRepository;
 import com.epam.digital.data.platform.settings.model.dto.Channel;
+import com.epam.digital.data.platform.settings.model.dto.ChannelReadDto;
+import com.epam.digital.data.platform.settings.model.dto.SettingsReadDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
-import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.security.access.AccessDeniedException;
 
-import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class SettingsReadServiceTest {
 
   private static final UUID SETTINGS_ID = UUID.fromString("321e7654-e89b-12d3-a456-426655441111");
-  private static final UUID NOTIFICATION_CHANNEL_ID = UUID.fromString("da8ee615-5de7-474d-a673-f83831c7f547");
   private static final UUID TOKEN_SUBJECT_ID = UUID.fromString("123e4567-e89b-12d3-a456-426655440000");
+  private static final UserClaims USER_CLAIMS = new UserClaims(
+      TOKEN_SUBJECT_ID.toString(), "user_name", "1234567890", List.of());
   private static final String EMAIL = "email@email.com";
-  private static final String UPDATED_EMAIL = "email@email.com";
 
   private static final String DEACTIVATION_REASON = "User deactivated";
+  private static final long VERSION = 1_672_567_200_000_000L;
 
   private SettingsReadService settingsReadService;
+  private SimpleMeterRegistry meterRegistry;
 
   @Mock
-  private JwtInfoProvider jwtInfoProvider;
+  private SettingsReadRepository settingsReadRepository;
   @Mock
-  private SettingsRepository settingsRepository;
+  private SettingsSharedCacheRepository sharedCacheRepository;
   @Mock
-  private NotificationChannelRepository notificationChannelRepository;
-
-  @Captor
-  private ArgumentCaptor<Settings> updatedSettingsCaptor;
+  private ObjectProvider<SettingsSharedCacheRepository> sharedCacheProvider;
 
   @BeforeEach
   void beforeEach() {
-    settingsReadService = new SettingsReadService(settingsRepository, notificationChannelRepository, jwtInfoProvider);
+    settingsReadService = createService(null);
+  }
 
-    when(jwtInfoProvider.getUserId(any())).thenReturn(TOKEN_SUBJECT_ID.toString());
+  private SettingsReadService createService(SettingsSharedCacheRepository sharedCache) {
+    when(sharedCacheProvider.getIfAvailable()).thenReturn(sharedCache);
+    var settingsCacheService = new SettingsCacheService(60, 100, new SimpleMeterRegistry());
+    meterRegistry = new SimpleMeterRegistry();
+    return new SettingsReadService(settingsReadRepository, settingsCacheService,
+        sharedCacheProvider, 3, 5000, List.of("admin"), meterRegistry);
   }
 
   @Test
   void expectUserSettingsFromDbReturnedIfExist() {
-    var settingsFromDb = new Settings();
-    settingsFromDb.setId(SETTINGS_ID);
-    settingsFromDb.setKeycloakId(TOKEN_SUBJECT_ID);
-
-    var channelFromDb = new NotificationChannel();
-    channelFromDb.setId(NOTIFICATION_CHANNEL_ID);
+    var channelFromDb = new ChannelReadDto();
     channelFromDb.setChannel(Channel.EMAIL);
     channelFromDb.setActivated(false);
     channelFromDb.setAddress(EMAIL);
     channelFromDb.setDeactivationReason(DEACTIVATION_REASON);
-    channelFromDb.setCreatedAt(LocalDateTime.MIN);
-    channelFromDb.setUpdatedAt(LocalDateTime.MIN);
 
-    when(settingsRepository.getByKeycloakId(TOKEN_SUBJECT_ID)).thenReturn(settingsFromDb);
-    when(notificationChannelRepository.findBySettingsId(SETTINGS_ID))
-        .thenReturn(Collections.singletonList(channelFromDb));
+    when(settingsReadRepository.findByKeycloakId(TOKEN_SUBJECT_ID))
+        .thenReturn(Optional.of(new VersionedSettings(
+            new SettingsReadDto(SETTINGS_ID, Collections.singletonList(channelFromDb)), VERSION)));
 
-    var actual = settingsReadService.findSettingsFromUserToken("token");
+    var actual = settingsReadService.findSettingsFromUserClaims(USER_CLAIMS).getSettings();
 
-    assertThat(actual.getSettingsId()).isEqualTo(settingsFromDb.getId());
+    assertThat(actual.getSettingsId()).isEqualTo(SETTINGS_ID);
     assertThat(actual.getChannels()).hasSize(1);
     assertThat(actual.getChannels().get(0).getChannel()).isEqualTo(Channel.EMAIL);
     assertThat(actual.getChannels().get(0).isActivated()).isFalse();
     assertThat(actual.getChannels().get(0).getAddress()).isEqualTo(EMAIL);
     assertThat(actual.getChannels().get(0).getDeactivationReason()).isEqualTo(DEACTIVATION_REASON);
   }
-}
 
+  @Test
+  void expectEmptySettingsReturnedWithoutCreationIfNotExist() {
+    when(settingsReadRepository.findByKeycloakId(TOKEN_SUBJECT_ID)).thenReturn(Optional.empty());
+
+    var actual = settingsReadService.findSettingsFromUserClaims(USER_CLAIMS);
+
+    assertThat(actual.getSettings().getSettingsId())
+        .isEqualTo(Settings.deriveId(TOKEN_SUBJECT_ID));
+    assertThat(actual.getSettings().getChannels()).isEmpty();
+    assertThat(actual.getVersion()).isZero();
+  }
+
+  @Test
+  void expectRepeatedReadsServedFromCache() {
+    when(settingsReadRepository.findByKeycloakId(TOKEN_SUBJECT_ID))
+        .thenReturn(Optional.of(new VersionedSettings(new SettingsReadDto(SETTINGS_ID), VERSION)));
+
+    var first = settingsReadService.findSettingsFromUserClaims(USER_CLAIMS);
+    var second = settingsReadService.findSettingsFromUserClaims(USER_CLAIMS);
+
+    assertThat(second).isSameAs(first);
+    verify(settingsReadRepository, times(1)).findByKeycloakId(TOKEN_SUBJECT_ID);
+  }
+
+  @Test
+  void expectConcurrentReadsOfSameUserCoalescedIntoSingleLoad() throws Exception {
+    var release = new CountDownLatch(1);
+    when(settingsReadRepository.findByKeycloakId(TOKEN_SUBJECT_ID)).thenAnswer(invocation -> {
+      release.await(5, TimeUnit.SECONDS);
+      return Optional.of(new VersionedSettings(new SettingsReadDto(SETTINGS_ID), VERSION));
+    });
+    var executor = Executors.newFixedThreadPool(2);
+    try {
+      var first = executor.submit(() -> settingsReadService.findSettingsByUserId(TOKEN_SUBJECT_ID));
+      verify(settingsReadRepository, timeout(5000)).findByKeycloakId(TOKEN_SUBJECT_ID);
+      var second = executor.submit(
+          () -> settingsReadService.findSettingsByUserId(TOKEN_SUBJECT_ID));
+      var coalesced = meterRegistry.get("settings.read.coalesced").functionCounter();
+      while (coalesced.count() < 1) {
+        Thread.sleep(1);
+      }
+      release.countDown();
+
+      assertThat(second.get(5, TimeUnit.SECONDS)).isSameAs(first.get(5, TimeUnit.SECONDS));
+      verify(settingsReadRepository, times(1)).findByKeycloakId(TOKEN_SUBJECT_ID);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void expectBatchLoadedInSingleQueryAndUnknownUsersNotCreated() {
+    var unknownUserId = UUID.fromString("0a4f31b5-4ea8-4b4b-8b68-5e6a8c1ac4a1");
+    var settings = new SettingsReadDto(SETTINGS_ID);
+    when(settingsReadRepository.findByKeycloakIds(Set.of(TOKEN_SUBJECT_ID, unknownUserId)))
+        .thenReturn(Map.of(TOKEN_SUBJECT_ID, new VersionedSettings(settings, VERSION)));
+
+    var actual = settingsReadService.findSettingsByUserIds(
+        List.of(TOKEN_SUBJECT_ID, unknownUserId, TOKEN_SUBJECT_ID));
+
+    assertThat(actual).containsOnlyKeys(TOKEN_SUBJECT_ID, unknownUserId);
+    assertThat(actual.get(TOKEN_SUBJECT_ID)).isSameAs(settings);
+    assertThat(actual.get(unknownUserId).getSettingsId())
+        .isEqualTo(Settings.deriveId(unknownUserId));
+    assertThat(actual.get(unknownUserId).getChannels()).isEmpty();
+  }
+
+  @Test
+  void expectBatchServedFromCacheForPreviouslyReadUsers() {
+    when(settingsReadRepository.findByKeycloakId(TOKEN_SUBJECT_ID))
+        .thenReturn(Optional.of(new VersionedSettings(new SettingsReadDto(SETTINGS_ID), VERSION)));
+    var cached = settingsReadService.findSettingsByUserId(TOKEN_SUBJECT_ID);
+
+    var actual = settingsReadService.findSettingsByUserIds(List.of(TOKEN_SUBJECT_ID));
+
+    assertThat(actual.get(TOKEN_SUBJECT_ID)).isSameAs(cached.getSettings());
+    verify(settingsReadRepository, never()).findByKeycloakIds(any());
+  }
+
+  @Test
+  void expectSettingsServedFromSharedCacheWithoutDatabaseQuery() {
+    settingsReadService = createService(sharedCacheRepository);
+    var shared = new VersionedSettings(new SettingsReadDto(SETTINGS_ID), VERSION);
+    when(sharedCacheRepository.get(TOKEN_SUBJECT_ID)).thenReturn(shared);
+
+    var actual = settingsReadService.findSettingsByUserId(TOKEN_SUBJECT_ID);
+
+    assertThat(actual).isSameAs(shared);
+    verify(settingsReadRepository, never()).findByKeycloakId(any());
+  }
+
+  @Test
+  void expectSettingsLoadedFromDatabaseStoredInSharedCache() {
+    settingsReadService = createService(sharedCacheRepository);
+    var loaded = new VersionedSettings(new SettingsReadDto(SETTINGS_ID), VERSION);
+    when(settingsReadRepository.findByKeycloakId(TOKEN_SUBJECT_ID))
+        .thenReturn(Optional.of(loaded));
+
+    var actual = settingsReadService.findSettingsByUserId(TOKEN_SUBJECT_ID);
+
+    assertThat(actual).isSameAs(loaded);
+    verify(sharedCacheRepository).put(TOKEN_SUBJECT_ID, loaded);
+  }
+
+  @Test
+  void expectBatchQueriesDatabaseOnlyForSharedCacheMisses() {
+    settingsReadService = createService(sharedCacheRepository);
+    var unknownUserId = UUID.fromString("0a4f31b5-4ea8-4b4b-8b68-5e6a8c1ac4a1");
+    var shared = new VersionedSettings(new SettingsReadDto(SETTINGS_ID), VERSION);
+    when(sharedCacheRepository.getAll(Set.of(TOKEN_SUBJECT_ID, unknownUserId)))
+        .thenReturn(Map.of(TOKEN_SUBJECT_ID, shared));
+    when(settingsReadRepository.findByKeycloakIds(Set.of(unknownUserId))).thenReturn(Map.of());
+
+    var actual = settingsReadService.findSettingsByUserIds(
+        List.of(TOKEN_SUBJECT_ID, unknownUserId));
+
+    assertThat(actual.get(TOKEN_SUBJECT_ID)).isSameAs(shared.getSettings());
+    assertThat(actual.get(unknownUserId).getSettingsId())
+        .isEqualTo(Settings.deriveId(unknownUserId));
+    verify(sharedCacheRepository).putAll(argThat(
+        loaded -> loaded.keySet().equals(Set.of(unknownUserId))));
+  }
+
+  @Test
+  void expectBatchRejectedWhenLimitExceeded() {
+    var userIds = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(),
+        UUID.randomUUID());
+
+    assertThatThrownBy(() -> settingsReadService.findSettingsByUserIds(userIds))
+        .isInstanceOf(BatchSizeExceededException.class);
+    verify(settingsReadRepository, never()).findByKeycloakIds(any());
+  }
+
+  @Test
+  void expectChannelOwnersLookupAllowedForUserWithRole() {
+    var userClaims = new UserClaims("user_id", "user_name", null, List.of("officer", "admin"));
+
+    assertThatCode(() -> settingsReadService.verifyChannelOwnersLookupAllowed(userClaims))
+        .doesNotThrowAnyException();
+  }
+
+  @Test
+  void expectAccessDeniedForChannelOwnersLookupWithoutRole() {
+    var userClaims = new UserClaims("user_id", "user_name", null, List.of("citizen"));
+
+    assertThatThrownBy(() -> settingsReadService.verifyChannelOwnersLookupAllowed(userClaims))
+        .isInstanceOf(AccessDeniedException.class);
+  }
+
+  @Test
+  void expectAccessDeniedForChannelOwnersLookupWithoutRoles() {
+    var userClaims = new UserClaims("user_id", "user_name", null, null);
+
+    assertThatThrownBy(() -> settingsReadService.verifyChannelOwnersLookupAllowed(userClaims))
+        .isInstanceOf(AccessDeniedException.class);
+  }
+
+  @Test
+  void expectChannelOwnersFoundByUniqueAddresses() {
+    var owner = new ChannelOwner(EMAIL, TOKEN_SUBJECT_ID, Channel.EMAIL, true);
+    when(settingsReadRepository.findChannelOwnersByAddresses(Set.of(EMAIL, "unknown@email.com")))
+        .thenReturn(List.of(owner));
+
+    var actual = settingsReadService.findChannelOwnersByAddresses(
+        List.of(EMAIL, "unknown@email.com", EMAIL));
+
+    assertThat(actual).containsExactly(owner);
+  }
+
+  @Test
+  void expectNoQueryForEmptyAddresses() {
+    var actual = settingsReadService.findChannelOwnersByAddresses(List.of());
+
+    assertThat(actual).isEmpty();
+    verify(settingsReadRepository, never()).findChannelOwnersByAddresses(any());
+  }
+
+  @Test
+  void expectAddressesRejectedWhenLimitExceeded() {
+    var addresses = List.of("a@email.com", "b@email.com", "c@email.com", "d@email.com");
+
+    assertThatThrownBy(() -> settingsReadService.findChannelOwnersByAddresses(addresses))
+        .isInstanceOf(BatchSizeExceededException.class);
+    verify(settingsReadRepository, never()).findChannelOwnersByAddresses(any());
+  }
+}
@@ -22,6 +22,8 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.epam.digital.data.platform.settings.api.exception.EmailAddressValidationException;
 import com.epam.digital.data.platform.settings.model.dto.SettingsEmailInputDto;
+import com.fasterxml.jackson.core.JsonFactory;
+import java.io.StringWriter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -77,4 +79,52 @@ class SettingsValidationServiceTest {
 
     assertEquals("Email address is not valid", ex.getMessage());
   }
+
+  @Test
+  void expectBatchValidationResultForEveryAddress() throws Exception {
+    var factory = new JsonFactory();
+    var parser = factory.createParser("[\"email@gmail.com\", \"\", null, \".email@gmail.com\"]");
+    parser.nextToken();
+    var output = new StringWriter();
+
+    try (var generator = factory.createGenerator(output)) {
+      settingsValidationService.validateEmailAddresses(parser, generator);
+    }
+
+    assertEquals("[{\"index\":0,\"status\":\"VALID\"},"
+        + "{\"index\":1,\"status\":\"EMPTY\",\"messageKey\":\"ERROR_EMAIL_ADDRESS_EMPTY\"},"
+        + "{\"index\":2,\"status\":\"EMPTY\",\"messageKey\":\"ERROR_EMAIL_ADDRESS_EMPTY\"},"
+        + "{\"index\":3,\"status\":\"NOT_VALID\","
+        + "\"messageKey\":\"ERROR_EMAIL_ADDRESS_NOT_VALID\"}]", output.toString());
+  }
+
+  @Test
+  void expectBatchValidationEndWithErrorRecordOnNonStringAddress() throws Exception {
+    var factory = new JsonFactory();
+    var parser = factory.createParser("[\"email@gmail.com\", {\"address\": \"a@b.c\"}]");
+    parser.nextToken();
+    var output = new StringWriter();
+
+    try (var generator = factory.createGenerator(output)) {
+      settingsValidationService.validateEmailAddresses(parser, generator);
+    }
+
+    assertEquals("[{\"index\":0,\"status\":\"VALID\"},"
+        + "{\"index\":1,\"error\":\"CLIENT_ERROR\"}]", output.toString());
+  }
+
+  @Test
+  void expectBatchValidationEndWithErrorRecordOnTruncatedBody() throws Exception {
+    var factory = new JsonFactory();
+    var parser = factory.createParser("[\"email@gmail.com\", \"ema");
+    parser.nextToken();
+    var output = new StringWriter();
+
+    try (var generator = factory.createGenerator(output)) {
+      settingsValidationService.validateEmailAddresses(parser, generator);
+    }
+
+    assertEquals("[{\"index\":0,\"status\":\"VALID\"},"
+        + "{\"index\":1,\"error\":\"CLIENT_ERROR\"}]", output.toString());
+  }
 }
@@ -17,71 +17,59 @@
 package com.epam.digital.data.platform.settings.api.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.Mockito.when;
 
+import com.epam.digital.data.platform.settings.api.model.UserClaims;
 import com.epam.digital.data.platform.settings.model.dto.Channel;
 import com.epam.digital.data.platform.starter.security.SystemRole;
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.Mock;
-import org.mockito.Mockito;
-import org.mockito.junit.jupiter.MockitoExtension;
 
-@ExtendWith(MockitoExtension.class)
 class UserRoleVerifierServiceTest {
 
   private UserRoleVerifierService userRoleVerifierService;
-  @Mock
-  private JwtInfoProvider jwtInfoProvider;
-
-  private static final String VALID_ACCESS_TOKEN = "valid_access_token";
 
   @BeforeEach
   public void beforeAll() {
-    userRoleVerifierService = new UserRoleVerifierService(jwtInfoProvider);
+    userRoleVerifierService = new UserRoleVerifierService();
   }
 
   @Test
   void shouldPassUserRoleVerification() {
-    when(jwtInfoProvider.getUserRoles(VALID_ACCESS_TOKEN))
-        .thenReturn(List.of(SystemRole.CITIZEN.getName()));
+    var userClaims = userClaimsWithRoles(List.of(SystemRole.CITIZEN.getName()));
 
-    boolean result = userRoleVerifierService.verify(Channel.DIIA, VALID_ACCESS_TOKEN);
+    boolean result = userRoleVerifierService.verify(Channel.DIIA, userClaims);
 
     assertThat(result).isTrue();
-    Mockito.verify(jwtInfoProvider).getUserRoles(VALID_ACCESS_TOKEN);
   }
 
   @Test
   void shouldPassUserRoleVerificationWithChannelEmail() {
-    when(jwtInfoProvider.getUserRoles(VALID_ACCESS_TOKEN))
-        .thenReturn(List.of(SystemRole.OFFICER.getName()));
+    var userClaims = userClaimsWithRoles(List.of(SystemRole.OFFICER.getName()));
 
-    boolean result = userRoleVerifierService.verify(Channel.EMAIL, VALID_ACCESS_TOKEN);
+    boolean result = userRoleVerifierService.verify(Channel.EMAIL, userClaims);
 
     assertThat(result).isTrue();
-    Mockito.verify(jwtInfoProvider).getUserRoles(VALID_ACCESS_TOKEN);
   }
 
   @Test
   void shouldNotPassUserRoleVerification() {
-    when(jwtInfoProvider.getUserRoles(VALID_ACCESS_TOKEN))
-        .thenReturn(List.of(SystemRole.OFFICER.getName()));
+    var userClaims = userClaimsWithRoles(List.of(SystemRole.OFFICER.getName()));
 
-    boolean result = userRoleVerifierService.verify(Channel.DIIA, VALID_ACCESS_TOKEN);
+    boolean result = userRoleVerifierService.verify(Channel.DIIA, userClaims);
     assertThat(result).isFalse();
-    Mockito.verify(jwtInfoProvider).getUserRoles(VALID_ACCESS_TOKEN);
   }
 
   @Test
   void shouldNotPassUserRoleVerificationWithNoRoles() {
-    when(jwtInfoProvider.getUserRoles(VALID_ACCESS_TOKEN)).thenReturn(null);
+    var userClaims = userClaimsWithRoles(null);
 
-    boolean result = userRoleVerifierService.verify(Channel.DIIA, VALID_ACCESS_TOKEN);
+    boolean result = userRoleVerifierService.verify(Channel.DIIA, userClaims);
 
     assertThat(result).isFalse();
-    Mockito.verify(jwtInfoProvider).getUserRoles(VALID_ACCESS_TOKEN);
+  }
+
+  private UserClaims userClaimsWithRoles(List<String> roles) {
+    return new UserClaims("user_id", "user_name", "1234567890", roles);
   }
 }
@@ -1,12 +1,15 @@
 package com.epam.digital.data.platform.settings.api.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.epam.digital.data.platform.settings.api.service.impl.VerificationCodeGeneratorImpl;
+import com.epam.digital.data.platform.settings.api.utils.SecureRandomPool;
 import java.security.SecureRandom;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -24,7 +27,8 @@ class VerificationCodeGeneratorTest {
 
   @BeforeEach
   public void beforeEach() {
-    codeGeneratorService = new VerificationCodeGeneratorImpl(mockRandomGenerator);
+    codeGeneratorService = new VerificationCodeGeneratorImpl(
+        new SecureRandomPool(List.of(mockRandomGenerator)), 6);
   }
 
   @Test
@@ -36,7 +40,7 @@ class VerificationCodeGeneratorTest {
     var boundCaptor = ArgumentCaptor.forClass(Integer.class);
     verify(mockRandomGenerator).nextInt(boundCaptor.capture());
 
-    assertThat(boundCaptor.getValue()).isEqualTo(999999);
+    assertThat(boundCaptor.getValue()).isEqualTo(1_000_000);
     assertThat(generatedCode).isEqualTo("123456");
   }
 
@@ -48,4 +52,33 @@ class VerificationCodeGeneratorTest {
 
     assertThat(generatedCode).isEqualTo("000005");
   }
+
+  @Test
+  void shouldGenerateHighestCode() {
+    when(mockRandomGenerator.nextInt(1_000_000)).thenReturn(999_999);
+
+    String generatedCode = codeGeneratorService.generate();
+
+    assertThat(generatedCode).isEqualTo("999999");
+  }
+
+  @Test
+  void shouldGenerateCodeOfConfiguredLength() {
+    codeGeneratorService = new VerificationCodeGeneratorImpl(
+        new SecureRandomPool(List.of(mockRandomGenerator)), 8);
+    when(mockRandomGenerator.nextInt(anyInt())).thenReturn(42);
+
+    String generatedCode = codeGeneratorService.generate();
+
+    verify(mockRandomGenerator).nextInt(100_000_000);
+    assertThat(generatedCode).isEqualTo("00000042");
+  }
+
+  @Test
+  void shouldRejectUnsupportedLength() {
+    var pool = new SecureRandomPool(List.of(mockRandomGenerator));
+
+    assertThatThrownBy(() -> new VerificationCodeGeneratorImpl(pool, 10))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
 }
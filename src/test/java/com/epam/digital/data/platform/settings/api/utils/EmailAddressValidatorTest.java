@@ -0,0 +1,102 @@
+/*
+ *  Copyright 2021 EPAM Systems.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.epam.digital.data.platform.settings.api.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class EmailAddressValidatorTest {
+
+  private static final Pattern EMAIL_PATTERN = Pattern.compile(
+      "^[a-zA-Z0-9_!#$%&'*+/=?`{|}~^-]+(?:\\.[a-zA-Z0-9_!#$%&'*+/=?`{|}~^-]+)*"
+          + "@[a-zA-Z0-9-]+(?:\\.[a-zA-Z0-9-]+)+$");
+
+  private static final String ALPHABET = "aZ09_!#$%&'*+/=?`{|}~^-..@@\n \u00e9\u0430";
+
+  @ParameterizedTest
+  @ValueSource(strings = {"email@gmail.com", "first.last@sub.domain.ua", "a@b.c",
+      "o'neil+tag@my-host.com.ua", "{x}|~^@1-2.3", "-@-.-"})
+  void expectValidAddressAccepted(String address) {
+    assertThat(EmailAddressValidator.isValid(address)).isTrue();
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"", ".settings2@yahoo.com", "settings2@yahoo", "a..b@c.d", "a.@c.d",
+      "a@c..d", "a@c.d.", "a@.c.d", "a@b@c.d", "a b@c.d", "a@c.d\n", "\u00e9@c.d", "a@c_d.e",
+      "@c.d", "a@"})
+  void expectInvalidAddressRejected(String address) {
+    assertThat(EmailAddressValidator.isValid(address)).isFalse();
+  }
+
+  @Test
+  void expectSameResultAsRegexForRandomInput() {
+    var random = new Random(20230101L);
+    for (int i = 0; i < 200_000; i++) {
+      var address = randomString(random, random.nextInt(16));
+      assertThat(EmailAddressValidator.isValid(address))
+          .as("address [%s]", address)
+          .isEqualTo(EMAIL_PATTERN.matcher(address).matches());
+    }
+  }
+
+  @Test
+  void expectSameResultAsRegexForMutatedValidAddresses() {
+    var random = new Random(20230102L);
+    var seeds = new String[] {"email@gmail.com", "first.last@sub.domain.ua", "a_b-c@d-e.f.g"};
+    for (int i = 0; i < 100_000; i++) {
+      var address = new StringBuilder(seeds[random.nextInt(seeds.length)]);
+      for (int m = random.nextInt(3) + 1; m > 0; m--) {
+        mutate(random, address);
+      }
+      assertThat(EmailAddressValidator.isValid(address))
+          .as("address [%s]", address)
+          .isEqualTo(EMAIL_PATTERN.matcher(address).matches());
+    }
+  }
+
+  private static String randomString(Random random, int length) {
+    var builder = new StringBuilder(length);
+    for (int i = 0; i < length; i++) {
+      builder.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+    }
+    return builder.toString();
+  }
+
+  private static void mutate(Random random, StringBuilder address) {
+    var c = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+    var position = random.nextInt(address.length() + 1);
+    switch (random.nextInt(3)) {
+      case 0:
+        address.insert(position, c);
+        break;
+      case 1:
+        if (position < address.length()) {
+          address.deleteCharAt(position);
+        }
+        break;
+      default:
+        if (position < address.length()) {
+          address.setCharAt(position, c);
+        }
+    }
+  }
+}
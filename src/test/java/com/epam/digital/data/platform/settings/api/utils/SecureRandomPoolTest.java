@@ -0,0 +1,61 @@
+/*
+ *  Copyright 2021 EPAM Systems.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.epam.digital.data.platform.settings.api.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.security.SecureRandom;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class SecureRandomPoolTest {
+
+  @Test
+  void expectSameInstanceForSameThread() {
+    var pool = new SecureRandomPool(
+        List.of(new SecureRandom(), new SecureRandom(), new SecureRandom()));
+
+    assertThat(pool.current()).isSameAs(pool.current());
+    assertThat(pool.size()).isEqualTo(3);
+  }
+
+  @Test
+  void expectThreadsStripedAcrossInstances() throws InterruptedException {
+    var pool = new SecureRandomPool(List.of(new SecureRandom(), new SecureRandom()));
+    Set<SecureRandom> used = ConcurrentHashMap.newKeySet();
+    var executor = Executors.newFixedThreadPool(8);
+
+    for (int i = 0; i < 8; i++) {
+      executor.execute(() -> used.add(pool.current()));
+    }
+    executor.shutdown();
+    executor.awaitTermination(5, TimeUnit.SECONDS);
+
+    assertThat(used).hasSize(2);
+  }
+
+  @Test
+  void expectEmptyPoolRejected() {
+    assertThatThrownBy(() -> new SecureRandomPool(List.of()))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.settings.api.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+  @AfterEach
+  void afterEach() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void expectConcurrentCallsWithSameKeyLoadedOnce() throws Exception {
+    var singleFlight = new SingleFlight<String, String>(Duration.ofSeconds(5));
+    var loads = new AtomicInteger();
+    var release = new CountDownLatch(1);
+
+    var leader = executor.submit(() -> singleFlight.execute("key", () -> {
+      loads.incrementAndGet();
+      await(release);
+      return "value";
+    }));
+    awaitInFlight(singleFlight);
+    var waiters = new CompletableFuture<?>[3];
+    for (int i = 0; i < waiters.length; i++) {
+      waiters[i] = CompletableFuture.supplyAsync(
+          () -> execute(singleFlight, "key", () -> "other"), executor);
+    }
+    awaitCoalesced(singleFlight, 3);
+    release.countDown();
+
+    assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+    for (var waiter : waiters) {
+      assertThat(waiter.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+    }
+    assertThat(loads).hasValue(1);
+    assertThat(singleFlight.coalescedCount()).isEqualTo(3);
+    assertThat(singleFlight.inFlightCount()).isZero();
+  }
+
+  @Test
+  void expectSequentialCallsNotCoalesced() throws Exception {
+    var singleFlight = new SingleFlight<String, Integer>(Duration.ofSeconds(5));
+    var loads = new AtomicInteger();
+
+    singleFlight.execute("key", loads::incrementAndGet);
+    var second = singleFlight.execute("key", loads::incrementAndGet);
+
+    assertThat(second).isEqualTo(2);
+    assertThat(singleFlight.coalescedCount()).isZero();
+  }
+
+  @Test
+  void expectWaiterTimedOutWhileLoadContinues() throws Exception {
+    var singleFlight = new SingleFlight<String, String>(Duration.ofMillis(50));
+    var release = new CountDownLatch(1);
+
+    var leader = executor.submit(() -> singleFlight.execute("key", () -> {
+      await(release);
+      return "value";
+    }));
+    awaitInFlight(singleFlight);
+
+    assertThatThrownBy(() -> singleFlight.execute("key", () -> "other"))
+        .isInstanceOf(TimeoutException.class);
+    release.countDown();
+
+    assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+    assertThat(singleFlight.timedOutCount()).isEqualTo(1);
+  }
+
+  @Test
+  void expectLoaderExceptionPropagatedToWaitersAndKeyReleased() throws Exception {
+    var singleFlight = new SingleFlight<String, String>(Duration.ofSeconds(5));
+    var release = new CountDownLatch(1);
+    var failure = new IllegalStateException("load failed");
+
+    var leader = executor.submit(() -> singleFlight.execute("key", () -> {
+      await(release);
+      throw failure;
+    }));
+    awaitInFlight(singleFlight);
+    var waiter = CompletableFuture.supplyAsync(
+        () -> execute(singleFlight, "key", () -> "other"), executor);
+    awaitCoalesced(singleFlight, 1);
+    release.countDown();
+
+    assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCause(failure);
+    assertThatThrownBy(() -> waiter.get(5, TimeUnit.SECONDS)).hasCause(failure);
+    assertThat(singleFlight.inFlightCount()).isZero();
+    assertThat(singleFlight.execute("key", () -> "retried")).isEqualTo("retried");
+  }
+
+  private static String execute(SingleFlight<String, String> singleFlight, String key,
+      Supplier<String> loader) {
+    try {
+      return singleFlight.execute(key, loader);
+    } catch (TimeoutException exception) {
+      throw new IllegalStateException(exception);
+    }
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static void awaitInFlight(SingleFlight<?, ?> singleFlight) throws InterruptedException {
+    while (singleFlight.inFlightCount() == 0) {
+      Thread.sleep(1);
+    }
+  }
+
+  private static void awaitCoalesced(SingleFlight<?, ?> singleFlight, long expected)
+      throws InterruptedException {
+    while (singleFlight.coalescedCount() < expected) {
+      Thread.sleep(1);
+    }
+  }
+}
@@ -0,0 +1,54 @@
+/*
+ *  Copyright 2021 EPAM Systems.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.epam.digital.data.platform.settings.api.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+class ZeroPaddedDigitsTest {
+
+  @Test
+  void expectValuePaddedWithLeadingZeroes() {
+    assertThat(ZeroPaddedDigits.encode(5, 6)).isEqualTo("000005");
+    assertThat(ZeroPaddedDigits.encode(0, 6)).isEqualTo("000000");
+    assertThat(ZeroPaddedDigits.encode(123456, 6)).isEqualTo("123456");
+    assertThat(ZeroPaddedDigits.encode(42, 8)).isEqualTo("00000042");
+  }
+
+  @Test
+  void expectSameOutputAsStringFormat() {
+    for (int value = 0; value < 1_000_000; value += 997) {
+      assertThat(ZeroPaddedDigits.encode(value, 6)).isEqualTo(String.format("%06d", value));
+    }
+  }
+
+  @Test
+  void expectValueNotFittingLengthRejected() {
+    assertThatThrownBy(() -> ZeroPaddedDigits.encode(1_000_000, 6))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> ZeroPaddedDigits.encode(-1, 6))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void expectUpperBoundIsPowerOfTen() {
+    assertThat(ZeroPaddedDigits.upperBound(6)).isEqualTo(1_000_000);
+    assertThat(ZeroPaddedDigits.upperBound(9)).isEqualTo(1_000_000_000);
+  }
+}